@@ -6,9 +6,15 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.HttpHeaders;
 import lombok.extern.slf4j.Slf4j;
 import org.jboss.resteasy.reactive.server.ServerResponseFilter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
 @Slf4j
 @ApplicationScoped
 public class JWSResponseFilter {
@@ -40,6 +46,16 @@ public class JWSResponseFilter {
                     log.debug("JSON payload ({} bytes): {}", jsonPayload.length(),
                         jsonPayload.substring(0, Math.min(200, jsonPayload.length())));
 
+                    // Weak ETag over the JSON content: every JWS differs (iat), the data does not
+                    String etag = "W/\"" + sha256Hex(jsonPayload) + "\"";
+                    responseContext.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+                    if (matches(requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH), etag)) {
+                        responseContext.setStatus(304);
+                        responseContext.setEntity(null);
+                        log.info("Not modified (ETag {}) for path: {}", etag, path);
+                        return;
+                    }
+
                     // Sign the JSON payload
                     String signed = jwsSigningService.signPayload(jsonPayload);
                     responseContext.setEntity(signed);
@@ -53,4 +69,23 @@ public class JWSResponseFilter {
             log.info("Filter skipped - path: {}, status: {}", path, status);
         }
     }
+
+    /**
+     * Weak comparison against an If-None-Match header (a list of ETags, or *).
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .anyMatch(candidate -> candidate.equals("*")
+                || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque));
+    }
+
+    private static String sha256Hex(String value) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
 }
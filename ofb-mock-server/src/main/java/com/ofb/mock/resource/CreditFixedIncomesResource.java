@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -82,7 +83,11 @@ public class CreditFixedIncomesResource {
     public Response getInvestmentTransactions(
             @PathParam("investmentId") String investmentId,
             @HeaderParam("Authorization") String authorization,
-            @HeaderParam("x-customer-cpf") String fallbackCpf) { // TEMP: for testing with auth disabled
+            @HeaderParam("x-customer-cpf") String fallbackCpf, // TEMP: for testing with auth disabled
+            @QueryParam("fromTransactionDate") String fromTransactionDate,
+            @QueryParam("toTransactionDate") String toTransactionDate,
+            @QueryParam("page") Integer page,
+            @QueryParam("page-size") Integer pageSize) {
 
         log.info("OFB API: GET /open-banking/credit-fixed-incomes/v1/investments/{}/transactions", investmentId);
 
@@ -95,13 +100,20 @@ public class CreditFixedIncomesResource {
                 .build();
         }
 
-        List<Map<String, Object>> transactions = mockDataService.getTransactionsByInvestmentId(cpf, investmentId);
+        List<Map<String, Object>> transactions;
+        Map<String, Object> body;
+        try {
+            transactions = mockDataService.getTransactionsByInvestmentId(
+                cpf, investmentId, fromTransactionDate, toTransactionDate);
+            body = mockDataService.paginate(transactions, page, pageSize);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(Map.of("error", "invalid_parameter", "message", e.getMessage()))
+                .build();
+        }
         log.debug("Returning {} transactions for investment {} (CPF {})", transactions.size(), investmentId, cpf);
 
-        return Response.ok(Map.of(
-            "data", transactions,
-            "meta", Map.of("totalRecords", transactions.size(), "totalPages", 1)
-        )).build();
+        return Response.ok(body).build();
     }
 
     @GET
@@ -15,6 +15,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -271,6 +272,64 @@ public class MockDataService {
         return allTransactions;
     }
 
+    /**
+     * Transactions of one investment with transactionDate inside the inclusive
+     * range, as the OFB fromTransactionDate/toTransactionDate query parameters.
+     * Null bounds are open.
+     *
+     * @throws java.time.format.DateTimeParseException if a bound is not yyyy-MM-dd
+     */
+    public List<Map<String, Object>> getTransactionsByInvestmentId(
+            String cpf, String investmentId, String fromTransactionDate, String toTransactionDate) {
+        LocalDate from = fromTransactionDate != null ? LocalDate.parse(fromTransactionDate) : null;
+        LocalDate to = toTransactionDate != null ? LocalDate.parse(toTransactionDate) : null;
+
+        List<Map<String, Object>> transactions = getTransactionsByInvestmentId(cpf, investmentId);
+        if (from == null && to == null) {
+            return transactions;
+        }
+        return transactions.stream()
+            .filter(tx -> {
+                Object date = tx.get("transactionDate");
+                if (date == null) {
+                    return false;
+                }
+                LocalDate txDate = LocalDate.parse(date.toString());
+                return (from == null || !txDate.isBefore(from)) && (to == null || !txDate.isAfter(to));
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds an OFB list response holding one page of the given records.
+     * Defaults follow the spec: page 1, page-size 25, at most 1000.
+     *
+     * @throws IllegalArgumentException if page or page-size is out of range
+     */
+    public Map<String, Object> paginate(List<Map<String, Object>> records, Integer page, Integer pageSize) {
+        int pageNumber = page != null ? page : 1;
+        int size = pageSize != null ? pageSize : 25;
+        if (pageNumber < 1) {
+            throw new IllegalArgumentException("page must be at least 1");
+        }
+        if (size < 1 || size > 1000) {
+            throw new IllegalArgumentException("page-size must be between 1 and 1000");
+        }
+
+        int totalRecords = records.size();
+        int totalPages = Math.max(1, (totalRecords + size - 1) / size);
+        int from = Math.min(totalRecords, (pageNumber - 1) * size);
+        int to = Math.min(totalRecords, from + size);
+
+        return Map.of(
+            "data", records.subList(from, to),
+            "meta", Map.of(
+                "totalRecords", totalRecords,
+                "totalPages", totalPages
+            )
+        );
+    }
+
     /**
      * Returns all transactions for a customer (used for risk profiling).
      * Transaction frequency determines risk profile per THE SPEC.
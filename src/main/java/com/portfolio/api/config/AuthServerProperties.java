@@ -0,0 +1,63 @@
+package com.portfolio.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "security.auth-server")
+public class AuthServerProperties {
+
+    private TokenStatusCache tokenStatusCache = new TokenStatusCache();
+    private JwtCache jwtCache = new JwtCache();
+    private SigningKeys signingKeys = new SigningKeys();
+    private AuthorizationStore authorizationStore = new AuthorizationStore();
+
+    @Data
+    public static class TokenStatusCache {
+        // How long a cached active/inactive status is trusted without a push eviction; capped at authorization-store.cache-ttl-seconds
+        private int ttlSeconds = 10;
+        private long maximumSize = 10000;
+    }
+
+    @Data
+    public static class JwtCache {
+        // Parsed bearer tokens kept until their exp claim; bounds memory only
+        private long maximumSize = 10000;
+    }
+
+    @Data
+    public static class SigningKeys {
+        // Base64 AES key (16/24/32 bytes) used to encrypt private keys at rest
+        private String encryptionKey;
+        private int keySize = 2048;
+        // How long a key signs before its successor takes over
+        private int rotationIntervalHours = 720;
+        // Successor is published this long before it starts signing, so every node has it in time
+        private int publishAheadMinutes = 10;
+        // Superseded keys stay in the JWKS this long; must exceed the longest JWT lifetime
+        private int retentionHours = 24;
+        // How often each node re-reads the key table
+        private int reloadIntervalSeconds = 60;
+        // Minimum gap between reloads triggered by an unknown kid
+        private int unknownKidReloadIntervalSeconds = 5;
+        // Read by the rotation @Scheduled placeholder
+        private long rotationCheckIntervalMs = 3600000;
+    }
+
+    @Data
+    public static class AuthorizationStore {
+        // jdbc (oauth2_* tables, shared by all nodes) or memory (single node, tests)
+        private String type = "jdbc";
+        // Access-token lookup cache; another node's revocation goes unseen for at most twice this
+        private int cacheTtlSeconds = 10;
+        private long cacheMaximumSize = 10000;
+        // Expired authorizations are deleted in batches of this size
+        private int cleanupBatchSize = 500;
+        // Authorization/consent requests that never got a token are deleted this long after their last save
+        private int abandonedRequestMaxAgeMinutes = 60;
+        // Read by the cleanup @Scheduled placeholder
+        private long cleanupIntervalMs = 600000;
+    }
+}
@@ -0,0 +1,72 @@
+package com.portfolio.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Authorization store shared by the authorization server endpoints and the
+ * resource server's revocation check.
+ *
+ * Kept apart from AuthorizationServerConfig/SecurityConfig so the resource
+ * server's JWT validator can depend on it without a configuration cycle.
+ *
+ * With security.auth-server.authorization-store.type=jdbc (default) authorizations
+ * and consents live in the V05 oauth2_* tables, so every node sees the same tokens
+ * and they survive restarts. Registered clients stay in application.yml.
+ */
+@Slf4j
+@Configuration
+public class AuthorizationStoreConfig {
+
+    private static final String JDBC = "jdbc";
+
+    private final AuthServerProperties properties;
+
+    public AuthorizationStoreConfig(AuthServerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public OAuth2AuthorizationService authorizationService(
+            JdbcTemplate jdbcTemplate,
+            RegisteredClientRepository registeredClientRepository,
+            TransactionTemplate transactionTemplate,
+            TokenStatusCache tokenStatusCache) {
+        AuthServerProperties.AuthorizationStore config = properties.getAuthorizationStore();
+
+        OAuth2AuthorizationService store;
+        if (JDBC.equals(config.getType())) {
+            log.info("Using JDBC OAuth2 authorization store");
+            store = new CachingOAuth2AuthorizationService(
+                    new HashedJdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository, transactionTemplate),
+                    Duration.ofSeconds(config.getCacheTtlSeconds()),
+                    config.getCacheMaximumSize());
+        } else {
+            log.info("Using in-memory OAuth2 authorization store");
+            store = new InMemoryOAuth2AuthorizationService();
+        }
+
+        return new RevocationAwareAuthorizationService(store, tokenStatusCache);
+    }
+
+    @Bean
+    public OAuth2AuthorizationConsentService authorizationConsentService(
+            JdbcTemplate jdbcTemplate,
+            RegisteredClientRepository registeredClientRepository) {
+        if (JDBC.equals(properties.getAuthorizationStore().getType())) {
+            return new JdbcOAuth2AuthorizationConsentService(jdbcTemplate, registeredClientRepository);
+        }
+        return new InMemoryOAuth2AuthorizationConsentService();
+    }
+}
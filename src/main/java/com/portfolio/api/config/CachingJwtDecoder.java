@@ -0,0 +1,81 @@
+package com.portfolio.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * JwtDecoder that remembers successfully parsed tokens until they expire.
+ *
+ * Signature verification (the expensive part) happens once per bearer token;
+ * later requests with the same token reuse the parsed Jwt. Validators still
+ * run on every decode, so expiry and revocation are checked each time.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder signatureDecoder;
+    private final OAuth2TokenValidator<Jwt> validator;
+    private final Cache<String, Jwt> parsedTokens;
+
+    /**
+     * @param signatureDecoder decoder that only parses and verifies the signature
+     * @param validator        validators applied on every decode, cached or not
+     */
+    public CachingJwtDecoder(JwtDecoder signatureDecoder, OAuth2TokenValidator<Jwt> validator, long maximumSize) {
+        this.signatureDecoder = signatureDecoder;
+        this.validator = validator;
+        this.parsedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = TokenHashes.sha256Hex(token);
+        Jwt jwt = parsedTokens.getIfPresent(key);
+        if (jwt == null) {
+            jwt = signatureDecoder.decode(token);
+        }
+
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        if (result.hasErrors()) {
+            parsedTokens.invalidate(key);
+            String description = result.getErrors().iterator().next().getDescription();
+            throw new JwtValidationException(
+                    "An error occurred while attempting to decode the Jwt: " + description, result.getErrors());
+        }
+
+        if (jwt.getExpiresAt() != null) {
+            parsedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
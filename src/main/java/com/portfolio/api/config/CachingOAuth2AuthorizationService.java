@@ -0,0 +1,75 @@
+package com.portfolio.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache for access-token lookups in front of the persistent store.
+ *
+ * Local saves and removals evict immediately; changes made on other nodes
+ * become visible once the (short) TTL lapses. {@link TokenStatusCache} sits in
+ * front of this cache and never trusts a status for longer than this TTL.
+ */
+public class CachingOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+    private final OAuth2AuthorizationService delegate;
+    // access token hash -> authorization
+    private final Cache<String, OAuth2Authorization> byAccessToken;
+    // authorization id -> access token hash it is cached under
+    private final Cache<String, String> cachedKeyById;
+
+    public CachingOAuth2AuthorizationService(OAuth2AuthorizationService delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        this.byAccessToken = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+        this.cachedKeyById = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        delegate.save(authorization);
+        evict(authorization);
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        delegate.remove(authorization);
+        evict(authorization);
+    }
+
+    @Override
+    public OAuth2Authorization findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        if (!OAuth2TokenType.ACCESS_TOKEN.equals(tokenType)) {
+            return delegate.findByToken(token, tokenType);
+        }
+
+        String key = TokenHashes.sha256Hex(token);
+        // Misses (unknown tokens) are not cached: the indexed lookup is cheap and they must not linger
+        OAuth2Authorization authorization = byAccessToken.get(key, k -> delegate.findByToken(token, tokenType));
+        if (authorization != null) {
+            cachedKeyById.put(authorization.getId(), key);
+        }
+        return authorization;
+    }
+
+    private void evict(OAuth2Authorization authorization) {
+        // The previous access token (e.g. before a refresh) may be cached under a different key
+        String previousKey = cachedKeyById.getIfPresent(authorization.getId());
+        if (previousKey != null) {
+            byAccessToken.invalidate(previousKey);
+            cachedKeyById.invalidate(authorization.getId());
+        }
+        if (authorization.getAccessToken() != null) {
+            byAccessToken.invalidate(TokenHashes.sha256Hex(authorization.getAccessToken().getToken().getTokenValue()));
+        }
+    }
+}
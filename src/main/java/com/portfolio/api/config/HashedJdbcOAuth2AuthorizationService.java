@@ -0,0 +1,180 @@
+package com.portfolio.api.config;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.support.lob.DefaultLobHandler;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JDBC authorization store over the V05 oauth2_authorization table.
+ *
+ * Token values are NVARCHAR(MAX) columns, which SQL Server cannot index, so
+ * every save also writes SHA-256 hashes of the state, code, access and refresh
+ * token (V15). Lookups by those token types hit the hash index and then load
+ * the row by primary key. Other token types fall back to the stock query.
+ *
+ * Saves also write expires_at (V19), the latest expiry of any token on the
+ * row, and saved_at, which the expired-authorization cleanup deletes on.
+ */
+public class HashedJdbcOAuth2AuthorizationService extends JdbcOAuth2AuthorizationService {
+
+    private static final String UPDATE_HASHES_SQL = """
+            UPDATE oauth2_authorization
+            SET state_hash = ?, authorization_code_hash = ?, access_token_hash = ?, refresh_token_hash = ?,
+                expires_at = ?, saved_at = ?
+            WHERE id = ?""";
+
+    private static final String FIND_ID_BY_ANY_HASH_SQL = """
+            SELECT id FROM oauth2_authorization
+            WHERE state_hash = ? OR authorization_code_hash = ? OR access_token_hash = ? OR refresh_token_hash = ?""";
+
+    private final TransactionOperations transactionOperations;
+
+    public HashedJdbcOAuth2AuthorizationService(
+            JdbcOperations jdbcOperations,
+            RegisteredClientRepository registeredClientRepository,
+            TransactionOperations transactionOperations) {
+        super(jdbcOperations, registeredClientRepository, new TextLobHandler());
+        this.transactionOperations = transactionOperations;
+
+        // V05 stores token values and metadata as NVARCHAR(MAX), not BLOB.
+        // The list must stay mutable: the base class reorders it for UPDATEs.
+        Function<OAuth2Authorization, List<SqlParameterValue>> blobParameters = getAuthorizationParametersMapper();
+        setAuthorizationParametersMapper(authorization -> blobParameters.apply(authorization).stream()
+                .map(HashedJdbcOAuth2AuthorizationService::blobToText)
+                .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        transactionOperations.executeWithoutResult(status -> {
+            super.save(authorization);
+            getJdbcOperations().update(UPDATE_HASHES_SQL,
+                    TokenHashes.sha256Hex(authorization.getAttribute(OAuth2ParameterNames.STATE)),
+                    TokenHashes.sha256Hex(tokenValue(authorization.getToken(OAuth2AuthorizationCode.class))),
+                    TokenHashes.sha256Hex(tokenValue(authorization.getAccessToken())),
+                    TokenHashes.sha256Hex(tokenValue(authorization.getRefreshToken())),
+                    latestExpiry(authorization),
+                    Timestamp.from(Instant.now()),
+                    authorization.getId());
+        });
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        String hash = TokenHashes.sha256Hex(token);
+        List<String> ids;
+        if (tokenType == null) {
+            ids = getJdbcOperations().queryForList(FIND_ID_BY_ANY_HASH_SQL, String.class, hash, hash, hash, hash);
+        } else {
+            String hashColumn = hashColumn(tokenType);
+            if (hashColumn == null) {
+                return super.findByToken(token, tokenType);
+            }
+            ids = getJdbcOperations().queryForList(
+                    "SELECT id FROM oauth2_authorization WHERE " + hashColumn + " = ?", String.class, hash);
+        }
+
+        for (String id : ids) {
+            OAuth2Authorization authorization = findById(id);
+            if (authorization != null && matches(authorization, token, tokenType)) {
+                return authorization;
+            }
+        }
+        return null;
+    }
+
+    private static String hashColumn(OAuth2TokenType tokenType) {
+        return switch (tokenType.getValue()) {
+            case OAuth2ParameterNames.STATE -> "state_hash";
+            case OAuth2ParameterNames.CODE -> "authorization_code_hash";
+            case OAuth2ParameterNames.ACCESS_TOKEN -> "access_token_hash";
+            case OAuth2ParameterNames.REFRESH_TOKEN -> "refresh_token_hash";
+            default -> null;
+        };
+    }
+
+    private static boolean matches(OAuth2Authorization authorization, String token, OAuth2TokenType tokenType) {
+        String type = tokenType != null ? tokenType.getValue() : null;
+        if (type == null || OAuth2ParameterNames.STATE.equals(type)) {
+            if (token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE))) {
+                return true;
+            }
+        }
+        if (type == null || OAuth2ParameterNames.CODE.equals(type)) {
+            if (token.equals(tokenValue(authorization.getToken(OAuth2AuthorizationCode.class)))) {
+                return true;
+            }
+        }
+        if (type == null || OAuth2ParameterNames.ACCESS_TOKEN.equals(type)) {
+            if (token.equals(tokenValue(authorization.getAccessToken()))) {
+                return true;
+            }
+        }
+        if (type == null || OAuth2ParameterNames.REFRESH_TOKEN.equals(type)) {
+            return token.equals(tokenValue(authorization.getRefreshToken()));
+        }
+        return false;
+    }
+
+    // Null while the row has no token with an expiry, so cleanup leaves it alone
+    private static Timestamp latestExpiry(OAuth2Authorization authorization) {
+        return Stream.of(
+                        authorization.getToken(OAuth2AuthorizationCode.class),
+                        authorization.getAccessToken(),
+                        authorization.getRefreshToken(),
+                        authorization.getToken(OidcIdToken.class))
+                .filter(Objects::nonNull)
+                .map(token -> token.getToken().getExpiresAt())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .map(Timestamp::from)
+                .orElse(null);
+    }
+
+    private static String tokenValue(OAuth2Authorization.Token<? extends OAuth2Token> token) {
+        return token != null ? token.getToken().getTokenValue() : null;
+    }
+
+    private static SqlParameterValue blobToText(SqlParameterValue parameter) {
+        if (parameter.getSqlType() != Types.BLOB) {
+            return parameter;
+        }
+        byte[] bytes = (byte[]) parameter.getValue();
+        return new SqlParameterValue(Types.NVARCHAR, bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Reads the NVARCHAR(MAX) "LOB" columns as text for the stock row mapper.
+     */
+    private static final class TextLobHandler extends DefaultLobHandler {
+
+        @Override
+        public byte[] getBlobAsBytes(ResultSet rs, int columnIndex) throws SQLException {
+            String value = rs.getString(columnIndex);
+            return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        }
+    }
+}
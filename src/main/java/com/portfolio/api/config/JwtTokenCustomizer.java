@@ -2,6 +2,7 @@ package com.portfolio.api.config;
 
 import com.portfolio.api.model.entity.Customer;
 import com.portfolio.api.repository.CustomerRepository;
+import com.portfolio.api.service.SigningKeyService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
@@ -17,19 +18,27 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Toke
  *
  * Uses authenticated user's email (from username/password authentication)
  * to lookup customer and add custom claims to the JWT.
+ *
+ * Also pins the JWS kid header to the current signing key, since the JWKS
+ * holds several keys during rotation.
  */
 @Configuration
 public class JwtTokenCustomizer {
 
     private final CustomerRepository customerRepository;
+    private final SigningKeyService signingKeyService;
 
-    public JwtTokenCustomizer(CustomerRepository customerRepository) {
+    public JwtTokenCustomizer(CustomerRepository customerRepository, SigningKeyService signingKeyService) {
         this.customerRepository = customerRepository;
+        this.signingKeyService = signingKeyService;
     }
 
     @Bean
     public OAuth2TokenCustomizer<JwtEncodingContext> jwtCustomizer() {
         return context -> {
+            // Sign every JWT (access and ID tokens) with the current shared key
+            context.getJwsHeader().keyId(signingKeyService.getSigningKeyId());
+
             // Only customize access tokens (not refresh tokens)
             if (context.getTokenType().getValue().equals("access_token")) {
                 // Get authenticated user's email from Spring Security authentication
@@ -19,6 +19,14 @@ public class OFBProviderProperties {
     private Token token = new Token();
     private Jwks jwks = new Jwks();
     private Connection connection = new Connection();
+    private FanOut fanOut = new FanOut();
+    private Verification verification = new Verification();
+    private PortfolioCache portfolioCache = new PortfolioCache();
+    private Coalescing coalescing = new Coalescing();
+    private Prewarm prewarm = new Prewarm();
+    private TransactionSync transactionSync = new TransactionSync();
+    private ConditionalRequests conditionalRequests = new ConditionalRequests();
+    private Batch batch = new Batch();
 
     @Data
     public static class Keystore {
@@ -33,17 +41,127 @@ public class OFBProviderProperties {
 
     @Data
     public static class Token {
+        // Lifetime assumed for tokens that carry neither exp nor expires_in
         private int cacheTtlSeconds = 3000;
+        // Background refresh starts when a token has less than this left
+        private int refreshAheadSeconds = 120;
+        // Tokens closer than this to expiry are not handed out
+        private int minValiditySeconds = 10;
+        // Cached tokens (one per CPF)
+        private int maximumSize = 10000;
     }
 
     @Data
     public static class Jwks {
         private int cacheTtlSeconds = 86400;
+        // Minimum gap between refreshes triggered by an unknown key ID or a failed refresh
+        private int minRefreshIntervalSeconds = 30;
     }
 
     @Data
     public static class Connection {
         private int connectTimeoutMs = 5000;
         private int readTimeoutMs = 10000;
+        // Pool limits; all OFB APIs share one host, so per-route is the effective cap
+        private int maxTotal = 64;
+        private int maxPerRoute = 64;
+        // Longest wait for a pooled connection before the call fails
+        private int connectionRequestTimeoutMs = 2000;
+        // Connections are retired after this age, even if healthy
+        private int timeToLiveSeconds = 300;
+        // Idle connections are closed by a background evictor after this long
+        private int idleEvictionSeconds = 30;
+        // Idle connections older than this are checked before reuse
+        private int validateAfterInactivityMs = 2000;
+        // Cached TLS sessions for abbreviated handshakes on new connections
+        private int tlsSessionCacheSize = 256;
+        private int tlsSessionTimeoutSeconds = 3600;
+    }
+
+    @Data
+    public static class FanOut {
+        // Upper bound on concurrent OFB calls for a single customer fetch
+        private int maxConcurrency = 8;
+        // Overall deadline for fetching one customer's investments
+        private long deadlineMs = 15000;
+    }
+
+    @Data
+    public static class Verification {
+        // JWS signature verification threads; 0 means one per available core
+        private int threads = 0;
+        // Pending verifications beyond this run on the calling thread
+        private int queueCapacity = 256;
+    }
+
+    @Data
+    public static class PortfolioCache {
+        // In-process (L1) entries per CPF
+        private int maximumSize = 10000;
+        // Data younger than this is served without contacting OFB
+        private int freshTtlSeconds = 300;
+        // Older data is served while a background refresh runs, up to this age
+        private int staleTtlHours = 24;
+    }
+
+    @Data
+    public static class Coalescing {
+        // Concurrent fetches for the same CPF share one upstream fan-out
+        private boolean enabled = true;
+        // How long a caller waits on another caller's in-flight fetch
+        private long waiterTimeoutMs = 20000;
+    }
+
+    @Data
+    public static class Prewarm {
+        private boolean enabled = true;
+        // Off-peak schedule for refreshing recently active customers (investment_data_cache rows)
+        private String cron = "0 0 5 * * *";
+        // Shortly before peak: fetch OFB tokens only, since the off-peak ones have expired by then
+        private String tokenCron = "0 45 8 * * MON-FRI";
+        // Customers seen (requests or simulations) within this window are pre-warmed
+        private int lookbackHours = 72;
+        // Upper bound on customers refreshed per run
+        private int maxCustomers = 2000;
+        // Concurrent customer refreshes; OFB rate comes from the ofbPrewarm rate limiter
+        private int maxConcurrency = 4;
+        // Recently active customers remembered in memory
+        private int trackedCustomers = 20000;
+    }
+
+    @Data
+    public static class TransactionSync {
+        // Request only transactions since the stored watermark
+        private boolean enabled = true;
+        // Full re-download after this many days, picking up back-dated or reversed transactions
+        private int fullResyncDays = 30;
+        // Transactions per page requested from OFB (the spec allows up to 1000)
+        private int pageSize = 1000;
+        // Upper bound on pages walked for one investment
+        private int maxPages = 200;
+    }
+
+    @Data
+    public static class ConditionalRequests {
+        // Send If-None-Match on detail and balance calls and reuse the stored result on 304
+        private boolean enabled = true;
+        // Stored validators (one per customer investment endpoint)
+        private int maximumSize = 50000;
+        // Validators unused for this long are dropped
+        private int expireAfterAccessHours = 24;
+    }
+
+    @Data
+    public static class Batch {
+        // Customers scored at once across all batch requests and jobs on this node
+        private int maxConcurrency = 16;
+        // Largest client list accepted by the streaming endpoint
+        private int maxClients = 500;
+        // Largest client list accepted by an async job
+        private int maxJobClients = 20000;
+        // Finished jobs and their results are kept this long after finishing; running jobs never expire
+        private int jobRetentionMinutes = 60;
+        // Jobs running at once (further submissions get 503); also the most finished jobs kept
+        private int maxJobs = 100;
     }
 }
@@ -1,24 +1,37 @@
 package com.portfolio.api.config;
 
 import com.portfolio.api.service.external.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.core5.http.config.Registry;
+import org.apache.hc.core5.http.config.RegistryBuilder;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 import java.io.InputStream;
 import java.security.KeyStore;
 import java.security.cert.Certificate;
@@ -32,6 +45,8 @@ public class OFBRestTemplateConfig {
 
     private final OFBProviderProperties properties;
     private final ResourceLoader resourceLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public OFBBankFixedIncomesClient ofbBankFixedIncomesClient(RestClient ofbRestClient) {
@@ -86,22 +101,45 @@ public class OFBRestTemplateConfig {
         log.info("Configuring OFB RestClient with mTLS");
 
         SSLContext sslContext = createSSLContext();
-        HttpClientConnectionManager connectionManager = createConnectionManager(sslContext);
+        OFBProviderProperties.Connection connection = properties.getConnection();
+        PoolingHttpClientConnectionManager connectionManager = createConnectionManager(sslContext);
         CloseableHttpClient httpClient = HttpClients.custom()
                 .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(connection.getIdleEvictionSeconds()))
                 .build();
 
         HttpComponentsClientHttpRequestFactory requestFactory =
                 new HttpComponentsClientHttpRequestFactory(httpClient);
-        requestFactory.setConnectTimeout(Duration.ofMillis(properties.getConnection().getConnectTimeoutMs()));
-        requestFactory.setReadTimeout(Duration.ofMillis(properties.getConnection().getReadTimeoutMs()));
+        requestFactory.setConnectTimeout(Duration.ofMillis(connection.getConnectTimeoutMs()));
+        requestFactory.setReadTimeout(Duration.ofMillis(connection.getReadTimeoutMs()));
+        requestFactory.setConnectionRequestTimeout(Duration.ofMillis(connection.getConnectionRequestTimeoutMs()));
 
         return RestClient.builder()
                 .baseUrl(properties.getBaseUrl())
                 .requestFactory(requestFactory)
+                .requestInterceptor(rejectedTokenInterceptor())
                 .build();
     }
 
+    /**
+     * Reports bearer tokens answered with 401 so cached copies are evicted
+     * before the next call instead of at their nominal expiry.
+     */
+    private ClientHttpRequestInterceptor rejectedTokenInterceptor() {
+        return (request, body, execution) -> {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)) {
+                String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+                if (authorization != null && authorization.startsWith("Bearer ")) {
+                    log.warn("OFB rejected bearer token on {}", request.getURI().getPath());
+                    eventPublisher.publishEvent(new OFBTokenRejectedEvent(authorization.substring(7)));
+                }
+            }
+            return response;
+        };
+    }
+
     private SSLContext createSSLContext() throws Exception {
         log.debug("Loading keystore from: {}", properties.getKeystore().getPath());
 
@@ -129,11 +167,36 @@ public class OFBRestTemplateConfig {
                 .build();
     }
 
-    private HttpClientConnectionManager createConnectionManager(SSLContext sslContext) {
-        return PoolingHttpClientConnectionManagerBuilder.create()
-                .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
+    private PoolingHttpClientConnectionManager createConnectionManager(SSLContext sslContext) {
+        OFBProviderProperties.Connection connection = properties.getConnection();
+
+        // New connections resume a cached TLS session instead of a full mTLS handshake
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(connection.getTlsSessionCacheSize());
+        sessionContext.setSessionTimeout(connection.getTlsSessionTimeoutSeconds());
+
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("https", SSLConnectionSocketFactoryBuilder.create()
                         .setSslContext(sslContext)
                         .build())
                 .build();
+
+        TimedPoolingConnectionManager connectionManager = new TimedPoolingConnectionManager(
+                socketFactories, TimeValue.ofSeconds(connection.getTimeToLiveSeconds()), "ofb", meterRegistry);
+        connectionManager.setMaxTotal(connection.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(connection.getMaxPerRoute());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connection.getConnectTimeoutMs()))
+                .setSocketTimeout(Timeout.ofMilliseconds(connection.getReadTimeoutMs()))
+                .setTimeToLive(TimeValue.ofSeconds(connection.getTimeToLiveSeconds()))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(connection.getValidateAfterInactivityMs()))
+                .build());
+
+        // Leased / available / pending gauges, tagged httpclient=ofb
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "ofb").bindTo(meterRegistry);
+
+        log.info("OFB connection pool: maxTotal={}, maxPerRoute={}, ttl={}s",
+                connection.getMaxTotal(), connection.getMaxPerRoute(), connection.getTimeToLiveSeconds());
+        return connectionManager;
     }
 }
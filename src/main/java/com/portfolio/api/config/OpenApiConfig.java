@@ -129,6 +129,8 @@ public class OpenApiConfig {
 
                                 ### 3. Perfil de Risco
                                 - **GET /perfil-risco/{clienteId}** - Perfil de risco dinâmico do cliente
+                                - **POST /perfil-risco/lote** - Perfis de risco de vários clientes (NDJSON, conforme concluem)
+                                - **POST /perfil-risco/lote/jobs** - Job em segundo plano para lotes grandes
                                 - **GET /produtos-recomendados/{perfil}** - Produtos recomendados por perfil
 
                                 ### 4. Telemetria
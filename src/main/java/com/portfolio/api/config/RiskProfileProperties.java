@@ -0,0 +1,34 @@
+package com.portfolio.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "risk-profile")
+public class RiskProfileProperties {
+
+    private ResultCache resultCache = new ResultCache();
+    private Model model = new Model();
+
+    @Data
+    public static class ResultCache {
+        // Reuse a stored profile while the portfolio hash and scoring version are unchanged
+        private boolean enabled = true;
+        // Latest result per client kept in memory
+        private int maximumSize = 10000;
+    }
+
+    @Data
+    public static class Model {
+        // Scoring model served to clients outside the experiment
+        private String location = "classpath:scoring/risk-model.json";
+        // Optional second model for an A/B test; empty disables the experiment
+        private String candidateLocation;
+        // Share of clients (0-100) scored with the candidate; a client always lands on the same side
+        private int candidatePercent = 0;
+        // How often model files are re-read; changed, valid files replace the running model
+        private long reloadIntervalMs = 30000;
+    }
+}
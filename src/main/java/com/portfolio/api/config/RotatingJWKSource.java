@@ -0,0 +1,34 @@
+package com.portfolio.api.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.portfolio.api.service.SigningKeyService;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JWKSource over the shared signing keys: used for signing (current key),
+ * for the JWKS endpoint and for in-process token verification (all published keys).
+ */
+@RequiredArgsConstructor
+public class RotatingJWKSource implements JWKSource<SecurityContext> {
+
+    private final SigningKeyService signingKeyService;
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> keys = jwkSelector.select(signingKeyService.getJwkSet());
+        if (keys.isEmpty()) {
+            // Token signed by a key another node created after our last reload
+            Set<String> keyIds = jwkSelector.getMatcher().getKeyIDs();
+            if (keyIds != null && !keyIds.isEmpty()) {
+                keys = jwkSelector.select(signingKeyService.reloadForUnknownKey());
+            }
+        }
+        return keys;
+    }
+}
@@ -1,5 +1,10 @@
 package com.portfolio.api.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +18,7 @@ import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtValidators;
@@ -34,9 +40,13 @@ public class SecurityConfig {
     @Autowired
     private JwtIntrospectionValidator jwtIntrospectionValidator;
 
+    @Autowired
+    private AuthServerProperties authServerProperties;
+
     @Bean
     @Order(2)
-    public SecurityFilterChain resourceServerSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain resourceServerSecurityFilterChain(
+            HttpSecurity http, JwtDecoder resourceServerJwtDecoder) throws Exception {
         http
                 .cors(cors -> cors.configure(http))  // Enable CORS
                 .authorizeHttpRequests(auth -> auth
@@ -47,7 +57,7 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.decoder(resourceServerJwtDecoder()))
+                        .jwt(jwt -> jwt.decoder(resourceServerJwtDecoder))
                         .authenticationEntryPoint((request, response, authException) -> {
                             response.setStatus(401);
                             response.setContentType("application/json;charset=UTF-8");
@@ -79,10 +89,20 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Resource server decoder backed by the authorization server's in-process JWKSource
+     * (no loopback JWKS fetch), caching parsed tokens until they expire.
+     */
     @Bean
     @Primary
-    public JwtDecoder resourceServerJwtDecoder() {
-        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withJwkSetUri("http://localhost:8080/api/v1/oauth2/jwks").build();
+    public JwtDecoder resourceServerJwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by the validators below, on every request
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        NimbusJwtDecoder signatureDecoder = new NimbusJwtDecoder(jwtProcessor);
+        signatureDecoder.setJwtValidator(jwt -> OAuth2TokenValidatorResult.success());
 
         // Combine default validators with our custom introspection validator
         OAuth2TokenValidator<Jwt> defaultValidators = JwtValidators.createDefault();
@@ -91,8 +111,8 @@ public class SecurityConfig {
             jwtIntrospectionValidator
         );
 
-        jwtDecoder.setJwtValidator(validators);
-        return jwtDecoder;
+        return new CachingJwtDecoder(
+                signatureDecoder, validators, authServerProperties.getJwtCache().getMaximumSize());
     }
 
     /**
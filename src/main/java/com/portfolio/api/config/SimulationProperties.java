@@ -0,0 +1,33 @@
+package com.portfolio.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "simulation")
+public class SimulationProperties {
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    @Data
+    public static class WriteBehind {
+        // Queue simulations and insert them in JDBC batches instead of one INSERT per request
+        private boolean enabled = false;
+        // Simulations waiting to be written; when full, requests wait up to offerTimeoutMs
+        private int queueCapacity = 10000;
+        // Rows per batch INSERT
+        private int batchSize = 200;
+        // A partial batch is written once its oldest row has waited this long
+        private long flushIntervalMs = 200;
+        // How long a request waits for queue space before failing with 503
+        private long offerTimeoutMs = 100;
+        // How long shutdown waits for the queue to be written
+        private long shutdownTimeoutSeconds = 30;
+        // First wait before retrying a write the database could not take (connection lost, timeout)
+        private long retryBackoffMs = 500;
+        // The wait doubles per attempt up to this
+        private long maxRetryBackoffMs = 30000;
+    }
+}
@@ -0,0 +1,62 @@
+package com.portfolio.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of token SHA-256 -> active status for the resource server.
+ * Keyed by {@link TokenHashes} so bearer token values are not kept in heap.
+ *
+ * Entries expire after a short TTL and are also evicted as soon as the
+ * authorization they belong to is saved or removed (e.g. revoked), so a
+ * revocation takes effect on the next request.
+ *
+ * Evictions are local to this node. A revocation made on another replica is
+ * seen once this entry and then the authorization store's lookup cache have
+ * expired, so the TTL is capped at authorization-store.cache-ttl-seconds:
+ * another node keeps accepting a revoked token for at most twice that
+ * (20 s with the defaults).
+ */
+@Slf4j
+@Component
+public class TokenStatusCache {
+
+    private final Cache<String, Boolean> statuses;
+
+    public TokenStatusCache(AuthServerProperties properties) {
+        AuthServerProperties.TokenStatusCache config = properties.getTokenStatusCache();
+        int storeCacheTtlSeconds = properties.getAuthorizationStore().getCacheTtlSeconds();
+        int ttlSeconds = config.getTtlSeconds();
+        if (ttlSeconds > storeCacheTtlSeconds) {
+            log.warn("token-status-cache.ttl-seconds={} exceeds authorization-store.cache-ttl-seconds={}; using {}",
+                    ttlSeconds, storeCacheTtlSeconds, storeCacheTtlSeconds);
+            ttlSeconds = storeCacheTtlSeconds;
+        }
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(config.getMaximumSize())
+                .build();
+    }
+
+    public boolean isActive(String tokenValue, Function<String, Boolean> lookup) {
+        return statuses.get(TokenHashes.sha256Hex(tokenValue), hash -> lookup.apply(tokenValue));
+    }
+
+    public void evict(OAuth2Authorization authorization) {
+        evict(authorization.getAccessToken());
+        evict(authorization.getRefreshToken());
+    }
+
+    private void evict(OAuth2Authorization.Token<? extends OAuth2Token> token) {
+        if (token != null) {
+            statuses.invalidate(TokenHashes.sha256Hex(token.getToken().getTokenValue()));
+        }
+    }
+}
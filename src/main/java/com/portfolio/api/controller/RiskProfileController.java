@@ -1,6 +1,12 @@
 package com.portfolio.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.model.dto.request.RiskProfileBatchRequest;
+import com.portfolio.api.model.dto.response.RiskProfileBatchItem;
+import com.portfolio.api.model.dto.response.RiskProfileBatchJobResponse;
 import com.portfolio.api.model.dto.response.RiskProfileResponse;
+import com.portfolio.api.service.AuthorizationValidator;
+import com.portfolio.api.service.RiskProfileBatchService;
 import com.portfolio.api.service.RiskProfileService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,13 +15,28 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
 
 @RestController
 @Validated
@@ -23,9 +44,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class RiskProfileController {
 
     private final RiskProfileService riskProfileService;
+    private final RiskProfileBatchService riskProfileBatchService;
+    private final AuthorizationValidator authorizationValidator;
+    private final ObjectMapper objectMapper;
 
-    public RiskProfileController(RiskProfileService riskProfileService) {
+    public RiskProfileController(RiskProfileService riskProfileService,
+                                 RiskProfileBatchService riskProfileBatchService,
+                                 AuthorizationValidator authorizationValidator,
+                                 ObjectMapper objectMapper) {
         this.riskProfileService = riskProfileService;
+        this.riskProfileBatchService = riskProfileBatchService;
+        this.authorizationValidator = authorizationValidator;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
@@ -152,4 +182,109 @@ public class RiskProfileController {
         RiskProfileResponse response = riskProfileService.calculateRiskProfile(clienteId);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+        summary = "Consultar perfil de risco em lote",
+        description = """
+            Calcula o perfil de risco de vários clientes em paralelo e devolve cada resultado assim que fica pronto,
+            em NDJSON (um objeto JSON por linha), na ordem de conclusão.
+
+            - Cada linha traz `clienteId`, `status` (o código HTTP que a consulta individual retornaria) e
+              `perfilRisco` ou `erro`
+            - Clientes que o usuário não pode acessar retornam `status` 403 na sua linha; o lote segue
+            - IDs repetidos são calculados uma única vez
+            - Limite de clientes por requisição: `ofb.provider.batch.max-clients`; lotes maiores devem usar
+              **POST /perfil-risco/lote/jobs**
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resultados transmitidos conforme concluem",
+            content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = RiskProfileBatchItem.class))),
+        @ApiResponse(responseCode = "400", description = "Lista de clientes vazia, inválida ou acima do limite",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = com.portfolio.api.model.dto.response.ErrorResponse.class)))
+    })
+    @PostMapping(value = "/perfil-risco/lote", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getRiskProfiles(
+        @Valid @RequestBody RiskProfileBatchRequest request,
+        Authentication authentication) {
+
+        riskProfileBatchService.checkStreamSize(request.getClienteIds());
+        Predicate<Long> permitted = clienteId -> authorizationValidator.canAccessCustomer(authentication, clienteId);
+
+        StreamingResponseBody body = out -> {
+            try {
+                riskProfileBatchService.run(request.getClienteIds(), permitted, item -> writeLine(out, item));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8))
+            .body(body);
+    }
+
+    @Operation(
+        summary = "Criar job de perfil de risco em lote",
+        description = """
+            Para lotes grandes (ex.: revisão noturna de suitability). O cálculo roda em segundo plano com o mesmo
+            limite de concorrência do endpoint em lote; acompanhe em **GET /perfil-risco/lote/jobs/{jobId}**.
+            Os resultados ficam disponíveis por `ofb.provider.batch.job-retention-minutes`.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job criado",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RiskProfileBatchJobResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Lista de clientes vazia, inválida ou acima do limite",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = com.portfolio.api.model.dto.response.ErrorResponse.class)))
+    })
+    @PostMapping("/perfil-risco/lote/jobs")
+    public ResponseEntity<RiskProfileBatchJobResponse> submitRiskProfileJob(
+        @Valid @RequestBody RiskProfileBatchRequest request,
+        Authentication authentication) {
+
+        Predicate<Long> permitted = clienteId -> authorizationValidator.canAccessCustomer(authentication, clienteId);
+        RiskProfileBatchJobResponse job = riskProfileBatchService.submit(
+            request.getClienteIds(), permitted, authorizationValidator.getUserId(authentication));
+        return ResponseEntity.accepted()
+            .location(URI.create("/perfil-risco/lote/jobs/" + job.getJobId()))
+            .body(job);
+    }
+
+    @Operation(
+        summary = "Consultar job de perfil de risco em lote",
+        description = """
+            Progresso do job e os resultados já concluídos, na ordem de conclusão. Use `desde` com o valor de
+            `concluidos` da consulta anterior para receber apenas os resultados novos.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Situação do job",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RiskProfileBatchJobResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Job inexistente, expirado ou de outro usuário")
+    })
+    @GetMapping("/perfil-risco/lote/jobs/{jobId}")
+    public ResponseEntity<RiskProfileBatchJobResponse> getRiskProfileJob(
+        @Parameter(description = "ID do job", required = true)
+        @PathVariable String jobId,
+        @Parameter(description = "Posição do primeiro resultado retornado", example = "0")
+        @RequestParam(defaultValue = "0") @PositiveOrZero int desde,
+        Authentication authentication) {
+
+        return riskProfileBatchService.findJob(jobId, authorizationValidator.getUserId(authentication), desde)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // One NDJSON line per result, flushed so clients see it as soon as it is scored
+    private void writeLine(OutputStream out, RiskProfileBatchItem item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package com.portfolio.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class BatchTooLargeException extends ApiException {
+
+    public BatchTooLargeException(int size, int limit) {
+        super(HttpStatus.BAD_REQUEST, "Lote excede o limite de " + limit + " clientes", size);
+    }
+}
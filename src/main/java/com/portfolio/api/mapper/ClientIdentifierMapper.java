@@ -6,7 +6,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -20,6 +23,14 @@ public class ClientIdentifierMapper {
                 .map(Customer::getCpf);
     }
 
+    /**
+     * CPFs of the given clients in one query; unknown IDs are absent from the map.
+     */
+    public Map<Long, String> getCpfsForClients(Collection<Long> clienteIds) {
+        return customerRepository.findAllById(clienteIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Customer::getCpf));
+    }
+
     public Optional<Long> getClientIdForCpf(String cpf) {
         return customerRepository.findByCpf(cpf)
                 .map(Customer::getId);
@@ -0,0 +1,25 @@
+package com.portfolio.api.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Requisição de perfil de risco em lote")
+public class RiskProfileBatchRequest {
+
+    @ArraySchema(
+            arraySchema = @Schema(description = "IDs dos clientes; IDs repetidos são calculados uma única vez", required = true),
+            schema = @Schema(example = "1"))
+    @NotEmpty(message = "Requisição inválida")
+    private List<@NotNull(message = "Requisição inválida") @Positive(message = "Requisição inválida") Long> clienteIds;
+}
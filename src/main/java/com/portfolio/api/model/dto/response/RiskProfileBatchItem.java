@@ -0,0 +1,37 @@
+package com.portfolio.api.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado de um cliente em um lote de perfil de risco")
+public class RiskProfileBatchItem {
+
+    @Schema(description = "ID do cliente", example = "1")
+    private Long clienteId;
+
+    @Schema(description = "Código HTTP equivalente à consulta individual", example = "200")
+    private int status;
+
+    @Schema(description = "Perfil calculado (somente quando status = 200)")
+    private RiskProfileResponse perfilRisco;
+
+    @Schema(description = "Motivo da falha (somente quando status != 200)", example = "Cliente não encontrado")
+    private String erro;
+
+    public static RiskProfileBatchItem ok(RiskProfileResponse perfilRisco) {
+        return new RiskProfileBatchItem(perfilRisco.getClienteId(), 200, perfilRisco, null);
+    }
+
+    public static RiskProfileBatchItem error(Long clienteId, int status, String erro) {
+        return new RiskProfileBatchItem(clienteId, status, null, erro);
+    }
+}
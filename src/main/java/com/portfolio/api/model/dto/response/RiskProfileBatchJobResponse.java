@@ -0,0 +1,47 @@
+package com.portfolio.api.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Situação de um job de perfil de risco em lote")
+public class RiskProfileBatchJobResponse {
+
+    @Schema(description = "ID do job", example = "3f9c2f3e-5a43-4c1e-9d7b-2b1f0c6e8a11")
+    private String jobId;
+
+    @Schema(description = "Situação do job", example = "EM_ANDAMENTO")
+    private Status status;
+
+    @Schema(description = "Clientes no lote (sem repetições)", example = "5000")
+    private int total;
+
+    @Schema(description = "Clientes já processados", example = "1200")
+    private int concluidos;
+
+    @Schema(description = "Clientes processados com erro", example = "3")
+    private int falhas;
+
+    @Schema(description = "Data e hora de criação do job", example = "2025-01-15T10:30:00")
+    private LocalDateTime criadoEm;
+
+    @Schema(description = "Data e hora de conclusão do job", example = "2025-01-15T10:34:12")
+    private LocalDateTime concluidoEm;
+
+    @Schema(description = "Resultados a partir da posição pedida em 'desde', na ordem de conclusão")
+    private List<RiskProfileBatchItem> resultados;
+
+    public enum Status {
+        EM_ANDAMENTO,
+        CONCLUIDO
+    }
+}
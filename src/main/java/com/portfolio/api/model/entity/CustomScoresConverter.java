@@ -0,0 +1,45 @@
+package com.portfolio.api.model.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores custom factor scores (factor name -> score) as a JSON object; no scores is NULL.
+ */
+@Converter
+public class CustomScoresConverter implements AttributeConverter<Map<String, Integer>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, Integer>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Integer> scores) {
+        if (scores == null || scores.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(scores);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Custom scores cannot be written as JSON", e);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Stored custom scores are not valid JSON", e);
+        }
+    }
+}
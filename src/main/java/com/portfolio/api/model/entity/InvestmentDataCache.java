@@ -23,6 +23,9 @@ public class InvestmentDataCache {
     @Column(name = "investment_data", nullable = false, columnDefinition = "NVARCHAR(MAX)")
     private String investmentData;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "fetched_at", nullable = false)
     private LocalDateTime fetchedAt;
 
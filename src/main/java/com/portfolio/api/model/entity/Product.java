@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "produtos")
+@EntityListeners(ProductChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
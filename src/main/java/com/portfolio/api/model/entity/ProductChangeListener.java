@@ -0,0 +1,26 @@
+package com.portfolio.api.model.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener on {@link Product} that publishes a {@link ProductChangedEvent}
+ * whenever a product is inserted, updated or deleted. Created by Hibernate through Spring.
+ */
+public class ProductChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void productChanged(Product product) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.portfolio.api.model.entity;
+
+/**
+ * Published, within the changing transaction, when a product row is written through JPA.
+ *
+ * @param productId id of the inserted, updated or deleted product
+ */
+public record ProductChangedEvent(Long productId) {
+}
@@ -0,0 +1,78 @@
+package com.portfolio.api.model.entity;
+
+import com.portfolio.api.model.enums.PerfilRisco;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Entity
+@Table(name = "perfil_risco_historico")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskProfileHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "scoring_version", nullable = false, length = 50)
+    private String scoringVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "perfil", nullable = false, length = 20)
+    private PerfilRisco perfil;
+
+    @Column(name = "pontuacao", nullable = false)
+    private Integer pontuacao;
+
+    @Column(name = "amount_score", nullable = false)
+    private Integer amountScore;
+
+    @Column(name = "frequency_score", nullable = false)
+    private Integer frequencyScore;
+
+    @Column(name = "product_risk_score", nullable = false)
+    private Integer productRiskScore;
+
+    @Column(name = "liquidity_score", nullable = false)
+    private Integer liquidityScore;
+
+    @Column(name = "horizon_score", nullable = false)
+    private Integer horizonScore;
+
+    // Custom factors of the scoring model, by name
+    @Convert(converter = CustomScoresConverter.class)
+    @Column(name = "custom_scores", columnDefinition = "NVARCHAR(MAX)")
+    private Map<String, Integer> customScores;
+
+    // Date the time-dependent scores (horizon, frequency) were evaluated at; part of the reuse key
+    @Column(name = "calculated_on", nullable = false)
+    private LocalDate calculatedOn;
+
+    @Column(name = "calculated_at", nullable = false)
+    private LocalDateTime calculatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (calculatedAt == null) {
+            calculatedAt = LocalDateTime.now();
+        }
+        if (calculatedOn == null) {
+            calculatedOn = calculatedAt.toLocalDate();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.portfolio.api.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "oauth2_signing_key")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SigningKey {
+
+    @Id
+    @Column(length = 100)
+    private String kid;
+
+    // Base64 X.509 SubjectPublicKeyInfo
+    @Column(name = "public_key", nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String publicKey;
+
+    // Base64 AES-GCM(iv || PKCS#8 private key), bound to kid
+    @Column(name = "private_key", nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String privateKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "activates_at", nullable = false)
+    private LocalDateTime activatesAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (activatesAt == null) {
+            activatesAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.portfolio.api.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "transaction_sync_state")
+@IdClass(TransactionSyncState.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSyncState {
+
+    @Id
+    @Column(length = 11)
+    private String cpf;
+
+    @Id
+    @Column(name = "investment_id", length = 100)
+    private String investmentId;
+
+    @Column(name = "transaction_count", nullable = false)
+    private int transactionCount;
+
+    @Column(name = "first_transaction_date")
+    private LocalDate firstTransactionDate;
+
+    @Column(name = "last_transaction_date")
+    private LocalDate lastTransactionDate;
+
+    // Transactions dated lastTransactionDate, which the next incremental sync returns again
+    @Column(name = "last_date_count", nullable = false)
+    private int lastDateCount;
+
+    @Column(name = "full_synced_at", nullable = false)
+    private LocalDateTime fullSyncedAt;
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String cpf;
+        private String investmentId;
+    }
+}
@@ -2,6 +2,7 @@ package com.portfolio.api.provider;
 
 import com.portfolio.api.provider.dto.CustomerPortfolio;
 import com.portfolio.api.provider.dto.Investment;
+import com.portfolio.api.provider.dto.PortfolioSnapshot;
 import com.portfolio.api.provider.dto.Position;
 
 import java.util.List;
@@ -9,16 +10,29 @@ import java.util.List;
 /**
  * Interface para integração com Sistema de Investimentos.
  * Fornece dados de carteira e histórico de investimentos.
+ *
+ * Implementações buscam um único {@link PortfolioSnapshot} por chamada; as
+ * demais visões são derivadas dele.
  */
 public interface InvestmentPlatformProvider {
 
+    /**
+     * Busca os dados do cliente no provedor, uma única vez para todas as visões.
+     *
+     * @param cpf CPF do cliente (11 dígitos)
+     * @return Snapshot imutável da carteira
+     */
+    PortfolioSnapshot getSnapshot(String cpf);
+
     /**
      * Obtém a carteira completa do cliente.
      *
      * @param cpf CPF do cliente (11 dígitos)
      * @return Dados da carteira com posições e rentabilidade
      */
-    CustomerPortfolio getPortfolio(String cpf);
+    default CustomerPortfolio getPortfolio(String cpf) {
+        return getSnapshot(cpf).getPortfolio();
+    }
 
     /**
      * Obtém o histórico de investimentos do cliente (aplicações e resgates).
@@ -26,7 +40,9 @@ public interface InvestmentPlatformProvider {
      * @param cpf CPF do cliente (11 dígitos)
      * @return Lista de investimentos históricos
      */
-    List<Investment> getInvestmentHistory(String cpf);
+    default List<Investment> getInvestmentHistory(String cpf) {
+        return getSnapshot(cpf).getInvestmentHistory();
+    }
 
     /**
      * Obtém as posições atuais do cliente.
@@ -34,5 +50,7 @@ public interface InvestmentPlatformProvider {
      * @param cpf CPF do cliente (11 dígitos)
      * @return Lista de posições em aberto
      */
-    List<Position> getCurrentPositions(String cpf);
+    default List<Position> getCurrentPositions(String cpf) {
+        return getSnapshot(cpf).getCurrentPositions();
+    }
 }
@@ -0,0 +1,177 @@
+package com.portfolio.api.provider.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Immutable view of one customer's holdings as returned by a single fetch.
+ *
+ * Every endpoint derives what it needs from the same snapshot; each view is
+ * built on first access and then reused. The version identifies the fetch,
+ * so two snapshots with the same version carry the same data. The content
+ * hash, when known, identifies the investment history itself and stays the
+ * same across fetches that return unchanged data.
+ */
+public final class PortfolioSnapshot {
+
+    private final String cpf;
+    private final LocalDateTime fetchedAt;
+    private final String contentHash;
+    private final Lazy<List<Investment>> investmentHistory;
+    private final Lazy<List<Position>> currentPositions;
+    private final Lazy<CustomerPortfolio> portfolio;
+
+    private PortfolioSnapshot(String cpf, LocalDateTime fetchedAt,
+                              Supplier<List<Investment>> investmentHistory,
+                              Function<List<Investment>, List<Position>> positionsFromHistory,
+                              Supplier<List<Position>> currentPositions) {
+        this.cpf = cpf;
+        this.fetchedAt = fetchedAt;
+        this.contentHash = null;
+        this.investmentHistory = new Lazy<>(() -> List.copyOf(investmentHistory.get()));
+        this.currentPositions = currentPositions != null
+                ? new Lazy<>(() -> List.copyOf(currentPositions.get()))
+                : new Lazy<>(() -> List.copyOf(positionsFromHistory.apply(this.investmentHistory.get())));
+        this.portfolio = new Lazy<>(this::summarize);
+    }
+
+    private PortfolioSnapshot(PortfolioSnapshot source, String contentHash) {
+        this.cpf = source.cpf;
+        this.fetchedAt = source.fetchedAt;
+        this.contentHash = contentHash;
+        this.investmentHistory = source.investmentHistory;
+        this.currentPositions = source.currentPositions;
+        this.portfolio = source.portfolio;
+    }
+
+    /**
+     * Snapshot over a fresh provider fetch; both views are mapped from the
+     * provider's data on first use.
+     */
+    public static PortfolioSnapshot of(String cpf, LocalDateTime fetchedAt,
+                                       Supplier<List<Investment>> investmentHistory,
+                                       Supplier<List<Position>> currentPositions) {
+        return new PortfolioSnapshot(cpf, fetchedAt, investmentHistory, null, currentPositions);
+    }
+
+    /**
+     * Snapshot restored from a stored investment history; positions are
+     * approximated from it (no maturity dates).
+     */
+    public static PortfolioSnapshot fromHistory(String cpf, LocalDateTime fetchedAt, List<Investment> investmentHistory) {
+        return new PortfolioSnapshot(cpf, fetchedAt, () -> investmentHistory,
+                PortfolioSnapshot::positionsFromHistory, null);
+    }
+
+    public static PortfolioSnapshot empty(String cpf) {
+        return fromHistory(cpf, LocalDateTime.now(), List.of());
+    }
+
+    /**
+     * Same snapshot (sharing the already built views) tagged with the hash of its investment history.
+     */
+    public PortfolioSnapshot withContentHash(String contentHash) {
+        return new PortfolioSnapshot(this, contentHash);
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public LocalDateTime getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public long getVersion() {
+        return fetchedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * SHA-256 of the serialized investment history, or null when not computed.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public List<Investment> getInvestmentHistory() {
+        return investmentHistory.get();
+    }
+
+    public List<Position> getCurrentPositions() {
+        return currentPositions.get();
+    }
+
+    public CustomerPortfolio getPortfolio() {
+        return portfolio.get();
+    }
+
+    private CustomerPortfolio summarize() {
+        BigDecimal totalInvestido = BigDecimal.ZERO;
+        BigDecimal valorAtual = BigDecimal.ZERO;
+        for (Position position : getCurrentPositions()) {
+            totalInvestido = totalInvestido.add(position.getValorAplicado());
+            valorAtual = valorAtual.add(position.getValorAtual());
+        }
+
+        return CustomerPortfolio.builder()
+                .cpf(cpf)
+                .totalInvestido(totalInvestido.setScale(2, RoundingMode.HALF_UP))
+                .valorAtual(valorAtual.setScale(2, RoundingMode.HALF_UP))
+                .rentabilidadeTotal(valorAtual.subtract(totalInvestido).setScale(2, RoundingMode.HALF_UP))
+                .dataUltimaAtualizacao(fetchedAt)
+                .build();
+    }
+
+    private static List<Position> positionsFromHistory(List<Investment> investments) {
+        return investments.stream()
+                .map(inv -> {
+                    BigDecimal valor = inv.getValor() != null ? inv.getValor() : BigDecimal.ZERO;
+                    BigDecimal rate = inv.getRentabilidade() != null ? inv.getRentabilidade() : BigDecimal.ZERO;
+                    BigDecimal valorAtual = valor.multiply(BigDecimal.ONE.add(rate)).setScale(2, RoundingMode.HALF_UP);
+                    return Position.builder()
+                            .codigoProduto(String.valueOf(inv.getId()))
+                            .nomeProduto(inv.getNomeProduto())
+                            .tipoProduto(inv.getTipo() != null ? inv.getTipo().name() : null)
+                            .valorAplicado(valor)
+                            .valorAtual(valorAtual)
+                            .rentabilidade(valorAtual.subtract(valor))
+                            .dataAplicacao(inv.getFirstTransactionDate() != null ? inv.getFirstTransactionDate() : inv.getData())
+                            .liquidez("D+0")
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Computes a value once, on first access, and publishes it safely.
+     */
+    private static final class Lazy<T> {
+
+        private Supplier<T> supplier;
+        private volatile T value;
+
+        Lazy(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = supplier.get();
+                        value = result;
+                        supplier = null;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
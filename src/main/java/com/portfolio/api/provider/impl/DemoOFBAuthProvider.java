@@ -3,10 +3,9 @@ package com.portfolio.api.provider.impl;
 import com.portfolio.api.model.entity.Customer;
 import com.portfolio.api.provider.OFBAuthProvider;
 import com.portfolio.api.repository.CustomerRepository;
-import com.portfolio.api.service.OFBAuthService;
+import com.portfolio.api.service.OFBTokenManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
@@ -21,10 +20,9 @@ import org.springframework.stereotype.Service;
 public class DemoOFBAuthProvider implements OFBAuthProvider {
 
     private final CustomerRepository customerRepository;
-    private final OFBAuthService authService;
+    private final OFBTokenManager tokenManager;
 
     @Override
-    @Cacheable(value = "ofbTokens", key = "#customerId")
     public String authenticateCustomer(Long customerId) throws Exception {
         log.info("Authenticating customer {} with OFB mock server", customerId);
 
@@ -36,7 +34,7 @@ public class DemoOFBAuthProvider implements OFBAuthProvider {
         String cpf = customer.getCpf();
         log.debug("Authenticating with CPF: {}", maskCpf(cpf));
 
-        return authService.authenticateWithCPF(cpf);
+        return tokenManager.getToken(cpf);
     }
 
     private String maskCpf(String cpf) {
@@ -0,0 +1,95 @@
+package com.portfolio.api.provider.impl;
+
+import com.portfolio.api.config.OFBProviderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Deduplicates concurrent OFB fetches for the same customer.
+ *
+ * The first caller for a CPF runs the fetch on its own thread; callers that
+ * arrive while it is in flight wait on the same future, up to the configured
+ * waiter timeout. Nothing is kept once the fetch completes, so this is not a
+ * cache: a caller arriving afterwards starts a new fetch.
+ */
+@Component
+public class InvestmentFetchCoalescer {
+
+    private final OFBProviderProperties.Coalescing config;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter upstreamFetches;
+    private final Counter coalescedFetches;
+    private final Counter waiterTimeouts;
+
+    public InvestmentFetchCoalescer(OFBProviderProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getCoalescing();
+
+        this.upstreamFetches = Counter.builder("ofb.fetch.upstream")
+                .description("OFB fan-outs actually executed")
+                .register(meterRegistry);
+        this.coalescedFetches = Counter.builder("ofb.fetch.coalesced")
+                .description("OFB fan-outs saved by joining an in-flight fetch")
+                .register(meterRegistry);
+        this.waiterTimeouts = Counter.builder("ofb.fetch.waiter.timeouts")
+                .description("Callers that gave up waiting on an in-flight fetch")
+                .register(meterRegistry);
+        Gauge.builder("ofb.fetch.in.flight", inFlight, ConcurrentHashMap::size)
+                .description("Customers with an OFB fan-out in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the fetch, or joins the one already running for this CPF.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T fetch(String cpf, Callable<T> fetch) throws Exception {
+        if (!config.isEnabled()) {
+            upstreamFetches.increment();
+            return fetch.call();
+        }
+
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(cpf, created);
+        if (existing != null) {
+            coalescedFetches.increment();
+            return (T) await(existing);
+        }
+
+        upstreamFetches.increment();
+        try {
+            T result = fetch.call();
+            created.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cpf, created);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get(config.getWaiterTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            waiterTimeouts.increment();
+            throw new TimeoutException("Timed out waiting for in-flight OFB fetch after "
+                    + config.getWaiterTimeoutMs() + "ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
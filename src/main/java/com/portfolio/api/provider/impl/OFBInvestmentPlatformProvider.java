@@ -4,8 +4,8 @@ import com.portfolio.api.model.entity.Customer;
 import com.portfolio.api.model.enums.TipoProduto;
 import com.portfolio.api.provider.InvestmentPlatformProvider;
 import com.portfolio.api.provider.OFBAuthProvider;
-import com.portfolio.api.provider.dto.CustomerPortfolio;
 import com.portfolio.api.provider.dto.Investment;
+import com.portfolio.api.provider.dto.PortfolioSnapshot;
 import com.portfolio.api.provider.dto.Position;
 import com.portfolio.api.repository.CustomerRepository;
 import com.portfolio.api.service.external.OFBInvestmentDataService;
@@ -19,7 +19,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -29,72 +28,23 @@ public class OFBInvestmentPlatformProvider implements InvestmentPlatformProvider
     private final OFBInvestmentDataService ofbInvestmentDataService;
     private final OFBAuthProvider ofbAuthProvider;
     private final CustomerRepository customerRepository;
+    private final InvestmentFetchCoalescer fetchCoalescer;
 
     @Override
-    public CustomerPortfolio getPortfolio(String cpf) {
-        log.debug("Fetching portfolio for CPF: {}", maskCpf(cpf));
+    public PortfolioSnapshot getSnapshot(String cpf) {
+        log.debug("Fetching portfolio snapshot for CPF: {}", maskCpf(cpf));
 
         try {
-            String token = authenticateWithCpf(cpf);
-            List<OFBInvestmentDataService.InvestmentData> investments = ofbInvestmentDataService.fetchInvestments(token);
+            List<OFBInvestmentDataService.InvestmentData> investments = fetchInvestmentData(cpf);
 
-            BigDecimal totalInvestido = investments.stream()
-                    .map(inv -> BigDecimal.valueOf(inv.getInvestedAmount()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal valorAtual = investments.stream()
-                    .map(inv -> BigDecimal.valueOf(inv.getCurrentValue()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal rentabilidadeTotal = valorAtual.subtract(totalInvestido);
-
-            return CustomerPortfolio.builder()
-                    .cpf(cpf)
-                    .totalInvestido(totalInvestido.setScale(2, RoundingMode.HALF_UP))
-                    .valorAtual(valorAtual.setScale(2, RoundingMode.HALF_UP))
-                    .rentabilidadeTotal(rentabilidadeTotal.setScale(2, RoundingMode.HALF_UP))
-                    .dataUltimaAtualizacao(LocalDateTime.now())
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Error fetching portfolio from OFB provider for CPF: {}", maskCpf(cpf), e);
-            throw new RuntimeException("Falha ao buscar portfólio do provedor OFB", e);
-        }
-    }
-
-    @Override
-    public List<Investment> getInvestmentHistory(String cpf) {
-        log.debug("Fetching investment history for CPF: {}", maskCpf(cpf));
-
-        try {
-            String token = authenticateWithCpf(cpf);
-            List<OFBInvestmentDataService.InvestmentData> investments = ofbInvestmentDataService.fetchInvestments(token);
-
-            return investments.stream()
-                    .map(this::mapToInvestment)
-                    .collect(Collectors.toList());
+            // Views are mapped on first use; callers that only need history skip positions
+            return PortfolioSnapshot.of(cpf, LocalDateTime.now(),
+                    () -> investments.stream().map(this::mapToInvestment).toList(),
+                    () -> investments.stream().map(this::mapToPosition).toList());
 
         } catch (Exception e) {
-            log.error("Error fetching investment history from OFB provider for CPF: {}", maskCpf(cpf), e);
-            throw new RuntimeException("Falha ao buscar histórico de investimentos do provedor OFB", e);
-        }
-    }
-
-    @Override
-    public List<Position> getCurrentPositions(String cpf) {
-        log.debug("Fetching current positions for CPF: {}", maskCpf(cpf));
-
-        try {
-            String token = authenticateWithCpf(cpf);
-            List<OFBInvestmentDataService.InvestmentData> investments = ofbInvestmentDataService.fetchInvestments(token);
-
-            return investments.stream()
-                    .map(this::mapToPosition)
-                    .collect(Collectors.toList());
-
-        } catch (Exception e) {
-            log.error("Error fetching positions from OFB provider for CPF: {}", maskCpf(cpf), e);
-            throw new RuntimeException("Falha ao buscar posições do provedor OFB", e);
+            log.error("Error fetching portfolio snapshot from OFB provider for CPF: {}", maskCpf(cpf), e);
+            throw new RuntimeException("Falha ao buscar dados de investimentos do provedor OFB", e);
         }
     }
 
@@ -154,6 +104,15 @@ public class OFBInvestmentPlatformProvider implements InvestmentPlatformProvider
                 .build();
     }
 
+    /**
+     * Concurrent snapshot requests for one customer (e.g. /investimentos and
+     * /perfil-risco) share the same fan-out.
+     */
+    private List<OFBInvestmentDataService.InvestmentData> fetchInvestmentData(String cpf) throws Exception {
+        return fetchCoalescer.fetch(cpf,
+                () -> ofbInvestmentDataService.fetchInvestments(cpf, authenticateWithCpf(cpf)));
+    }
+
     private String authenticateWithCpf(String cpf) {
         try {
             Customer customer = customerRepository.findByCpf(cpf)
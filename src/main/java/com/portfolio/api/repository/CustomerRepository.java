@@ -2,8 +2,12 @@ package com.portfolio.api.repository;
 
 import com.portfolio.api.model.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +18,8 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
 
     boolean existsByCpf(String cpf);
+
+    @Query("SELECT c.cpf FROM Customer c WHERE c.id IN "
+            + "(SELECT s.clienteId FROM Simulation s WHERE s.dataSimulacao >= :since)")
+    List<String> findCpfsWithSimulationsSince(@Param("since") LocalDateTime since);
 }
@@ -2,9 +2,11 @@ package com.portfolio.api.repository;
 
 import com.portfolio.api.model.entity.InvestmentDataCache;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -14,4 +16,14 @@ public interface InvestmentDataCacheRepository extends JpaRepository<InvestmentD
 
     @Query("SELECT c FROM InvestmentDataCache c WHERE c.cpf = :cpf AND c.expiresAt > :now")
     Optional<InvestmentDataCache> findValidCacheByCpf(@Param("cpf") String cpf, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c.contentHash FROM InvestmentDataCache c WHERE c.cpf = :cpf")
+    Optional<String> findContentHashByCpf(@Param("cpf") String cpf);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvestmentDataCache c SET c.fetchedAt = :fetchedAt, c.expiresAt = :expiresAt WHERE c.cpf = :cpf")
+    int refreshTimestamps(@Param("cpf") String cpf,
+                          @Param("fetchedAt") LocalDateTime fetchedAt,
+                          @Param("expiresAt") LocalDateTime expiresAt);
 }
@@ -16,6 +16,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByPerfilAdequadoAndAtivoTrue(String perfilAdequado);
 
+    List<Product> findByAtivoTrue();
+
     List<Product> findByTipoAndAtivoTrueAndValorMinimoLessThanEqual(
             TipoProduto tipo,
             BigDecimal valor
@@ -0,0 +1,15 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.entity.RiskProfileHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface RiskProfileHistoryRepository extends JpaRepository<RiskProfileHistory, Long> {
+
+    Optional<RiskProfileHistory> findFirstByClienteIdAndContentHashAndScoringVersionAndCalculatedOnOrderByCalculatedAtDesc(
+            Long clienteId, String contentHash, String scoringVersion, LocalDate calculatedOn);
+}
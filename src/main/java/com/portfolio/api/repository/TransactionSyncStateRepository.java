@@ -0,0 +1,13 @@
+package com.portfolio.api.repository;
+
+import com.portfolio.api.model.entity.TransactionSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransactionSyncStateRepository extends JpaRepository<TransactionSyncState, TransactionSyncState.Key> {
+
+    List<TransactionSyncState> findByCpf(String cpf);
+}
@@ -0,0 +1,409 @@
+package com.portfolio.api.scorer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.model.enums.PerfilRisco;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A validated {@link ScoringModel} flattened into primitive arrays.
+ * <p>
+ * Weights are indexed by {@link Factor} ordinal and product levels by
+ * TipoProduto ordinal, so scoring reads arrays instead of looking up maps.
+ * Custom factor expressions are compiled to bytecode here, once per model.
+ * Instances are immutable and safe to share; a reload builds a new one.
+ */
+@Slf4j
+public final class CompiledScoringModel {
+
+    public static final String BUILT_IN_LOCATION = "scoring/risk-model.json";
+
+    private static final ObjectMapper MODEL_MAPPER = new ObjectMapper()
+            .enable(JsonParser.Feature.ALLOW_COMMENTS);
+
+    private static final int[] NO_CUSTOM_SCORES = new int[0];
+
+    public enum Factor {
+        AMOUNT, FREQUENCY, PRODUCT_RISK, LIQUIDITY, HORIZON
+    }
+
+    private final String version;
+    private final String fingerprint;
+
+    private final double[] weights;
+    private final int conservadorMaxScore;
+    private final int moderadoMaxScore;
+
+    private final int amountEmptyScore;
+    private final double[] amountFrom;
+    private final double[] amountTo;
+    private final int[] amountMinScore;
+    private final int[] amountMaxScore;
+    private final int amountTopScore;
+
+    private final int frequencyEmptyScore;
+    private final int frequencyNoActivityScore;
+    private final double frequencyMinYearsActive;
+    private final double[] frequencyAtLeast;
+    private final int[] frequencyScores;
+    private final int frequencyBaseScore;
+
+    private final int horizonEmptyScore;
+    private final double[] horizonAtLeast;
+    private final int[] horizonScores;
+    private final int horizonBaseScore;
+
+    private final int productRiskEmptyScore;
+    private final int productRiskDefaultLevel;
+    private final int[] productRiskByOrdinal;
+
+    private final int liquidityEmptyScore;
+    private final int liquidityDefaultLevel;
+    private final int[] liquidityByOrdinal;
+
+    private final CustomFactor[] customFactors;
+
+    private CompiledScoringModel(ScoringModel model, String fingerprint) {
+        this.version = model.version();
+        this.fingerprint = fingerprint;
+
+        this.weights = new double[Factor.values().length];
+        weights[Factor.AMOUNT.ordinal()] = model.weights().amount();
+        weights[Factor.FREQUENCY.ordinal()] = model.weights().frequency();
+        weights[Factor.PRODUCT_RISK.ordinal()] = model.weights().productRisk();
+        weights[Factor.LIQUIDITY.ordinal()] = model.weights().liquidity();
+        weights[Factor.HORIZON.ordinal()] = model.weights().horizon();
+        this.conservadorMaxScore = model.profiles().conservadorMaxScore();
+        this.moderadoMaxScore = model.profiles().moderadoMaxScore();
+
+        List<ScoringModel.AmountTier> tiers = model.amount().tiers();
+        this.amountEmptyScore = model.amount().emptyScore();
+        this.amountFrom = tiers.stream().mapToDouble(ScoringModel.AmountTier::from).toArray();
+        this.amountTo = tiers.stream().mapToDouble(ScoringModel.AmountTier::to).toArray();
+        this.amountMinScore = tiers.stream().mapToInt(ScoringModel.AmountTier::minScore).toArray();
+        this.amountMaxScore = tiers.stream().mapToInt(ScoringModel.AmountTier::maxScore).toArray();
+        this.amountTopScore = model.amount().topScore();
+
+        ScoringModel.Steps frequency = model.frequency();
+        this.frequencyEmptyScore = frequency.emptyScore();
+        this.frequencyNoActivityScore = frequency.noActivityScore();
+        this.frequencyMinYearsActive = frequency.minYearsActive();
+        this.frequencyAtLeast = frequency.steps().stream().mapToDouble(ScoringModel.Step::atLeast).toArray();
+        this.frequencyScores = frequency.steps().stream().mapToInt(ScoringModel.Step::score).toArray();
+        this.frequencyBaseScore = frequency.baseScore();
+
+        ScoringModel.Steps horizon = model.horizon();
+        this.horizonEmptyScore = horizon.emptyScore();
+        this.horizonAtLeast = horizon.steps().stream().mapToDouble(ScoringModel.Step::atLeast).toArray();
+        this.horizonScores = horizon.steps().stream().mapToInt(ScoringModel.Step::score).toArray();
+        this.horizonBaseScore = horizon.baseScore();
+
+        this.productRiskEmptyScore = model.productRisk().emptyScore();
+        this.productRiskDefaultLevel = model.productRisk().defaultLevel();
+        this.productRiskByOrdinal = PortfolioFeatures.levelsByOrdinal(
+                model.productRisk().levels(), productRiskDefaultLevel);
+
+        this.liquidityEmptyScore = model.liquidity().emptyScore();
+        this.liquidityDefaultLevel = model.liquidity().defaultLevel();
+        this.liquidityByOrdinal = PortfolioFeatures.levelsByOrdinal(
+                model.liquidity().levels(), liquidityDefaultLevel);
+
+        this.customFactors = compileCustomFactors(model.customFactors());
+    }
+
+    private static CustomFactor[] compileCustomFactors(List<ScoringModel.CustomFactor> definitions) {
+        if (definitions == null || definitions.isEmpty()) {
+            return new CustomFactor[0];
+        }
+        CustomFactor[] compiled = new CustomFactor[definitions.size()];
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < compiled.length; i++) {
+            ScoringModel.CustomFactor definition = definitions.get(i);
+            try {
+                compiled[i] = new CustomFactor(definition.name(), definition.weight(), definition.emptyScore(),
+                        FactorExpressionCompiler.compile(definition.expression()));
+            } catch (IllegalArgumentException e) {
+                errors.add("customFactors." + definition.name() + ".expression: " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid scoring model: " + String.join("; ", errors));
+        }
+        return compiled;
+    }
+
+    /**
+     * Validates and compiles a model.
+     *
+     * @throws IllegalArgumentException if the model is invalid
+     */
+    public static CompiledScoringModel compile(ScoringModel model) {
+        model.validate();
+        return new CompiledScoringModel(model, model.version() + "-" + contentHash(model));
+    }
+
+    /**
+     * Parses, validates and compiles a model file (JSON, comments allowed).
+     *
+     * @throws IllegalArgumentException if the file cannot be parsed or the model is invalid
+     */
+    public static CompiledScoringModel parse(byte[] json) {
+        ScoringModel model;
+        try {
+            model = MODEL_MAPPER.readValue(json, ScoringModel.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable scoring model: " + e.getMessage(), e);
+        }
+        return compile(model);
+    }
+
+    /**
+     * The model shipped on the classpath; what scorers use when no model is passed.
+     */
+    public static CompiledScoringModel builtIn() {
+        return BuiltIn.MODEL;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Version plus a hash of the model's values; changes whenever any value does,
+     * even if the version was not bumped. Stored profiles are keyed by it.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public double weight(Factor factor) {
+        return weights[factor.ordinal()];
+    }
+
+    /**
+     * Weighted total of the five factor scores, rounded to an integer.
+     * Only for models without custom factors.
+     */
+    public int totalScore(int amountScore, int frequencyScore, int productRiskScore,
+                          int liquidityScore, int horizonScore) {
+        return totalScore(amountScore, frequencyScore, productRiskScore, liquidityScore, horizonScore,
+                NO_CUSTOM_SCORES);
+    }
+
+    /**
+     * Weighted total of the five factor scores and the {@link #customScores custom ones}, rounded to an integer.
+     */
+    public int totalScore(int amountScore, int frequencyScore, int productRiskScore,
+                          int liquidityScore, int horizonScore, int[] customScores) {
+        if (customScores.length != customFactors.length) {
+            throw new IllegalArgumentException("Expected " + customFactors.length + " custom scores, got "
+                    + customScores.length);
+        }
+        double total = amountScore * weights[Factor.AMOUNT.ordinal()] +
+                frequencyScore * weights[Factor.FREQUENCY.ordinal()] +
+                productRiskScore * weights[Factor.PRODUCT_RISK.ordinal()] +
+                liquidityScore * weights[Factor.LIQUIDITY.ordinal()] +
+                horizonScore * weights[Factor.HORIZON.ordinal()];
+        for (int i = 0; i < customScores.length; i++) {
+            total += customScores[i] * customFactors[i].weight;
+        }
+        return (int) Math.round(total);
+    }
+
+    /**
+     * Scores of the model's custom factors, in file order (empty when it has none).
+     */
+    public int[] customScores(PortfolioFeatures features) {
+        if (customFactors.length == 0) {
+            return NO_CUSTOM_SCORES;
+        }
+        int[] scores = new int[customFactors.length];
+        for (int i = 0; i < customFactors.length; i++) {
+            scores[i] = customFactors[i].score(features);
+        }
+        return scores;
+    }
+
+    public List<String> getCustomFactorNames() {
+        List<String> names = new ArrayList<>(customFactors.length);
+        for (CustomFactor factor : customFactors) {
+            names.add(factor.name);
+        }
+        return names;
+    }
+
+    /**
+     * Custom factor scores keyed by factor name, in file order (empty when the model has none).
+     */
+    public Map<String, Integer> customScoresByName(int[] customScores) {
+        Map<String, Integer> byName = new LinkedHashMap<>();
+        for (int i = 0; i < customFactors.length && i < customScores.length; i++) {
+            byName.put(customFactors[i].name, customScores[i]);
+        }
+        return byName;
+    }
+
+    public PerfilRisco classify(int totalScore) {
+        if (totalScore <= conservadorMaxScore) {
+            return PerfilRisco.CONSERVADOR;
+        } else if (totalScore <= moderadoMaxScore) {
+            return PerfilRisco.MODERADO;
+        } else {
+            return PerfilRisco.AGRESSIVO;
+        }
+    }
+
+    /**
+     * Linear score within the amount tier containing the total; 4-decimal ratio as before.
+     */
+    int amountScore(double totalAmount) {
+        if (totalAmount <= 0) {
+            return amountEmptyScore;
+        }
+        int last = amountTo.length - 1;
+        if (totalAmount >= amountTo[last]) {
+            return amountTopScore;
+        }
+        int tier = last;
+        while (tier > 0 && totalAmount < amountFrom[tier]) {
+            tier--;
+        }
+        double ratio = (totalAmount - amountFrom[tier]) / (amountTo[tier] - amountFrom[tier]);
+        ratio = Math.round(ratio * 10_000) / 10_000.0;
+        ratio = Math.max(0, Math.min(1, ratio));
+        return (int) Math.round(amountMinScore[tier] + (ratio * (amountMaxScore[tier] - amountMinScore[tier])));
+    }
+
+    int amountEmptyScore() {
+        return amountEmptyScore;
+    }
+
+    int frequencyScore(double transactionsPerYear) {
+        return step(frequencyAtLeast, frequencyScores, frequencyBaseScore, transactionsPerYear);
+    }
+
+    int frequencyEmptyScore() {
+        return frequencyEmptyScore;
+    }
+
+    int frequencyNoActivityScore() {
+        return frequencyNoActivityScore;
+    }
+
+    double frequencyMinYearsActive() {
+        return frequencyMinYearsActive;
+    }
+
+    int horizonScore(double years) {
+        return step(horizonAtLeast, horizonScores, horizonBaseScore, years);
+    }
+
+    int horizonEmptyScore() {
+        return horizonEmptyScore;
+    }
+
+    int productRiskEmptyScore() {
+        return productRiskEmptyScore;
+    }
+
+    int productRiskDefaultLevel() {
+        return productRiskDefaultLevel;
+    }
+
+    int[] productRiskByOrdinal() {
+        return productRiskByOrdinal;
+    }
+
+    int liquidityEmptyScore() {
+        return liquidityEmptyScore;
+    }
+
+    int liquidityDefaultLevel() {
+        return liquidityDefaultLevel;
+    }
+
+    int[] liquidityByOrdinal() {
+        return liquidityByOrdinal;
+    }
+
+    private static int step(double[] atLeast, int[] scores, int baseScore, double value) {
+        for (int i = 0; i < atLeast.length; i++) {
+            if (value >= atLeast[i]) {
+                return scores[i];
+            }
+        }
+        return baseScore;
+    }
+
+    private static String contentHash(ScoringModel model) {
+        try {
+            byte[] canonical = MODEL_MAPPER.writeValueAsBytes(model);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical);
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CustomFactor {
+
+        private final String name;
+        private final double weight;
+        private final int emptyScore;
+        private final FactorExpression expression;
+
+        private CustomFactor(String name, double weight, int emptyScore, FactorExpression expression) {
+            this.name = name;
+            this.weight = weight;
+            this.emptyScore = emptyScore;
+            this.expression = expression;
+        }
+
+        // A failing or NaN expression scores like an empty portfolio rather than failing the profile
+        private int score(PortfolioFeatures features) {
+            if (features.isEmpty()) {
+                return emptyScore;
+            }
+            double value;
+            try {
+                value = expression.evaluate(features);
+            } catch (RuntimeException e) {
+                log.warn("Custom factor {} failed, using its emptyScore: {}", name, e.toString());
+                return emptyScore;
+            }
+            if (Double.isNaN(value)) {
+                return emptyScore;
+            }
+            return (int) Math.round(Math.max(0, Math.min(100, value)));
+        }
+    }
+
+    private static final class BuiltIn {
+
+        private static final CompiledScoringModel MODEL = load();
+
+        private static CompiledScoringModel load() {
+            try (InputStream in = CompiledScoringModel.class.getClassLoader().getResourceAsStream(BUILT_IN_LOCATION)) {
+                if (in == null) {
+                    throw new IllegalStateException("Built-in scoring model not found: " + BUILT_IN_LOCATION);
+                }
+                return parse(in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
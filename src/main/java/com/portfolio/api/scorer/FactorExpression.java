@@ -0,0 +1,13 @@
+package com.portfolio.api.scorer;
+
+/**
+ * A custom factor from the scoring model, compiled to bytecode by {@link FactorExpressionCompiler}.
+ * Public because the generated classes implement it.
+ */
+public interface FactorExpression {
+
+    /**
+     * The factor's raw score for a portfolio; clamped to 0-100 by the model.
+     */
+    double evaluate(PortfolioFeatures portfolio);
+}
@@ -0,0 +1,125 @@
+package com.portfolio.api.scorer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.api.model.enums.TipoProduto;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.janino.ExpressionEvaluator;
+import org.codehaus.janino.Scanner;
+import org.codehaus.janino.Token;
+import org.codehaus.janino.TokenType;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Compiles custom factor expressions to bytecode with Janino.
+ * <p>
+ * An expression is a Java expression over {@code portfolio} (a {@link PortfolioFeatures}),
+ * e.g. {@code 100 * portfolio.share(TipoProduto.ACOES)}. It becomes a class implementing
+ * {@link FactorExpression}, so scoring is an interface call with no interpretation.
+ * Compiled classes are cached by the expression's SHA-256, so a model reload only
+ * compiles the expressions that changed.
+ * <p>
+ * Before compiling, every name in the expression is checked against an allow-list:
+ * {@code portfolio} and the PortfolioFeatures methods, TipoProduto and its constants,
+ * Math and its methods, and the primitive types for casts. System, reflection, {@code new}
+ * and the rest of the application are rejected. That keeps typos and accidents out, but
+ * the model file is still trusted configuration.
+ */
+final class FactorExpressionCompiler {
+
+    static final String PARAMETER_NAME = "portfolio";
+
+    private static final Set<String> ALLOWED_IDENTIFIERS = allowedIdentifiers();
+    private static final Set<String> ALLOWED_KEYWORDS =
+            Set.of("int", "long", "double", "float", "short", "byte", "char", "boolean");
+
+    private static final Cache<String, FactorExpression> COMPILED = Caffeine.newBuilder()
+            .maximumSize(256)
+            .build();
+
+    private FactorExpressionCompiler() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression does not compile or uses a name outside the allow-list
+     */
+    static FactorExpression compile(String expression) {
+        return COMPILED.get(sha256(expression), hash -> doCompile(expression));
+    }
+
+    private static FactorExpression doCompile(String expression) {
+        checkNames(expression);
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+        evaluator.setParentClassLoader(FactorExpressionCompiler.class.getClassLoader());
+        evaluator.setDefaultImports(TipoProduto.class.getName());
+        try {
+            return evaluator.createFastEvaluator(expression, FactorExpression.class, PARAMETER_NAME);
+        } catch (CompileException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    // Same scanner the compiler uses, so unicode escapes and comments cannot hide a name
+    private static void checkNames(String expression) {
+        try {
+            Scanner scanner = new Scanner(null, new StringReader(expression));
+            for (Token token = scanner.produce(); token.type != TokenType.END_OF_INPUT; token = scanner.produce()) {
+                boolean allowed = switch (token.type) {
+                    case IDENTIFIER -> ALLOWED_IDENTIFIERS.contains(token.value);
+                    case KEYWORD -> ALLOWED_KEYWORDS.contains(token.value);
+                    default -> true;
+                };
+                if (!allowed) {
+                    throw new IllegalArgumentException("'" + token.value + "' is not allowed in a factor expression");
+                }
+            }
+        } catch (CompileException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Set<String> allowedIdentifiers() {
+        Set<String> names = new HashSet<>();
+        names.add(PARAMETER_NAME);
+        names.add(TipoProduto.class.getSimpleName());
+        for (TipoProduto tipo : TipoProduto.values()) {
+            names.add(tipo.name());
+        }
+        for (Method method : PortfolioFeatures.class.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())) {
+                names.add(method.getName());
+            }
+        }
+        names.add(Math.class.getSimpleName());
+        for (Method method : Math.class.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                names.add(method.getName());
+            }
+        }
+        names.add("PI");
+        names.add("E");
+        return Set.copyOf(names);
+    }
+
+    private static String sha256(String expression) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(expression.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
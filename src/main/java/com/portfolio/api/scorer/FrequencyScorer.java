@@ -28,31 +28,28 @@ public class FrequencyScorer {
      * @return Score 0-100 (higher = more frequent trading = higher risk tolerance)
      */
     public int calculateFrequencyScore(List<Investment> investments) {
-        if (investments == null || investments.isEmpty()) {
-            return 0;
+        return calculateFrequencyScore(PortfolioFeatures.of(investments));
+    }
+
+    public int calculateFrequencyScore(PortfolioFeatures features) {
+        return calculateFrequencyScore(features, CompiledScoringModel.builtIn());
+    }
+
+    public int calculateFrequencyScore(PortfolioFeatures features, CompiledScoringModel model) {
+        if (features.isEmpty()) {
+            return model.frequencyEmptyScore();
         }
 
-        // Calculate total transaction count across all investments
-        int totalTransactions = investments.stream()
-                .mapToInt(inv -> inv.getTransactionCount() != null ? inv.getTransactionCount() : 0)
-                .sum();
+        // Total transaction count across all investments
+        int totalTransactions = features.getTotalTransactions();
 
         if (totalTransactions == 0) {
-            return 20; // Conservative - no transaction activity
+            return model.frequencyNoActivityScore(); // Conservative - no transaction activity
         }
 
-        // Find the time period (earliest to latest transaction across all investments)
-        LocalDate earliestDate = investments.stream()
-                .map(Investment::getFirstTransactionDate)
-                .filter(date -> date != null)
-                .min(LocalDate::compareTo)
-                .orElse(null);
-
-        LocalDate latestDate = investments.stream()
-                .map(Investment::getLastTransactionDate)
-                .filter(date -> date != null)
-                .max(LocalDate::compareTo)
-                .orElse(null);
+        // Time period: earliest to latest transaction across all investments
+        LocalDate earliestDate = features.getEarliestTransactionDate();
+        LocalDate latestDate = features.getLatestTransactionDate();
 
         // Calculate years active
         double yearsActive;
@@ -61,32 +58,23 @@ public class FrequencyScorer {
             yearsActive = daysBetween / 365.0;
         } else {
             // Fallback: use investment data dates
-            LocalDate firstInvestment = investments.stream()
-                    .map(Investment::getData)
-                    .min(LocalDate::compareTo)
-                    .orElse(LocalDate.now());
+            LocalDate firstInvestment = features.getEarliestInvestmentDate() != null
+                    ? features.getEarliestInvestmentDate()
+                    : LocalDate.now();
             long daysSinceFirst = ChronoUnit.DAYS.between(firstInvestment, LocalDate.now());
             yearsActive = daysSinceFirst / 365.0;
         }
 
         // Minimum period to avoid division by zero
-        if (yearsActive < 0.1) {
-            yearsActive = 0.1;
+        if (yearsActive < model.frequencyMinYearsActive()) {
+            yearsActive = model.frequencyMinYearsActive();
         }
 
         // Calculate transactions per year
         double transactionsPerYear = totalTransactions / yearsActive;
 
-        // Score based on trading frequency
+        // Score based on trading frequency (model steps: monthly, quarterly, annual)
         // Research: Barber & Odean (2000) - high frequency = higher risk tolerance
-        if (transactionsPerYear >= 12) {
-            return 100;  // Monthly or more = Aggressive
-        } else if (transactionsPerYear >= 4) {
-            return 70;   // Quarterly = Moderate-Aggressive
-        } else if (transactionsPerYear >= 1) {
-            return 40;   // Annual = Moderate
-        } else {
-            return 20;   // Less than annual = Conservative
-        }
+        return model.frequencyScore(transactionsPerYear);
     }
 }
@@ -11,20 +11,23 @@ import java.util.List;
 public class HorizonScorer {
 
     public int calculateHorizonScore(List<Investment> investments) {
-        if (investments == null || investments.isEmpty()) {
-            return 50;
+        return calculateHorizonScore(PortfolioFeatures.of(investments));
+    }
+
+    public int calculateHorizonScore(PortfolioFeatures features) {
+        return calculateHorizonScore(features, CompiledScoringModel.builtIn());
+    }
+
+    public int calculateHorizonScore(PortfolioFeatures features, CompiledScoringModel model) {
+        if (features.isEmpty()) {
+            return model.horizonEmptyScore();
         }
 
-        LocalDate firstInvestment = investments.stream()
-                .map(Investment::getData)
-                .min(LocalDate::compareTo)
-                .orElse(LocalDate.now());
+        LocalDate firstInvestment = features.getEarliestInvestmentDate() != null
+                ? features.getEarliestInvestmentDate()
+                : LocalDate.now();
         long yearsSinceFirst = ChronoUnit.YEARS.between(firstInvestment, LocalDate.now());
 
-        if (yearsSinceFirst >= 10) return 90;
-        if (yearsSinceFirst >= 5) return 70;
-        if (yearsSinceFirst >= 2) return 50;
-        if (yearsSinceFirst >= 1) return 30;
-        return 20;
+        return model.horizonScore(yearsSinceFirst);
     }
 }
@@ -1,11 +1,9 @@
 package com.portfolio.api.scorer;
 
-import com.portfolio.api.model.enums.TipoProduto;
 import com.portfolio.api.provider.dto.Investment;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Calculates liquidity preference score based on actual investment choices.
@@ -16,32 +14,11 @@ import java.util.Map;
  * <p>
  * Implementation based on improvement plan (04-risk-engine-improvement-plan.md)
  * Reference: Kahneman & Tversky (1979) - Time preference and risk attitudes
+ * Product liquidity levels (1 = highly liquid, 10 = illiquid/long-term) come from the scoring model.
  */
 @Component
 public class LiquidityScorer {
 
-    // Product liquidity levels (1 = highly liquid, 10 = illiquid/long-term)
-    private static final Map<TipoProduto, Integer> PRODUCT_LIQUIDITY_LEVELS = Map.ofEntries(
-            // Highly liquid products (D+0 to D+1)
-            Map.entry(TipoProduto.POUPANCA, 1),
-            Map.entry(TipoProduto.TESOURO_SELIC, 2),
-            Map.entry(TipoProduto.RENDA_FIXA, 3),
-            // Medium liquidity (D+1 to D+30)
-            Map.entry(TipoProduto.CDB, 5),
-            Map.entry(TipoProduto.LCI, 5),
-            Map.entry(TipoProduto.LCA, 5),
-            Map.entry(TipoProduto.RDB, 6),
-            Map.entry(TipoProduto.CAMBIAL, 6),
-            Map.entry(TipoProduto.MULTIMERCADO, 6),
-            // Lower liquidity (longer terms)
-            Map.entry(TipoProduto.TESOURO_PREFIXADO, 7),
-            Map.entry(TipoProduto.TESOURO_IPCA, 7),
-            Map.entry(TipoProduto.TESOURO_RENDA_MAIS, 9),
-            Map.entry(TipoProduto.TESOURO_EDUCA_MAIS, 9),
-            // Variable income (more illiquid due to market risk)
-            Map.entry(TipoProduto.ACOES, 8)
-    );
-
     /**
      * Calculates liquidity score based on actual investment product choices.
      * <p>
@@ -51,29 +28,24 @@ public class LiquidityScorer {
      * @return Score 0-100 (higher = lower liquidity need = higher risk tolerance)
      */
     public int calculateLiquidityScore(List<Investment> investments) {
-        if (investments == null || investments.isEmpty()) {
-            return 50; // Neutral - no data
-        }
+        return calculateLiquidityScore(PortfolioFeatures.of(investments));
+    }
 
-        // Calculate weighted average of liquidity levels
-        double totalValue = investments.stream()
-                .mapToDouble(i -> i.getValor().doubleValue())
-                .sum();
+    public int calculateLiquidityScore(PortfolioFeatures features) {
+        return calculateLiquidityScore(features, CompiledScoringModel.builtIn());
+    }
+
+    public int calculateLiquidityScore(PortfolioFeatures features, CompiledScoringModel model) {
+        if (features.isEmpty()) {
+            return model.liquidityEmptyScore(); // Neutral - no data
+        }
 
-        if (totalValue <= 0) {
-            return 50; // Neutral - no meaningful investments
+        if (features.getTotalValue() <= 0) {
+            return model.liquidityEmptyScore(); // Neutral - no meaningful investments
         }
 
-        double weightedLiquiditySum = investments.stream()
-                .mapToDouble(i -> {
-                    int liquidityLevel = PRODUCT_LIQUIDITY_LEVELS.getOrDefault(
-                            i.getTipo(),
-                            5  // Default to medium liquidity
-                    );
-                    double weight = i.getValor().doubleValue() / totalValue;
-                    return liquidityLevel * weight;
-                })
-                .sum();
+        // Weighted average of liquidity levels
+        double weightedLiquiditySum = features.valueWeightedAverage(model.liquidityByOrdinal(), model.liquidityDefaultLevel());
 
         // Normalize to 0-100 scale
         // Higher liquidity level (less liquid products) = higher risk tolerance
@@ -0,0 +1,191 @@
+package com.portfolio.api.scorer;
+
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.provider.dto.Investment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the risk scorers read from an investment history, gathered in one pass.
+ * <p>
+ * Values are bucketed by product type (indexed by ordinal), so a value-weighted
+ * level is a sum over the handful of types instead of a lookup per investment.
+ * The exact BigDecimal total is kept for the amount tiers; all other figures
+ * are primitives.
+ */
+public final class PortfolioFeatures {
+
+    private static final int TYPE_COUNT = TipoProduto.values().length;
+
+    private final int investmentCount;
+    private final BigDecimal totalAmount;
+    private final double totalValue;
+    // Value per TipoProduto ordinal; investments without a type go to untypedValue
+    private final double[] valueByType;
+    private final double untypedValue;
+    private final int totalTransactions;
+    private final LocalDate earliestTransactionDate;
+    private final LocalDate latestTransactionDate;
+    private final LocalDate earliestInvestmentDate;
+
+    private PortfolioFeatures(int investmentCount, BigDecimal totalAmount, double totalValue,
+                              double[] valueByType, double untypedValue, int totalTransactions,
+                              LocalDate earliestTransactionDate, LocalDate latestTransactionDate,
+                              LocalDate earliestInvestmentDate) {
+        this.investmentCount = investmentCount;
+        this.totalAmount = totalAmount;
+        this.totalValue = totalValue;
+        this.valueByType = valueByType;
+        this.untypedValue = untypedValue;
+        this.totalTransactions = totalTransactions;
+        this.earliestTransactionDate = earliestTransactionDate;
+        this.latestTransactionDate = latestTransactionDate;
+        this.earliestInvestmentDate = earliestInvestmentDate;
+    }
+
+    public static PortfolioFeatures of(List<Investment> investments) {
+        if (investments == null) {
+            investments = List.of();
+        }
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        double totalValue = 0;
+        double[] valueByType = new double[TYPE_COUNT];
+        double untypedValue = 0;
+        int totalTransactions = 0;
+        LocalDate earliestTransaction = null;
+        LocalDate latestTransaction = null;
+        LocalDate earliestInvestment = null;
+
+        for (Investment investment : investments) {
+            BigDecimal valor = investment.getValor();
+            if (valor != null) {
+                totalAmount = totalAmount.add(valor);
+                double value = valor.doubleValue();
+                totalValue += value;
+                TipoProduto tipo = investment.getTipo();
+                if (tipo != null) {
+                    valueByType[tipo.ordinal()] += value;
+                } else {
+                    untypedValue += value;
+                }
+            }
+
+            Integer transactionCount = investment.getTransactionCount();
+            if (transactionCount != null) {
+                totalTransactions += transactionCount;
+            }
+
+            LocalDate first = investment.getFirstTransactionDate();
+            if (first != null && (earliestTransaction == null || first.isBefore(earliestTransaction))) {
+                earliestTransaction = first;
+            }
+            LocalDate last = investment.getLastTransactionDate();
+            if (last != null && (latestTransaction == null || last.isAfter(latestTransaction))) {
+                latestTransaction = last;
+            }
+            LocalDate data = investment.getData();
+            if (data != null && (earliestInvestment == null || data.isBefore(earliestInvestment))) {
+                earliestInvestment = data;
+            }
+        }
+
+        return new PortfolioFeatures(investments.size(), totalAmount, totalValue, valueByType, untypedValue,
+                totalTransactions, earliestTransaction, latestTransaction, earliestInvestment);
+    }
+
+    /**
+     * Turns a per-type level table into an ordinal-indexed array for {@link #valueWeightedAverage}.
+     */
+    public static int[] levelsByOrdinal(Map<TipoProduto, Integer> levels, int defaultLevel) {
+        int[] byOrdinal = new int[TYPE_COUNT];
+        for (TipoProduto tipo : TipoProduto.values()) {
+            byOrdinal[tipo.ordinal()] = levels.getOrDefault(tipo, defaultLevel);
+        }
+        return byOrdinal;
+    }
+
+    /**
+     * Average of the per-type levels weighted by invested value (NaN when the total is zero).
+     */
+    public double valueWeightedAverage(int[] levelsByOrdinal, int defaultLevel) {
+        double weighted = untypedValue * defaultLevel;
+        for (int i = 0; i < valueByType.length; i++) {
+            weighted += valueByType[i] * levelsByOrdinal[i];
+        }
+        return weighted / totalValue;
+    }
+
+    /**
+     * Fraction (0-1) of the invested value in this product type; 0 when nothing is invested.
+     */
+    public double share(TipoProduto tipo) {
+        return totalValue > 0 ? valueByType[tipo.ordinal()] / totalValue : 0;
+    }
+
+    /**
+     * Fraction (0-1) of the invested value in the biggest product type (untyped counts as one type).
+     */
+    public double largestShare() {
+        if (totalValue <= 0) {
+            return 0;
+        }
+        double largest = untypedValue;
+        for (double value : valueByType) {
+            largest = Math.max(largest, value);
+        }
+        return largest / totalValue;
+    }
+
+    /**
+     * Herfindahl index of the value split by product type: 1 when everything is in one
+     * type, down to 1/n when spread evenly over n types; 0 when nothing is invested.
+     */
+    public double concentration() {
+        if (totalValue <= 0) {
+            return 0;
+        }
+        double untypedShare = untypedValue / totalValue;
+        double index = untypedShare * untypedShare;
+        for (double value : valueByType) {
+            double share = value / totalValue;
+            index += share * share;
+        }
+        return index;
+    }
+
+    public boolean isEmpty() {
+        return investmentCount == 0;
+    }
+
+    public int getInvestmentCount() {
+        return investmentCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public int getTotalTransactions() {
+        return totalTransactions;
+    }
+
+    public LocalDate getEarliestTransactionDate() {
+        return earliestTransactionDate;
+    }
+
+    public LocalDate getLatestTransactionDate() {
+        return latestTransactionDate;
+    }
+
+    public LocalDate getEarliestInvestmentDate() {
+        return earliestInvestmentDate;
+    }
+}
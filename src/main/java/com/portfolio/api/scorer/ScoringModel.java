@@ -0,0 +1,225 @@
+package com.portfolio.api.scorer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.portfolio.api.model.enums.TipoProduto;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Risk scoring model as written in its JSON file (see scoring/risk-model.json).
+ * <p>
+ * Only a definition: {@link #validate()} checks it and {@link CompiledScoringModel}
+ * turns it into the arrays the scorers read.
+ */
+public record ScoringModel(
+        String version,
+        Weights weights,
+        Profiles profiles,
+        Amount amount,
+        Steps frequency,
+        Steps horizon,
+        Levels productRisk,
+        Levels liquidity,
+        // Left out of the JSON when empty, so adding the field kept existing fingerprints
+        @JsonInclude(JsonInclude.Include.NON_EMPTY) List<CustomFactor> customFactors) {
+
+    private static final Pattern FACTOR_NAME = Pattern.compile("[a-zA-Z][a-zA-Z0-9_]{0,39}");
+    private static final int MAX_EXPRESSION_LENGTH = 2000;
+
+    public record Weights(double amount, double frequency, double productRisk, double liquidity, double horizon) {
+    }
+
+    public record Profiles(int conservadorMaxScore, int moderadoMaxScore) {
+    }
+
+    public record Amount(int emptyScore, List<AmountTier> tiers, int topScore) {
+    }
+
+    public record AmountTier(double from, double to, int minScore, int maxScore) {
+    }
+
+    /**
+     * Step function: the first step whose threshold is reached wins, else baseScore.
+     * noActivityScore and minYearsActive only apply to frequency.
+     */
+    public record Steps(int emptyScore, Integer noActivityScore, Double minYearsActive,
+                        List<Step> steps, int baseScore) {
+    }
+
+    public record Step(double atLeast, int score) {
+    }
+
+    public record Levels(int emptyScore, int defaultLevel, Map<TipoProduto, Integer> levels) {
+    }
+
+    /**
+     * Extra factor defined by a Java expression over {@code portfolio} (see
+     * {@link FactorExpressionCompiler}); its weight counts towards the total of 1.
+     */
+    public record CustomFactor(String name, String expression, double weight, int emptyScore) {
+    }
+
+    /**
+     * @throws IllegalArgumentException listing every problem found
+     */
+    public void validate() {
+        List<String> errors = new ArrayList<>();
+
+        if (version == null || version.isBlank() || version.length() > 40) {
+            errors.add("version is required (at most 40 characters)");
+        }
+
+        if (weights == null) {
+            errors.add("weights are required");
+        } else {
+            double[] all = {weights.amount(), weights.frequency(), weights.productRisk(),
+                    weights.liquidity(), weights.horizon()};
+            double sum = 0;
+            for (double weight : all) {
+                if (weight < 0) {
+                    errors.add("weights must not be negative");
+                }
+                sum += weight;
+            }
+            if (customFactors != null) {
+                for (CustomFactor factor : customFactors) {
+                    sum += factor != null ? factor.weight() : 0;
+                }
+            }
+            if (Math.abs(sum - 1.0) > 1e-6) {
+                errors.add("weights must add up to 1, customFactors included (got " + sum + ")");
+            }
+        }
+
+        if (profiles == null) {
+            errors.add("profiles are required");
+        } else if (!(profiles.conservadorMaxScore() >= 0
+                && profiles.conservadorMaxScore() < profiles.moderadoMaxScore()
+                && profiles.moderadoMaxScore() < 100)) {
+            errors.add("profiles must satisfy 0 <= conservadorMaxScore < moderadoMaxScore < 100");
+        }
+
+        validateAmount(errors);
+        validateSteps("frequency", frequency, true, errors);
+        validateSteps("horizon", horizon, false, errors);
+        validateLevels("productRisk", productRisk, errors);
+        validateLevels("liquidity", liquidity, errors);
+        validateCustomFactors(errors);
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid scoring model: " + String.join("; ", errors));
+        }
+    }
+
+    private void validateAmount(List<String> errors) {
+        if (amount == null || amount.tiers() == null || amount.tiers().isEmpty()) {
+            errors.add("amount.tiers are required");
+            return;
+        }
+        checkScore("amount.emptyScore", amount.emptyScore(), errors);
+        checkScore("amount.topScore", amount.topScore(), errors);
+
+        List<AmountTier> tiers = amount.tiers();
+        if (tiers.get(0).from() < 0) {
+            errors.add("amount.tiers must start at or above 0");
+        }
+        for (int i = 0; i < tiers.size(); i++) {
+            AmountTier tier = tiers.get(i);
+            if (!(tier.from() < tier.to())) {
+                errors.add("amount.tiers[" + i + "] must have from < to");
+            }
+            if (i > 0 && tier.from() != tiers.get(i - 1).to()) {
+                errors.add("amount.tiers[" + i + "] must start where the previous tier ends");
+            }
+            checkScore("amount.tiers[" + i + "].minScore", tier.minScore(), errors);
+            checkScore("amount.tiers[" + i + "].maxScore", tier.maxScore(), errors);
+        }
+    }
+
+    private static void validateSteps(String name, Steps steps, boolean frequency, List<String> errors) {
+        if (steps == null || steps.steps() == null) {
+            errors.add(name + ".steps are required");
+            return;
+        }
+        checkScore(name + ".emptyScore", steps.emptyScore(), errors);
+        checkScore(name + ".baseScore", steps.baseScore(), errors);
+        if (frequency) {
+            if (steps.noActivityScore() == null) {
+                errors.add(name + ".noActivityScore is required");
+            } else {
+                checkScore(name + ".noActivityScore", steps.noActivityScore(), errors);
+            }
+            if (steps.minYearsActive() == null || steps.minYearsActive() <= 0) {
+                errors.add(name + ".minYearsActive must be positive");
+            }
+        }
+        for (int i = 0; i < steps.steps().size(); i++) {
+            Step step = steps.steps().get(i);
+            if (i > 0 && !(step.atLeast() < steps.steps().get(i - 1).atLeast())) {
+                errors.add(name + ".steps must be in strictly descending atLeast order");
+            }
+            checkScore(name + ".steps[" + i + "].score", step.score(), errors);
+        }
+    }
+
+    private static void validateLevels(String name, Levels levels, List<String> errors) {
+        if (levels == null || levels.levels() == null) {
+            errors.add(name + ".levels are required");
+            return;
+        }
+        checkScore(name + ".emptyScore", levels.emptyScore(), errors);
+        checkLevel(name + ".defaultLevel", levels.defaultLevel(), errors);
+        levels.levels().forEach((tipo, level) -> {
+            if (tipo == null || level == null) {
+                errors.add(name + ".levels must map product types to levels");
+            } else {
+                checkLevel(name + ".levels." + tipo.name(), level, errors);
+            }
+        });
+    }
+
+    private void validateCustomFactors(List<String> errors) {
+        if (customFactors == null) {
+            return;
+        }
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < customFactors.size(); i++) {
+            CustomFactor factor = customFactors.get(i);
+            String field = "customFactors[" + i + "]";
+            if (factor == null) {
+                errors.add(field + " is required");
+                continue;
+            }
+            if (factor.name() == null || !FACTOR_NAME.matcher(factor.name()).matches()) {
+                errors.add(field + ".name must be a letter followed by letters, digits or _ (at most 40)");
+            } else if (!names.add(factor.name())) {
+                errors.add(field + ".name " + factor.name() + " is repeated");
+            }
+            if (factor.expression() == null || factor.expression().isBlank()
+                    || factor.expression().length() > MAX_EXPRESSION_LENGTH) {
+                errors.add(field + ".expression is required (at most " + MAX_EXPRESSION_LENGTH + " characters)");
+            }
+            if (factor.weight() < 0) {
+                errors.add(field + ".weight must not be negative");
+            }
+            checkScore(field + ".emptyScore", factor.emptyScore(), errors);
+        }
+    }
+
+    private static void checkScore(String field, int score, List<String> errors) {
+        if (score < 0 || score > 100) {
+            errors.add(field + " must be between 0 and 100");
+        }
+    }
+
+    private static void checkLevel(String field, int level, List<String> errors) {
+        if (level < 1 || level > 10) {
+            errors.add(field + " must be between 1 and 10");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.portfolio.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.api.config.OFBProviderProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers which customers requested portfolio data recently, so the
+ * pre-warm job knows whose data to refresh before they come back.
+ */
+@Component
+public class CustomerActivityTracker {
+
+    // CPF -> last request
+    private final Cache<String, Instant> lastSeen;
+
+    public CustomerActivityTracker(OFBProviderProperties properties) {
+        OFBProviderProperties.Prewarm config = properties.getPrewarm();
+        this.lastSeen = Caffeine.newBuilder()
+                .maximumSize(config.getTrackedCustomers())
+                .expireAfterWrite(Duration.ofHours(config.getLookbackHours()))
+                .build();
+    }
+
+    public void recordActivity(String cpf) {
+        lastSeen.put(cpf, Instant.now());
+    }
+
+    /**
+     * Customers seen within the lookback window, most recent first.
+     */
+    public List<String> recentCpfs() {
+        return lastSeen.asMap().entrySet().stream()
+                .sorted(Map.Entry.<String, Instant>comparingByValue(Comparator.reverseOrder()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -3,13 +3,9 @@ package com.portfolio.api.service;
 import com.portfolio.api.exception.ServiceUnavailableException;
 import com.portfolio.api.mapper.ClientIdentifierMapper;
 import com.portfolio.api.model.dto.response.InvestmentResponse;
-import com.portfolio.api.provider.InvestmentPlatformProvider;
-import com.portfolio.api.provider.dto.Investment;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.portfolio.api.provider.dto.PortfolioSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,25 +16,23 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class InvestmentService {
 
-    private final InvestmentPlatformProvider investmentPlatformProvider;
+    private final PortfolioDataCache portfolioDataCache;
     private final CustomerValidationService customerValidationService;
     private final ClientIdentifierMapper clientIdentifierMapper;
 
-    @CircuitBreaker(name = "ofbProvider")
-    @Retry(name = "ofbProvider")
-    @Cacheable(value = "portfolio-primary", key = "#clienteId")
     public List<InvestmentResponse> getClientInvestments(Long clienteId) {
         customerValidationService.validateClientExists(clienteId);
 
         String cpf = clientIdentifierMapper.getCpfForClient(clienteId)
                 .orElseThrow(() -> new IllegalArgumentException("CPF não encontrado para cliente: " + clienteId));
 
-        log.debug("Fetching investments from provider for client: {}", clienteId);
+        log.debug("Fetching investments for client: {}", clienteId);
 
         try {
-            List<Investment> investments = investmentPlatformProvider.getInvestmentHistory(cpf);
+            // Same cached snapshot that /perfil-risco scores
+            PortfolioSnapshot snapshot = portfolioDataCache.getSnapshot(cpf);
 
-            return investments.stream()
+            return snapshot.getInvestmentHistory().stream()
                     .map(inv -> InvestmentResponse.builder()
                             .id(inv.getId())
                             .tipo(inv.getTipo())
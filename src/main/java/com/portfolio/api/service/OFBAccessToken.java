@@ -0,0 +1,34 @@
+package com.portfolio.api.service;
+
+import com.nimbusds.jwt.JWTParser;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * OFB access token together with the instant it stops being accepted.
+ */
+public record OFBAccessToken(String value, Instant expiresAt) {
+
+    /**
+     * Expiry comes from the token's own exp claim when it is a JWT, then from
+     * the token response's expires_in, then from the configured fallback TTL.
+     */
+    public static OFBAccessToken of(String value, Long expiresInSeconds, long fallbackTtlSeconds) {
+        Instant now = Instant.now();
+        try {
+            Date exp = JWTParser.parse(value).getJWTClaimsSet().getExpirationTime();
+            if (exp != null) {
+                return new OFBAccessToken(value, exp.toInstant());
+            }
+        } catch (Exception ignored) {
+            // Opaque token
+        }
+        long ttl = expiresInSeconds != null && expiresInSeconds > 0 ? expiresInSeconds : fallbackTtlSeconds;
+        return new OFBAccessToken(value, now.plusSeconds(ttl));
+    }
+
+    public boolean isUsableAt(Instant instant, long minValiditySeconds) {
+        return instant.plusSeconds(minValiditySeconds).isBefore(expiresAt);
+    }
+}
@@ -8,7 +8,6 @@ import com.portfolio.api.service.external.JWEDecryptionService;
 import com.portfolio.api.service.external.OFBOAuth2Client;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
@@ -19,7 +18,8 @@ import java.util.UUID;
 /**
  * Service for obtaining OFB OAuth2 tokens.
  *
- * Tokens are cached lazily using Spring Cache abstraction.
+ * Tokens are cached per CPF by {@link OFBTokenManager}; this service always
+ * runs the full flow.
  * Uses single client_id from configuration for all customers.
  * Customer identification via CPF passed to OAuth2 server.
  *
@@ -38,14 +38,12 @@ public class OFBAuthService {
 
     /**
      * Authenticate customer via CPF and obtain OAuth2 access token.
-     * Cached by Spring with TTL configured in cache manager.
      *
      * @param cpf Customer CPF (11 digits)
-     * @return Access token for making OFB API calls
+     * @return Access token for making OFB API calls, with its expiry
      * @throws Exception if OAuth2 flow fails
      */
-    @Cacheable(value = "ofbTokens", key = "#cpf")
-    public String authenticateWithCPF(String cpf) throws Exception {
+    public OFBAccessToken authenticateWithCPF(String cpf) throws Exception {
         log.info("Generating new OAuth2 token for CPF: {}***", cpf.substring(0, 3));
 
         // Step 1: Pushed Authorization Request (PAR) with CPF hint
@@ -62,7 +60,8 @@ public class OFBAuthService {
         log.debug("ID token validated for subject: {}", idTokenClaims.getSubject());
 
         log.info("OAuth2 PAR flow completed for CPF");
-        return tokenResponse.accessToken;
+        return OFBAccessToken.of(tokenResponse.accessToken, tokenResponse.expiresIn,
+                properties.getToken().getCacheTtlSeconds());
     }
 
     private String pushAuthorizationRequest(String cpf) throws Exception {
@@ -98,9 +97,10 @@ public class OFBAuthService {
 
         String accessToken = tokenResponse.get("access_token").asText();
         String idToken = tokenResponse.get("id_token").asText();
+        Long expiresIn = tokenResponse.hasNonNull("expires_in") ? tokenResponse.get("expires_in").asLong() : null;
 
-        return new TokenResponse(accessToken, idToken);
+        return new TokenResponse(accessToken, idToken, expiresIn);
     }
 
-    private record TokenResponse(String accessToken, String idToken) {}
+    private record TokenResponse(String accessToken, String idToken, Long expiresIn) {}
 }
@@ -0,0 +1,186 @@
+package com.portfolio.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.service.external.OFBTokenRejectedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-CPF cache of OFB access tokens.
+ *
+ * Tokens are kept until their real expiry. Once a token enters the
+ * refresh-ahead window it is still handed out while one background refresh
+ * replaces it; concurrent callers for the same CPF share a single PAR flow.
+ * Tokens rejected with 401 by any OFB endpoint are evicted immediately.
+ */
+@Slf4j
+@Service
+public class OFBTokenManager {
+
+    private final OFBAuthService authService;
+    private final OFBProviderProperties.Token config;
+
+    private final Cache<String, OFBAccessToken> tokens;
+    // One PAR flow per CPF, shared by foreground and background callers
+    private final ConcurrentHashMap<String, CompletableFuture<OFBAccessToken>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ofb-token-refresh-", 0).factory());
+
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejections;
+
+    public OFBTokenManager(OFBAuthService authService, OFBProviderProperties properties, MeterRegistry meterRegistry) {
+        this.authService = authService;
+        this.config = properties.getToken();
+        this.meterRegistry = meterRegistry;
+
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new Expiry<String, OFBAccessToken>() {
+                    @Override
+                    public long expireAfterCreate(String cpf, OFBAccessToken token, long currentTime) {
+                        return untilExpiry(token);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String cpf, OFBAccessToken token, long currentTime, long currentDuration) {
+                        return untilExpiry(token);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String cpf, OFBAccessToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.hits = Counter.builder("ofb.token.requests")
+                .description("OFB access token lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("ofb.token.requests")
+                .description("OFB access token lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("ofb.token.rejected")
+                .description("Cached OFB tokens evicted after a 401")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a token for the CPF that is valid for at least the configured
+     * minimum validity, running the PAR flow only when none is cached.
+     */
+    public String getToken(String cpf) throws Exception {
+        Instant now = Instant.now();
+        OFBAccessToken cached = tokens.getIfPresent(cpf);
+
+        if (cached != null && cached.isUsableAt(now, config.getMinValiditySeconds())) {
+            hits.increment();
+            if (!cached.isUsableAt(now, config.getRefreshAheadSeconds())) {
+                refresh(cpf, true);
+            }
+            return cached.value();
+        }
+
+        misses.increment();
+        try {
+            return refresh(cpf, false).join().value();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops every cached copy of a token the provider no longer accepts.
+     */
+    @EventListener
+    public void onTokenRejected(OFBTokenRejectedEvent event) {
+        tokens.asMap().entrySet().removeIf(entry -> {
+            if (entry.getValue().value().equals(event.accessToken())) {
+                rejections.increment();
+                log.info("Evicted OFB token rejected with 401");
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public void evict(String cpf) {
+        tokens.invalidate(cpf);
+    }
+
+    private CompletableFuture<OFBAccessToken> refresh(String cpf, boolean background) {
+        CompletableFuture<OFBAccessToken> created = new CompletableFuture<>();
+        CompletableFuture<OFBAccessToken> existing = inFlight.putIfAbsent(cpf, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        Runnable flow = () -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "success";
+            try {
+                OFBAccessToken token = authService.authenticateWithCPF(cpf);
+                tokens.put(cpf, token);
+                created.complete(token);
+            } catch (Exception e) {
+                outcome = "failure";
+                if (background) {
+                    log.warn("Background OFB token refresh failed, keeping current token: {}", e.getMessage());
+                }
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(cpf, created);
+                sample.stop(Timer.builder("ofb.token.refresh")
+                        .description("OFB PAR / token exchange flow latency")
+                        .tag("mode", background ? "background" : "foreground")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+        };
+
+        if (!background) {
+            flow.run();
+            return created;
+        }
+        try {
+            refreshExecutor.execute(flow);
+        } catch (RuntimeException e) {
+            // Executor shut down; the next caller refreshes in the foreground
+            inFlight.remove(cpf, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private static long untilExpiry(OFBAccessToken token) {
+        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
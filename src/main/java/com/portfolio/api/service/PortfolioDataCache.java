@@ -0,0 +1,312 @@
+package com.portfolio.api.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.exception.ServiceUnavailableException;
+import com.portfolio.api.model.entity.InvestmentDataCache;
+import com.portfolio.api.provider.InvestmentPlatformProvider;
+import com.portfolio.api.provider.dto.Investment;
+import com.portfolio.api.provider.dto.PortfolioSnapshot;
+import com.portfolio.api.repository.InvestmentDataCacheRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of customers' {@link PortfolioSnapshot}s, so one OFB fetch
+ * serves every endpoint while it is fresh.
+ *
+ * L1 is an in-process Caffeine cache holding fresh snapshots only. L2 is the
+ * investment_data_cache table, which stores the investment history and is
+ * shared by all nodes: fresh rows are served as hits, stale rows (older than
+ * the fresh TTL but not yet expired) are served immediately while a single
+ * background refresh per CPF revalidates them.
+ * The row is rewritten only when the content hash changes; otherwise just its
+ * timestamps move.
+ *
+ * OFB calls go through the "ofbProvider" circuit breaker and retry.
+ */
+@Slf4j
+@Component
+public class PortfolioDataCache {
+
+    private static final String RESILIENCE_INSTANCE = "ofbProvider";
+    private static final TypeReference<List<Investment>> INVESTMENT_LIST = new TypeReference<>() {};
+
+    private final InvestmentPlatformProvider investmentPlatformProvider;
+    private final InvestmentDataCacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+    private final CustomerActivityTracker activityTracker;
+    private final OFBProviderProperties.PortfolioCache config;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+
+    private final Cache<String, PortfolioSnapshot> l1;
+    // CPFs with a background revalidation in flight
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final ExecutorService revalidationExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("portfolio-revalidate-", 0).factory());
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter contentWrites;
+    private final Counter timestampWrites;
+
+    public PortfolioDataCache(InvestmentPlatformProvider investmentPlatformProvider,
+                              InvestmentDataCacheRepository cacheRepository,
+                              ObjectMapper objectMapper,
+                              CustomerActivityTracker activityTracker,
+                              OFBProviderProperties properties,
+                              CircuitBreakerRegistry circuitBreakerRegistry,
+                              RetryRegistry retryRegistry,
+                              MeterRegistry meterRegistry) {
+        this.investmentPlatformProvider = investmentPlatformProvider;
+        this.cacheRepository = cacheRepository;
+        this.objectMapper = objectMapper;
+        this.activityTracker = activityTracker;
+        this.config = properties.getPortfolioCache();
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.retry = retryRegistry.retry(RESILIENCE_INSTANCE);
+
+        // Entries expire when the data stops being fresh, measured from when OFB returned it
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new Expiry<String, PortfolioSnapshot>() {
+                    @Override
+                    public long expireAfterCreate(String cpf, PortfolioSnapshot value, long currentTime) {
+                        return remainingFreshNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String cpf, PortfolioSnapshot value, long currentTime, long currentDuration) {
+                        return remainingFreshNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String cpf, PortfolioSnapshot value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.l1Hits = requestCounter(meterRegistry, "hit", "l1");
+        this.l2Hits = requestCounter(meterRegistry, "hit", "l2");
+        this.staleHits = requestCounter(meterRegistry, "stale", "l2");
+        this.misses = requestCounter(meterRegistry, "miss", "none");
+        this.contentWrites = writeCounter(meterRegistry, "content");
+        this.timestampWrites = writeCounter(meterRegistry, "timestamps");
+    }
+
+    /**
+     * Returns the customer's investment history, from cache when possible.
+     *
+     * @throws ServiceUnavailableException if nothing is cached and OFB cannot be reached
+     */
+    public List<Investment> getInvestments(String cpf) {
+        return getSnapshot(cpf).getInvestmentHistory();
+    }
+
+    /**
+     * Returns the customer's latest snapshot, from cache when possible.
+     *
+     * @throws ServiceUnavailableException if nothing is cached and OFB cannot be reached
+     */
+    public PortfolioSnapshot getSnapshot(String cpf) {
+        activityTracker.recordActivity(cpf);
+
+        PortfolioSnapshot cached = l1.getIfPresent(cpf);
+        if (cached != null) {
+            l1Hits.increment();
+            return cached;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Optional<PortfolioSnapshot> stored = cacheRepository.findValidCacheByCpf(cpf, now)
+                .flatMap(this::fromRow);
+        if (stored.isPresent()) {
+            PortfolioSnapshot snapshot = stored.get();
+            if (isFresh(snapshot, now)) {
+                l2Hits.increment();
+                l1.put(cpf, snapshot);
+            } else {
+                staleHits.increment();
+                revalidateInBackground(cpf);
+            }
+            return snapshot;
+        }
+
+        misses.increment();
+        try {
+            return fetchAndStore(cpf);
+        } catch (Exception ex) {
+            log.error("Failed to fetch investments from OFB provider for CPF: {}", maskCpf(cpf), ex);
+            throw new ServiceUnavailableException(
+                    "Serviço de investimentos temporariamente indisponível. Tente novamente em alguns instantes.",
+                    ex
+            );
+        }
+    }
+
+    /**
+     * Fetches a new snapshot into both tiers unless L1 still holds a fresh one.
+     * Used by the pre-warm job; does not count as customer activity.
+     *
+     * @return true if OFB was called
+     */
+    public boolean prewarm(String cpf) {
+        if (l1.getIfPresent(cpf) != null) {
+            return false;
+        }
+        fetchAndStore(cpf);
+        return true;
+    }
+
+    private void revalidateInBackground(String cpf) {
+        if (!revalidating.add(cpf)) {
+            return;
+        }
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    fetchAndStore(cpf);
+                } catch (Exception ex) {
+                    log.warn("Background refresh failed for CPF: {}, serving stale data: {}", maskCpf(cpf), ex.getMessage());
+                } finally {
+                    revalidating.remove(cpf);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Executor shut down; the next request retries
+            revalidating.remove(cpf);
+        }
+    }
+
+    private PortfolioSnapshot fetchAndStore(String cpf) {
+        Supplier<PortfolioSnapshot> fetch = Retry.decorateSupplier(retry,
+                CircuitBreaker.decorateSupplier(circuitBreaker,
+                        () -> investmentPlatformProvider.getSnapshot(cpf)));
+        PortfolioSnapshot snapshot = fetch.get();
+
+        String json = null;
+        try {
+            json = objectMapper.writeValueAsString(snapshot.getInvestmentHistory());
+            snapshot = snapshot.withContentHash(sha256Hex(json));
+        } catch (Exception e) {
+            log.error("Failed to serialize investments for CPF: {}", maskCpf(cpf), e);
+        }
+
+        l1.put(cpf, snapshot);
+        if (json != null) {
+            updatePersistentCache(cpf, json, snapshot.getContentHash(), snapshot.getFetchedAt());
+        }
+        return snapshot;
+    }
+
+    private void updatePersistentCache(String cpf, String json, String contentHash, LocalDateTime fetchedAt) {
+        try {
+            LocalDateTime expiresAt = fetchedAt.plusHours(config.getStaleTtlHours());
+
+            // Unchanged data: move the timestamps instead of rewriting NVARCHAR(MAX)
+            boolean unchanged = cacheRepository.findContentHashByCpf(cpf)
+                    .filter(contentHash::equals)
+                    .isPresent();
+            if (unchanged && cacheRepository.refreshTimestamps(cpf, fetchedAt, expiresAt) > 0) {
+                timestampWrites.increment();
+                return;
+            }
+
+            cacheRepository.save(InvestmentDataCache.builder()
+                    .cpf(cpf)
+                    .investmentData(json)
+                    .contentHash(contentHash)
+                    .fetchedAt(fetchedAt)
+                    .expiresAt(expiresAt)
+                    .build());
+            contentWrites.increment();
+        } catch (Exception e) {
+            log.error("Failed to update persistent cache for CPF: {}", maskCpf(cpf), e);
+        }
+    }
+
+    private Optional<PortfolioSnapshot> fromRow(InvestmentDataCache row) {
+        try {
+            List<Investment> investments = objectMapper.readValue(row.getInvestmentData(), INVESTMENT_LIST);
+            // Rows written before content_hash existed are hashed on read
+            String contentHash = row.getContentHash() != null
+                    ? row.getContentHash()
+                    : sha256Hex(row.getInvestmentData());
+            return Optional.of(PortfolioSnapshot.fromHistory(row.getCpf(), row.getFetchedAt(), investments)
+                    .withContentHash(contentHash));
+        } catch (Exception e) {
+            log.error("Failed to deserialize cached investments", e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isFresh(PortfolioSnapshot snapshot, LocalDateTime now) {
+        return snapshot.getFetchedAt().plusSeconds(config.getFreshTtlSeconds()).isAfter(now);
+    }
+
+    private long remainingFreshNanos(PortfolioSnapshot snapshot) {
+        LocalDateTime freshUntil = snapshot.getFetchedAt().plusSeconds(config.getFreshTtlSeconds());
+        return Math.max(0, Duration.between(LocalDateTime.now(), freshUntil).toNanos());
+    }
+
+    private static String sha256Hex(String value) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("portfolio.cache.requests")
+                .description("Investment history lookups by cache outcome")
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private static Counter writeCounter(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("portfolio.cache.writes")
+                .description("investment_data_cache writes; timestamps = content unchanged")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private String maskCpf(String cpf) {
+        if (cpf == null || cpf.length() < 11) {
+            return "***";
+        }
+        return cpf.substring(0, 3) + ".***.***-" + cpf.substring(9);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        revalidationExecutor.shutdownNow();
+    }
+}
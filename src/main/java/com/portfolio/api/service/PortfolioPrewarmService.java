@@ -0,0 +1,178 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.repository.CustomerRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Refreshes portfolio snapshots of recently active customers off-peak.
+ *
+ * Customers come from recent portfolio requests and recent simulations. The
+ * off-peak pass (cron) refreshes their investment_data_cache rows; the L1 entry
+ * and OFB token it also creates have expired by business hours, so the first
+ * request of the day is served stale from investment_data_cache while it
+ * revalidates. A second, token-only pass (token-cron) runs shortly before peak
+ * so that revalidation does not start with a PAR flow. OFB load of both passes
+ * is bounded by max-concurrency and the "ofbPrewarm" rate limiter.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "ofb.provider.prewarm.enabled", havingValue = "true", matchIfMissing = true)
+public class PortfolioPrewarmService {
+
+    private static final String RATE_LIMITER = "ofbPrewarm";
+
+    private final PortfolioDataCache portfolioDataCache;
+    private final OFBTokenManager tokenManager;
+    private final CustomerActivityTracker activityTracker;
+    private final CustomerRepository customerRepository;
+    private final OFBProviderProperties.Prewarm config;
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter refreshed;
+    private final Counter skipped;
+    private final Counter failed;
+    private final Counter tokensWarmed;
+    private final Counter tokensSkipped;
+    private final Counter tokensFailed;
+
+    public PortfolioPrewarmService(PortfolioDataCache portfolioDataCache,
+                                   OFBTokenManager tokenManager,
+                                   CustomerActivityTracker activityTracker,
+                                   CustomerRepository customerRepository,
+                                   OFBProviderProperties properties,
+                                   RateLimiterRegistry rateLimiterRegistry,
+                                   MeterRegistry meterRegistry) {
+        this.portfolioDataCache = portfolioDataCache;
+        this.tokenManager = tokenManager;
+        this.activityTracker = activityTracker;
+        this.customerRepository = customerRepository;
+        this.config = properties.getPrewarm();
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(RATE_LIMITER);
+
+        this.refreshed = outcomeCounter(meterRegistry, "refreshed");
+        this.skipped = outcomeCounter(meterRegistry, "skipped");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+        this.tokensWarmed = tokenCounter(meterRegistry, "warmed");
+        this.tokensSkipped = tokenCounter(meterRegistry, "skipped");
+        this.tokensFailed = tokenCounter(meterRegistry, "failed");
+    }
+
+    @Scheduled(cron = "${ofb.provider.prewarm.cron:0 0 5 * * *}")
+    public void prewarmRecentlyActive() {
+        runPass("portfolio data", this::prewarm);
+    }
+
+    /**
+     * Fetches OFB tokens for the same customers shortly before peak. Tokens still
+     * cached are left alone, so only customers without one cost a PAR flow.
+     */
+    @Scheduled(cron = "${ofb.provider.prewarm.token-cron:0 45 8 * * MON-FRI}")
+    public void prewarmTokens() {
+        runPass("OFB tokens", this::prewarmToken);
+    }
+
+    private void runPass(String what, Consumer<String> task) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous pre-warm still running, skipping {} pre-warm", what);
+            return;
+        }
+        try {
+            List<String> cpfs = selectCustomers();
+            log.info("Pre-warming {} for {} recently active customers", what, cpfs.size());
+
+            Semaphore permits = new Semaphore(Math.max(1, config.getMaxConcurrency()));
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("portfolio-prewarm-", 0).factory())) {
+                for (String cpf : cpfs) {
+                    permits.acquire();
+                    executor.execute(() -> {
+                        try {
+                            task.accept(cpf);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Pre-warm of {} interrupted", what);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Requesters first (most recent first), then simulation clients, capped at max-customers.
+     */
+    List<String> selectCustomers() {
+        Set<String> cpfs = new LinkedHashSet<>(activityTracker.recentCpfs());
+        LocalDateTime since = LocalDateTime.now().minusHours(config.getLookbackHours());
+        cpfs.addAll(customerRepository.findCpfsWithSimulationsSince(since));
+        return cpfs.stream().limit(config.getMaxCustomers()).toList();
+    }
+
+    private void prewarm(String cpf) {
+        if (!rateLimiter.acquirePermission()) {
+            skipped.increment();
+            return;
+        }
+        try {
+            if (portfolioDataCache.prewarm(cpf)) {
+                refreshed.increment();
+            } else {
+                skipped.increment();
+            }
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Pre-warm failed for one customer: {}", e.getMessage());
+        }
+    }
+
+    private void prewarmToken(String cpf) {
+        if (!rateLimiter.acquirePermission()) {
+            tokensSkipped.increment();
+            return;
+        }
+        try {
+            tokenManager.getToken(cpf);
+            tokensWarmed.increment();
+        } catch (Exception e) {
+            tokensFailed.increment();
+            log.warn("Token pre-warm failed for one customer: {}", e.getMessage());
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("portfolio.prewarm.customers")
+                .description("Customers processed by the off-peak pre-warm job")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter tokenCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("portfolio.prewarm.tokens")
+                .description("Customers processed by the pre-peak OFB token pre-warm")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
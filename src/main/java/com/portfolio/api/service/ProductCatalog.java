@@ -0,0 +1,122 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.entity.Product;
+import com.portfolio.api.model.entity.ProductChangedEvent;
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The active products, held in memory as a {@link ProductCatalogIndex}.
+ *
+ * The index is loaded on first use and rebuilt when a product changes through
+ * JPA (a {@link ProductChangedEvent}) and every refresh-interval-ms, which
+ * catches rows edited directly in the database. Lookups only read the current
+ * index; the database is queried directly only while no index could be loaded.
+ */
+@Slf4j
+@Component
+public class ProductCatalog {
+
+    private final ProductRepository productRepository;
+    private volatile ProductCatalogIndex index;
+    // Bumped on every product change, so a load that raced with one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter indexLookups;
+    private final Counter databaseLookups;
+
+    public ProductCatalog(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.indexLookups = lookupCounter(meterRegistry, "index");
+        this.databaseLookups = lookupCounter(meterRegistry, "database");
+    }
+
+    public Optional<Product> findMatchingProduct(TipoProduto tipo, BigDecimal valor, Integer prazoMeses) {
+        ProductCatalogIndex current = index;
+        if (current == null) {
+            current = load(false);
+        }
+        if (current == null) {
+            databaseLookups.increment();
+            return productRepository
+                    .findFirstByTipoAndAtivoTrueAndValorMinimoLessThanEqualAndPrazoMinimoMesesLessThanEqualOrderByRentabilidadeDesc(
+                            tipo, valor, prazoMeses
+                    );
+        }
+        indexLookups.increment();
+        return current.findBestMatch(tipo, valor, prazoMeses);
+    }
+
+    @Scheduled(fixedDelayString = "${product-catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${product-catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        load(true);
+    }
+
+    /**
+     * Drops the index now (the changing transaction sees its own rows on the next
+     * lookup) and again once that transaction commits or rolls back.
+     */
+    @EventListener(ProductChangedEvent.class)
+    public void productsChanged() {
+        invalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate();
+                }
+            });
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        index = null;
+    }
+
+    private synchronized ProductCatalogIndex load(boolean force) {
+        ProductCatalogIndex current = index;
+        if (current != null && !force) {
+            return current;
+        }
+
+        long loadedGeneration = generation.get();
+        ProductCatalogIndex loaded;
+        try {
+            loaded = ProductCatalogIndex.of(productRepository.findByAtivoTrue());
+        } catch (DataAccessException e) {
+            log.warn("Product catalog load failed{}: {}",
+                    current != null ? ", keeping the current index" : "", e.getMessage());
+            return current;
+        }
+
+        if (generation.get() == loadedGeneration) {
+            if (!loaded.sameProductsAs(current)) {
+                log.info("Product catalog indexed: {} active products", loaded.size());
+            }
+            index = loaded;
+        }
+        return loaded;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("product.catalog.lookups")
+                .description("Simulation product matches by where they were answered")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,139 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.entity.Product;
+import com.portfolio.api.model.enums.TipoProduto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Immutable index of the active products, answering the simulation match
+ * (type, valorMinimo &lt;= valor, prazoMinimoMeses &lt;= prazo &lt;= prazoMaximoMeses,
+ * highest rentabilidade first) without touching the database.
+ * <p>
+ * Per type, the distinct valorMinimo values and term boundaries split the
+ * (valor, prazo) plane into cells in which the same products qualify. The best
+ * product of every cell is computed when the index is built, so a lookup is two
+ * binary searches and an array read. Ties on rentabilidade go to the lowest id.
+ * Products are shared between requests and must be treated as read-only.
+ */
+public final class ProductCatalogIndex {
+
+    private static final Comparator<Product> BEST_FIRST = Comparator
+            .comparing(Product::getRentabilidade, Comparator.reverseOrder())
+            .thenComparing(Product::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<Product> products;
+    // By TipoProduto ordinal; null when the type has no active product
+    private final TypeIndex[] byType;
+
+    private ProductCatalogIndex(List<Product> products) {
+        this.products = products;
+        this.byType = new TypeIndex[TipoProduto.values().length];
+        for (TipoProduto tipo : TipoProduto.values()) {
+            List<Product> ofType = products.stream().filter(p -> p.getTipo() == tipo).toList();
+            if (!ofType.isEmpty()) {
+                byType[tipo.ordinal()] = new TypeIndex(ofType);
+            }
+        }
+    }
+
+    /**
+     * Indexes the active products; rows missing a field the match needs are left out.
+     */
+    public static ProductCatalogIndex of(Collection<Product> products) {
+        List<Product> usable = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (Boolean.TRUE.equals(product.getAtivo()) && product.getTipo() != null
+                    && product.getRentabilidade() != null && product.getValorMinimo() != null
+                    && product.getPrazoMinimoMeses() != null) {
+                usable.add(product);
+            }
+        }
+        usable.sort(BEST_FIRST);
+        return new ProductCatalogIndex(List.copyOf(usable));
+    }
+
+    /**
+     * Highest-yield active product of this type accepting the amount and term.
+     */
+    public Optional<Product> findBestMatch(TipoProduto tipo, BigDecimal valor, Integer prazoMeses) {
+        if (tipo == null || valor == null || prazoMeses == null) {
+            return Optional.empty();
+        }
+        TypeIndex typeIndex = byType[tipo.ordinal()];
+        return typeIndex != null ? Optional.ofNullable(typeIndex.find(valor, prazoMeses)) : Optional.empty();
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Whether both indexes were built from the same product rows.
+     */
+    public boolean sameProductsAs(ProductCatalogIndex other) {
+        return other != null && products.equals(other.products);
+    }
+
+    private static final class TypeIndex {
+
+        // Ascending distinct valorMinimo values
+        private final BigDecimal[] valorBreaks;
+        // Ascending distinct prazoMinimoMeses and prazoMaximoMeses + 1 values
+        private final int[] prazoBreaks;
+        // Best product per (valor cell, prazo cell), row-major; null when none qualifies
+        private final Product[] best;
+
+        private TypeIndex(List<Product> bestFirst) {
+            TreeSet<BigDecimal> valores = new TreeSet<>();
+            TreeSet<Integer> prazos = new TreeSet<>();
+            for (Product product : bestFirst) {
+                valores.add(product.getValorMinimo());
+                prazos.add(product.getPrazoMinimoMeses());
+                Integer prazoMaximo = product.getPrazoMaximoMeses();
+                if (prazoMaximo != null && prazoMaximo < Integer.MAX_VALUE) {
+                    prazos.add(prazoMaximo + 1);
+                }
+            }
+            this.valorBreaks = valores.toArray(BigDecimal[]::new);
+            this.prazoBreaks = prazos.stream().mapToInt(Integer::intValue).toArray();
+            this.best = new Product[valorBreaks.length * prazoBreaks.length];
+
+            // Within a cell the predicate has the same outcome as at the cell's lower corner
+            for (int v = 0; v < valorBreaks.length; v++) {
+                for (int p = 0; p < prazoBreaks.length; p++) {
+                    best[v * prazoBreaks.length + p] = firstMatch(bestFirst, valorBreaks[v], prazoBreaks[p]);
+                }
+            }
+        }
+
+        private static Product firstMatch(List<Product> bestFirst, BigDecimal valor, int prazo) {
+            for (Product product : bestFirst) {
+                if (product.getValorMinimo().compareTo(valor) <= 0
+                        && product.getPrazoMinimoMeses() <= prazo
+                        && (product.getPrazoMaximoMeses() == null || product.getPrazoMaximoMeses() >= prazo)) {
+                    return product;
+                }
+            }
+            return null;
+        }
+
+        private Product find(BigDecimal valor, int prazo) {
+            int v = floor(Arrays.binarySearch(valorBreaks, valor));
+            int p = floor(Arrays.binarySearch(prazoBreaks, prazo));
+            return v >= 0 && p >= 0 ? best[v * prazoBreaks.length + p] : null;
+        }
+
+        // Index of the greatest break <= key, or -1 when key is below all of them
+        private static int floor(int searchResult) {
+            return searchResult >= 0 ? searchResult : -searchResult - 2;
+        }
+    }
+}
@@ -13,19 +13,21 @@ import java.util.Optional;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductCatalog productCatalog) {
         this.productRepository = productRepository;
+        this.productCatalog = productCatalog;
     }
 
     public List<Product> getRecommendedProducts(String riskProfile) {
         return productRepository.findByPerfilAdequadoAndAtivoTrue(riskProfile);
     }
 
+    /**
+     * Answered from the in-memory catalog index; no database round-trip once it is loaded.
+     */
     public Optional<Product> findMatchingProduct(TipoProduto tipo, BigDecimal valor, Integer prazoMeses) {
-        return productRepository
-                .findFirstByTipoAndAtivoTrueAndValorMinimoLessThanEqualAndPrazoMinimoMesesLessThanEqualOrderByRentabilidadeDesc(
-                        tipo, valor, prazoMeses
-                );
+        return productCatalog.findMatchingProduct(tipo, valor, prazoMeses);
     }
 }
@@ -0,0 +1,297 @@
+package com.portfolio.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.exception.ApiException;
+import com.portfolio.api.exception.BatchTooLargeException;
+import com.portfolio.api.exception.ServiceUnavailableException;
+import com.portfolio.api.mapper.ClientIdentifierMapper;
+import com.portfolio.api.model.dto.response.RiskProfileBatchItem;
+import com.portfolio.api.model.dto.response.RiskProfileBatchJobResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Risk profiles for many clients at once, streamed or as an async job.
+ *
+ * CPFs are resolved in one query and clients are scored in parallel on
+ * virtual threads. A single semaphore bounds the clients being scored across
+ * all batch requests and jobs, which bounds the OFB fan-outs they start; a
+ * client's thread is only started once it holds a permit.
+ *
+ * At most max-jobs jobs run at once; further submissions are refused. Running
+ * jobs never expire or get evicted; retention starts when a job finishes, and
+ * max-jobs also caps the finished jobs kept.
+ * OFB tokens, JWKS and cached snapshots are the same ones the single-client
+ * endpoint uses, so a batch reuses whatever is already warm.
+ */
+@Slf4j
+@Service
+public class RiskProfileBatchService {
+
+    private static final String FORBIDDEN_MESSAGE = "Acesso negado a este cliente";
+    private static final String INTERNAL_ERROR_MESSAGE = "Erro ao calcular perfil de risco";
+    private static final String TOO_MANY_JOBS_MESSAGE =
+            "Limite de jobs de perfil de risco em andamento atingido. Tente novamente mais tarde.";
+
+    private final RiskProfileService riskProfileService;
+    private final ClientIdentifierMapper clientIdentifierMapper;
+    private final OFBProviderProperties.Batch config;
+    private final Semaphore permits;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("risk-batch-", 0).factory());
+    private final Cache<String, BatchJob> jobs;
+    private final AtomicInteger runningJobs = new AtomicInteger();
+
+    private final Counter succeeded;
+    private final Counter failed;
+
+    public RiskProfileBatchService(RiskProfileService riskProfileService,
+                                   ClientIdentifierMapper clientIdentifierMapper,
+                                   OFBProviderProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.riskProfileService = riskProfileService;
+        this.clientIdentifierMapper = clientIdentifierMapper;
+        this.config = properties.getBatch();
+        this.permits = new Semaphore(Math.max(1, config.getMaxConcurrency()));
+        long retentionNanos = Duration.ofMinutes(config.getJobRetentionMinutes()).toNanos();
+        this.jobs = Caffeine.newBuilder()
+                // Only finished jobs weigh anything, so size eviction never drops a running one
+                .maximumWeight(Math.max(1, config.getMaxJobs()))
+                .<String, BatchJob>weigher((id, job) -> job.isFinished() ? 1 : 0)
+                .expireAfter(new Expiry<String, BatchJob>() {
+                    @Override
+                    public long expireAfterCreate(String id, BatchJob job, long currentTime) {
+                        return job.isFinished() ? retentionNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, BatchJob job, long currentTime, long currentDuration) {
+                        return job.isFinished() ? retentionNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, BatchJob job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.succeeded = clientCounter(meterRegistry, "succeeded");
+        this.failed = clientCounter(meterRegistry, "failed");
+    }
+
+    /**
+     * Rejects lists above the streaming endpoint's limit, before the response starts.
+     */
+    public void checkStreamSize(List<Long> clienteIds) {
+        checkSize(clienteIds, config.getMaxClients());
+    }
+
+    /**
+     * Scores the clients and hands each result to the sink as soon as it is ready,
+     * on the calling thread. Clients rejected by {@code permitted} are reported as 403.
+     * If the sink throws, clients not yet started are skipped and the exception propagates;
+     * at most max-concurrency clients already started still finish.
+     */
+    public void run(List<Long> clienteIds, Predicate<Long> permitted, Consumer<RiskProfileBatchItem> sink)
+            throws InterruptedException {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(clienteIds));
+        BlockingQueue<RiskProfileBatchItem> completed = new LinkedBlockingQueue<>();
+
+        List<Long> allowed = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (permitted.test(id)) {
+                allowed.add(id);
+            } else {
+                completed.add(RiskProfileBatchItem.error(id, 403, FORBIDDEN_MESSAGE));
+            }
+        }
+
+        Map<Long, String> cpfs = allowed.isEmpty() ? Map.of() : clientIdentifierMapper.getCpfsForClients(allowed);
+        int delivered = 0;
+        for (Long id : allowed) {
+            // Taken before the thread starts, so in-flight clients are bounded by max-concurrency, not batch size
+            permits.acquire();
+            try {
+                executor.execute(() -> {
+                    try {
+                        completed.add(score(id, cpfs.get(id)));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            // Hand over whatever finished while waiting for the permit
+            for (RiskProfileBatchItem item = completed.poll(); item != null; item = completed.poll()) {
+                sink.accept(item);
+                delivered++;
+            }
+        }
+
+        for (; delivered < ids.size(); delivered++) {
+            sink.accept(completed.take());
+        }
+    }
+
+    /**
+     * Starts {@link #run} in the background; results are read with {@link #findJob}.
+     *
+     * @throws ServiceUnavailableException if max-jobs jobs are already running
+     */
+    public RiskProfileBatchJobResponse submit(List<Long> clienteIds, Predicate<Long> permitted, Long ownerId) {
+        checkSize(clienteIds, config.getMaxJobClients());
+        if (runningJobs.incrementAndGet() > config.getMaxJobs()) {
+            runningJobs.decrementAndGet();
+            throw new ServiceUnavailableException(TOO_MANY_JOBS_MESSAGE);
+        }
+        BatchJob job = new BatchJob(UUID.randomUUID().toString(), ownerId, new LinkedHashSet<>(clienteIds).size());
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> runJob(job, clienteIds, permitted));
+        } catch (RuntimeException e) {
+            jobs.invalidate(job.id);
+            runningJobs.decrementAndGet();
+            throw e;
+        }
+        return job.toResponse(0);
+    }
+
+    private void runJob(BatchJob job, List<Long> clienteIds, Predicate<Long> permitted) {
+        try {
+            run(clienteIds, permitted, job::add);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Risk profile batch job {} interrupted", job.id);
+        } catch (Exception e) {
+            log.error("Risk profile batch job {} failed", job.id, e);
+        } finally {
+            job.finish();
+            // Re-weighed and re-timed now that it has finished: retention starts here
+            jobs.put(job.id, job);
+            runningJobs.decrementAndGet();
+        }
+    }
+
+    /**
+     * The job's progress and its results from position {@code from}; empty when
+     * the job is unknown, expired or was submitted by someone else.
+     */
+    public Optional<RiskProfileBatchJobResponse> findJob(String jobId, Long requesterId, int from) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+                .filter(job -> job.ownerId != null && job.ownerId.equals(requesterId))
+                .map(job -> job.toResponse(from));
+    }
+
+    private static void checkSize(List<Long> clienteIds, int limit) {
+        int size = new LinkedHashSet<>(clienteIds).size();
+        if (size > limit) {
+            throw new BatchTooLargeException(size, limit);
+        }
+    }
+
+    RiskProfileBatchItem score(Long clienteId, String cpf) {
+        if (cpf == null) {
+            failed.increment();
+            return RiskProfileBatchItem.error(clienteId, 404, "Cliente não encontrado");
+        }
+        try {
+            RiskProfileBatchItem item = RiskProfileBatchItem.ok(riskProfileService.calculateRiskProfile(clienteId, cpf));
+            succeeded.increment();
+            return item;
+        } catch (ApiException e) {
+            failed.increment();
+            return RiskProfileBatchItem.error(clienteId, e.getStatusCode().value(), e.getMessage());
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Risk profile failed for client {} in batch: {}", clienteId, e.getMessage());
+            return RiskProfileBatchItem.error(clienteId, 500, INTERNAL_ERROR_MESSAGE);
+        }
+    }
+
+    private static Counter clientCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("risk.batch.clients")
+                .description("Clients scored by batch risk profile requests and jobs")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class BatchJob {
+
+        private final String id;
+        private final Long ownerId;
+        private final int total;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final List<RiskProfileBatchItem> results = new ArrayList<>();
+        private int failures;
+        private LocalDateTime finishedAt;
+
+        private BatchJob(String id, Long ownerId, int total) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.total = total;
+        }
+
+        private synchronized void add(RiskProfileBatchItem item) {
+            results.add(item);
+            if (item.getStatus() != 200) {
+                failures++;
+            }
+        }
+
+        private synchronized void finish() {
+            finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private synchronized RiskProfileBatchJobResponse toResponse(int from) {
+            int start = Math.min(Math.max(0, from), results.size());
+            return RiskProfileBatchJobResponse.builder()
+                    .jobId(id)
+                    .status(finishedAt != null
+                            ? RiskProfileBatchJobResponse.Status.CONCLUIDO
+                            : RiskProfileBatchJobResponse.Status.EM_ANDAMENTO)
+                    .total(total)
+                    .concluidos(results.size())
+                    .falhas(failures)
+                    .criadoEm(createdAt)
+                    .concluidoEm(finishedAt)
+                    .resultados(List.copyOf(results.subList(start, results.size())))
+                    .build();
+        }
+    }
+}
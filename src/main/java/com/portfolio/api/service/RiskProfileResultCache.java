@@ -0,0 +1,113 @@
+package com.portfolio.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.api.config.RiskProfileProperties;
+import com.portfolio.api.model.entity.RiskProfileHistory;
+import com.portfolio.api.repository.RiskProfileHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Computed risk profiles, looked up by what they were computed from.
+ *
+ * Every result is written to perfil_risco_historico under the client, the
+ * content hash of the scored investment history, the scoring version and the
+ * evaluation date, which doubles as the suitability audit trail. The date is
+ * part of the key because the horizon and frequency scores count from today.
+ * The latest row per client is also kept in memory, so a repeated request for
+ * an unchanged portfolio on the same day costs two cache lookups and no scoring.
+ */
+@Slf4j
+@Component
+public class RiskProfileResultCache {
+
+    private final RiskProfileHistoryRepository repository;
+    private final RiskProfileProperties.ResultCache config;
+    private final Cache<Long, RiskProfileHistory> latest;
+
+    private final Counter memoryHits;
+    private final Counter storeHits;
+    private final Counter misses;
+
+    public RiskProfileResultCache(RiskProfileHistoryRepository repository,
+                                  RiskProfileProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.config = properties.getResultCache();
+        this.latest = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .build();
+
+        this.memoryHits = lookupCounter(meterRegistry, "hit", "memory");
+        this.storeHits = lookupCounter(meterRegistry, "hit", "store");
+        this.misses = lookupCounter(meterRegistry, "miss", "none");
+    }
+
+    /**
+     * The stored result for this exact input, if the client was already scored on it that day.
+     * Empty when disabled, when the hash is unknown or when the store cannot be read.
+     */
+    public Optional<RiskProfileHistory> find(Long clienteId, String contentHash, String scoringVersion,
+                                             LocalDate evaluationDate) {
+        if (!config.isEnabled() || contentHash == null) {
+            return Optional.empty();
+        }
+
+        RiskProfileHistory cached = latest.getIfPresent(clienteId);
+        if (cached != null && matches(cached, contentHash, scoringVersion, evaluationDate)) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        try {
+            Optional<RiskProfileHistory> stored = repository
+                    .findFirstByClienteIdAndContentHashAndScoringVersionAndCalculatedOnOrderByCalculatedAtDesc(
+                            clienteId, contentHash, scoringVersion, evaluationDate);
+            if (stored.isPresent()) {
+                storeHits.increment();
+                latest.put(clienteId, stored.get());
+                return stored;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read risk profile history for client {}: {}", clienteId, e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a newly computed result. Every calculation gets its own row, so two
+     * concurrent requests for the same input simply leave two audit rows.
+     */
+    public void record(RiskProfileHistory result) {
+        if (!config.isEnabled() || result.getContentHash() == null) {
+            return;
+        }
+        latest.put(result.getClienteId(), result);
+        try {
+            repository.save(result);
+        } catch (Exception e) {
+            log.warn("Failed to store risk profile history for client {}: {}", result.getClienteId(), e.getMessage());
+        }
+    }
+
+    private static boolean matches(RiskProfileHistory row, String contentHash, String scoringVersion,
+                                   LocalDate evaluationDate) {
+        return contentHash.equals(row.getContentHash()) && scoringVersion.equals(row.getScoringVersion())
+                && evaluationDate.equals(row.getCalculatedOn());
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("risk.profile.results")
+                .description("Risk profile requests by stored-result outcome; miss = scored")
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
@@ -1,55 +1,39 @@
 package com.portfolio.api.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.portfolio.api.exception.ServiceUnavailableException;
 import com.portfolio.api.mapper.ClientIdentifierMapper;
 import com.portfolio.api.model.dto.response.RiskProfileResponse;
-import com.portfolio.api.model.entity.InvestmentDataCache;
+import com.portfolio.api.model.entity.RiskProfileHistory;
 import com.portfolio.api.model.enums.PerfilRisco;
-import com.portfolio.api.provider.InvestmentPlatformProvider;
-import com.portfolio.api.provider.dto.Investment;
-import com.portfolio.api.repository.InvestmentDataCacheRepository;
+import com.portfolio.api.provider.dto.PortfolioSnapshot;
+import com.portfolio.api.scorer.CompiledScoringModel;
 import com.portfolio.api.scorer.FrequencyScorer;
 import com.portfolio.api.scorer.HorizonScorer;
 import com.portfolio.api.scorer.LiquidityScorer;
+import com.portfolio.api.scorer.PortfolioFeatures;
 import com.portfolio.api.scorer.ProductRiskScorer;
 import com.portfolio.api.scorer.AmountScorer;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RiskProfileService {
 
-    // Factor weights based on improvement plan (04-risk-engine-improvement-plan.md)
-    private static final Map<String, Double> FACTOR_WEIGHTS = Map.of(
-            "amount", 0.25,          // Investment Volume
-            "frequency", 0.20,       // Transaction Frequency
-            "product_risk", 0.30,    // Product Risk Preference (THE SPEC: "Preferência por liquidez ou rentabilidade")
-            "liquidity", 0.15,       // Liquidity Preference
-            "horizon", 0.10          // Investment Horizon
-    );
-
     private final AmountScorer amountCalculator;
     private final FrequencyScorer frequencyCalculator;
     private final ProductRiskScorer productRiskCalculator;
     private final LiquidityScorer liquidityCalculator;
     private final HorizonScorer horizonCalculator;
     private final CustomerValidationService customerValidationService;
-    private final InvestmentPlatformProvider investmentPlatformProvider;
     private final ClientIdentifierMapper clientIdentifierMapper;
-    private final InvestmentDataCacheRepository cacheRepository;
-    private final ObjectMapper objectMapper;
+    private final PortfolioDataCache portfolioDataCache;
+    private final RiskProfileResultCache resultCache;
+    private final ScoringModelRegistry scoringModelRegistry;
 
     public RiskProfileResponse calculateRiskProfile(Long clienteId) {
         customerValidationService.validateClientExists(clienteId);
@@ -57,96 +41,66 @@ public class RiskProfileService {
         String cpf = clientIdentifierMapper.getCpfForClient(clienteId)
                 .orElseThrow(() -> new IllegalArgumentException("CPF não encontrado para clienteId: " + clienteId));
 
-        List<Investment> investments = fetchInvestmentsWithResilience(cpf);
+        return calculateRiskProfile(clienteId, cpf);
+    }
+
+    /**
+     * Scores a client whose CPF is already resolved (batch requests look them up together).
+     */
+    public RiskProfileResponse calculateRiskProfile(Long clienteId, String cpf) {
+        // Weights, tiers and product levels come from the scoring model assigned to this client
+        CompiledScoringModel model = scoringModelRegistry.modelFor(clienteId);
+        PortfolioSnapshot snapshot = portfolioDataCache.getSnapshot(cpf);
+        // Horizon and frequency count from today, so a result is only reused on the day it was calculated
+        LocalDateTime now = LocalDateTime.now();
+        Optional<RiskProfileHistory> stored =
+                resultCache.find(clienteId, snapshot.getContentHash(), model.getFingerprint(), now.toLocalDate());
+        if (stored.isPresent()) {
+            return toResponse(clienteId, stored.get().getPerfil(), stored.get().getPontuacao());
+        }
 
-        int amountScore = amountCalculator.calculateAmountScore(investments);
-        int frequencyScore = frequencyCalculator.calculateFrequencyScore(investments);
-        int productRiskScore = productRiskCalculator.calculateProductRiskScore(investments);
-        int liquidityScore = liquidityCalculator.calculateLiquidityScore(investments);
-        int horizonScore = horizonCalculator.calculateHorizonScore(investments);
+        // One pass over the history feeds all five scorers
+        PortfolioFeatures features = PortfolioFeatures.of(snapshot.getInvestmentHistory());
 
-        int totalScore = (int) Math.round(
-                amountScore * FACTOR_WEIGHTS.get("amount") +
-                frequencyScore * FACTOR_WEIGHTS.get("frequency") +
-                productRiskScore * FACTOR_WEIGHTS.get("product_risk") +
-                liquidityScore * FACTOR_WEIGHTS.get("liquidity") +
-                horizonScore * FACTOR_WEIGHTS.get("horizon")
-        );
+        int amountScore = amountCalculator.calculateAmountScore(features, model);
+        int frequencyScore = frequencyCalculator.calculateFrequencyScore(features, model);
+        int productRiskScore = productRiskCalculator.calculateProductRiskScore(features, model);
+        int liquidityScore = liquidityCalculator.calculateLiquidityScore(features, model);
+        int horizonScore = horizonCalculator.calculateHorizonScore(features, model);
+        // Factors the model defines as expressions, already compiled to bytecode
+        int[] customScores = model.customScores(features);
 
-        PerfilRisco profile = classifyProfile(totalScore);
-        String description = getProfileDescription(profile);
+        int totalScore = model.totalScore(amountScore, frequencyScore, productRiskScore, liquidityScore,
+                horizonScore, customScores);
 
-        return RiskProfileResponse.builder()
+        PerfilRisco profile = model.classify(totalScore);
+
+        resultCache.record(RiskProfileHistory.builder()
                 .clienteId(clienteId)
+                .contentHash(snapshot.getContentHash())
+                .scoringVersion(model.getFingerprint())
                 .perfil(profile)
                 .pontuacao(totalScore)
-                .descricao(description)
-                .build();
-    }
-
-    @CircuitBreaker(name = "ofbProvider")
-    @Retry(name = "ofbProvider")
-    @Cacheable(value = "portfolio-primary", key = "#cpf")
-    private List<Investment> fetchInvestmentsWithResilience(String cpf) {
-        try {
-            List<Investment> investments = investmentPlatformProvider.getInvestmentHistory(cpf);
-            updatePersistentCache(cpf, investments);
-            return investments;
-        } catch (Exception ex) {
-            log.error("Failed to fetch investments from OFB provider for CPF: {}", maskCpf(cpf), ex);
-
-            // Try persistent cache as last resort
-            return cacheRepository.findValidCacheByCpf(cpf, LocalDateTime.now())
-                    .map(this::deserializeInvestments)
-                    .orElseThrow(() -> new ServiceUnavailableException(
-                            "Serviço de investimentos temporariamente indisponível. Tente novamente em alguns instantes.",
-                            ex
-                    ));
-        }
-    }
-
-    private void updatePersistentCache(String cpf, List<Investment> investments) {
-        try {
-            String json = objectMapper.writeValueAsString(investments);
-            InvestmentDataCache cache = InvestmentDataCache.builder()
-                    .cpf(cpf)
-                    .investmentData(json)
-                    .fetchedAt(LocalDateTime.now())
-                    .expiresAt(LocalDateTime.now().plusHours(24))
-                    .build();
-            cacheRepository.save(cache);
-        } catch (Exception e) {
-            log.error("Failed to update persistent cache for CPF: {}", maskCpf(cpf), e);
-        }
-    }
-
-    private List<Investment> deserializeInvestments(InvestmentDataCache cache) {
-        try {
-            return objectMapper.readValue(
-                    cache.getInvestmentData(),
-                    new TypeReference<List<Investment>>() {}
-            );
-        } catch (Exception e) {
-            log.error("Failed to deserialize cached investments", e);
-            return List.of();
-        }
-    }
-
-    private String maskCpf(String cpf) {
-        if (cpf == null || cpf.length() < 11) {
-            return "***";
-        }
-        return cpf.substring(0, 3) + ".***.***-" + cpf.substring(9);
+                .amountScore(amountScore)
+                .frequencyScore(frequencyScore)
+                .productRiskScore(productRiskScore)
+                .liquidityScore(liquidityScore)
+                .horizonScore(horizonScore)
+                .customScores(model.customScoresByName(customScores))
+                .calculatedOn(now.toLocalDate())
+                .calculatedAt(now)
+                .build());
+
+        return toResponse(clienteId, profile, totalScore);
     }
 
-    private PerfilRisco classifyProfile(int score) {
-        if (score <= 40) {
-            return PerfilRisco.CONSERVADOR;
-        } else if (score <= 70) {
-            return PerfilRisco.MODERADO;
-        } else {
-            return PerfilRisco.AGRESSIVO;
-        }
+    private RiskProfileResponse toResponse(Long clienteId, PerfilRisco profile, int score) {
+        return RiskProfileResponse.builder()
+                .clienteId(clienteId)
+                .perfil(profile)
+                .pontuacao(score)
+                .descricao(getProfileDescription(profile))
+                .build();
     }
 
     private String getProfileDescription(PerfilRisco profile) {
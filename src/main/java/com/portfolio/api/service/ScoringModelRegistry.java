@@ -0,0 +1,154 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.RiskProfileProperties;
+import com.portfolio.api.scorer.CompiledScoringModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * The scoring models in use and which client gets which.
+ *
+ * Models are read from risk-profile.model.location (and candidate-location
+ * for an A/B test), validated and compiled. Files are re-read every
+ * reload-interval-ms; when a model's values changed and it is valid, the
+ * selection is replaced in one volatile write, so a calculation never sees a
+ * mix of two models. An invalid file is logged and the running model kept.
+ *
+ * Clients are split by a stable hash of clienteId, so each client is always
+ * scored by the same model while the experiment runs.
+ */
+@Slf4j
+@Component
+public class ScoringModelRegistry {
+
+    private final ResourceLoader resourceLoader;
+    private final RiskProfileProperties.Model config;
+    private volatile Selection selection;
+
+    private final Counter controlSelections;
+    private final Counter candidateSelections;
+    private final Counter reloads;
+    private final Counter rejectedReloads;
+
+    public ScoringModelRegistry(ResourceLoader resourceLoader,
+                                RiskProfileProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.resourceLoader = resourceLoader;
+        this.config = properties.getModel();
+
+        // A bad model at startup is a deployment error, not something to run without
+        this.selection = loadSelection();
+        log.info("Scoring model {} loaded{}", selection.control().getFingerprint(), describeCandidate(selection));
+
+        this.controlSelections = selectionCounter(meterRegistry, "control");
+        this.candidateSelections = selectionCounter(meterRegistry, "candidate");
+        this.reloads = reloadCounter(meterRegistry, "applied");
+        this.rejectedReloads = reloadCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * The model that scores this client.
+     */
+    public CompiledScoringModel modelFor(Long clienteId) {
+        Selection current = selection;
+        if (current.candidate() != null && bucket(clienteId) < current.candidatePercent()) {
+            candidateSelections.increment();
+            return current.candidate();
+        }
+        controlSelections.increment();
+        return current.control();
+    }
+
+    @Scheduled(fixedDelayString = "${risk-profile.model.reload-interval-ms:30000}",
+            initialDelayString = "${risk-profile.model.reload-interval-ms:30000}")
+    public void reload() {
+        Selection current = selection;
+        Selection loaded;
+        try {
+            loaded = loadSelection();
+        } catch (RuntimeException e) {
+            rejectedReloads.increment();
+            log.error("Scoring model reload rejected, keeping {}: {}",
+                    current.control().getFingerprint(), e.getMessage());
+            return;
+        }
+
+        if (loaded.sameModelsAs(current)) {
+            return;
+        }
+        selection = loaded;
+        reloads.increment();
+        log.info("Scoring model {} applied (was {}){}", loaded.control().getFingerprint(),
+                current.control().getFingerprint(), describeCandidate(loaded));
+    }
+
+    private Selection loadSelection() {
+        CompiledScoringModel control = load(config.getLocation());
+        String candidateLocation = config.getCandidateLocation();
+        CompiledScoringModel candidate = candidateLocation != null && !candidateLocation.isBlank()
+                && config.getCandidatePercent() > 0
+                ? load(candidateLocation)
+                : null;
+        return new Selection(control, candidate, Math.min(100, config.getCandidatePercent()));
+    }
+
+    private CompiledScoringModel load(String location) {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return CompiledScoringModel.parse(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read scoring model " + location, e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(location + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stable 0-99 bucket for a client (Fibonacci hashing spreads sequential IDs).
+     */
+    static int bucket(Long clienteId) {
+        return Math.floorMod(Long.hashCode(clienteId * 0x9E3779B97F4A7C15L), 100);
+    }
+
+    private static String describeCandidate(Selection selection) {
+        return selection.candidate() == null ? ""
+                : ", candidate " + selection.candidate().getFingerprint() + " for " + selection.candidatePercent() + "% of clients";
+    }
+
+    private static Counter selectionCounter(MeterRegistry meterRegistry, String arm) {
+        return Counter.builder("risk.model.selections")
+                .description("Risk profile calculations by scoring model arm")
+                .tag("arm", arm)
+                .register(meterRegistry);
+    }
+
+    private static Counter reloadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("risk.model.reloads")
+                .description("Scoring model file changes applied or rejected")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    record Selection(CompiledScoringModel control, CompiledScoringModel candidate, int candidatePercent) {
+
+        boolean sameModelsAs(Selection other) {
+            return control.getFingerprint().equals(other.control.getFingerprint())
+                    && Objects.equals(fingerprint(candidate), fingerprint(other.candidate))
+                    && candidatePercent == other.candidatePercent;
+        }
+
+        private static String fingerprint(CompiledScoringModel model) {
+            return model != null ? model.getFingerprint() : null;
+        }
+    }
+}
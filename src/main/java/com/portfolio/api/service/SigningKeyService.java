@@ -0,0 +1,321 @@
+package com.portfolio.api.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.portfolio.api.config.AuthServerProperties;
+import com.portfolio.api.model.entity.SigningKey;
+import com.portfolio.api.repository.SigningKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Manages the JWT signing keys shared by every API node.
+ *
+ * Keys live in oauth2_signing_key with the private half AES-GCM encrypted.
+ * A key signs from its activates_at until its successor activates; successors
+ * are created ahead of time (publish-ahead) so every node already has them in
+ * its JWKS, and superseded keys stay published for the retention window so
+ * tokens they signed keep verifying on all nodes.
+ */
+@Slf4j
+@Service
+public class SigningKeyService {
+
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final AuthServerProperties.SigningKeys config;
+    private final SecretKey encryptionKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final AtomicReference<KeyRing> keyRing = new AtomicReference<>(KeyRing.EMPTY);
+    // Single-flight reload; also guards lastUnknownKidReload
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private long lastUnknownKidReload;
+
+    public SigningKeyService(SigningKeyRepository signingKeyRepository, AuthServerProperties properties) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.config = properties.getSigningKeys();
+        this.encryptionKey = decodeEncryptionKey(config.getEncryptionKey());
+        this.lastUnknownKidReload = System.nanoTime()
+                - Duration.ofSeconds(config.getUnknownKidReloadIntervalSeconds()).toNanos();
+    }
+
+    /**
+     * Keys to publish and verify with. The current signing key is always the first entry.
+     */
+    public JWKSet getJwkSet() {
+        return currentRing().jwkSet();
+    }
+
+    /**
+     * Key ID new tokens must be signed with.
+     */
+    public String getSigningKeyId() {
+        return currentRing().signingKeyId();
+    }
+
+    /**
+     * Re-reads the key table because a token carried a kid this node doesn't know yet
+     * (e.g. another node rotated). Rate limited so forged kids can't hammer the database.
+     */
+    public JWKSet reloadForUnknownKey() {
+        reloadLock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now - lastUnknownKidReload >= Duration.ofSeconds(config.getUnknownKidReloadIntervalSeconds()).toNanos()) {
+                lastUnknownKidReload = now;
+                reloadLocked();
+            }
+            return keyRing.get().jwkSet();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Creates the next signing key once the current one is due for rotation, and
+     * deletes keys whose retention window has passed. Safe to run on every node:
+     * a concurrent duplicate successor is simply one more published key.
+     */
+    @Scheduled(fixedDelayString = "${security.auth-server.signing-keys.rotation-check-interval-ms:3600000}")
+    public void rotateIfDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SigningKey> keys = signingKeyRepository.findAllByOrderByActivatesAtDesc();
+
+        boolean hasPending = keys.stream().anyMatch(key -> key.getActivatesAt().isAfter(now));
+        SigningKey current = keys.stream()
+                .filter(key -> !key.getActivatesAt().isAfter(now))
+                .findFirst()
+                .orElse(null);
+
+        if (!hasPending && current != null) {
+            LocalDateTime rotateAt = current.getActivatesAt()
+                    .plusHours(config.getRotationIntervalHours())
+                    .minusMinutes(config.getPublishAheadMinutes());
+            if (!now.isBefore(rotateAt)) {
+                SigningKey successor = generateKey(now.plusMinutes(config.getPublishAheadMinutes()));
+                log.info("Rotating JWT signing key: {} will replace {} at {}",
+                        successor.getKid(), current.getKid(), successor.getActivatesAt());
+            }
+        }
+
+        // A key is retired once its successor has been signing for longer than the retention window
+        LocalDateTime retentionCutoff = now.minusHours(config.getRetentionHours());
+        for (int i = 1; i < keys.size(); i++) {
+            if (keys.get(i - 1).getActivatesAt().isBefore(retentionCutoff)) {
+                log.info("Deleting retired JWT signing key {}", keys.get(i).getKid());
+                signingKeyRepository.delete(keys.get(i));
+            }
+        }
+
+        reload();
+    }
+
+    private KeyRing currentRing() {
+        KeyRing ring = keyRing.get();
+        if (!ring.isStale()) {
+            return ring;
+        }
+        if (ring == KeyRing.EMPTY) {
+            // Nothing to serve yet: wait for the first load
+            reloadLock.lock();
+            try {
+                if (keyRing.get() == ring) {
+                    reloadLocked();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        } else if (reloadLock.tryLock()) {
+            // Stale: one thread reloads, the others keep using the previous ring
+            try {
+                if (keyRing.get() == ring) {
+                    reloadLocked();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return keyRing.get();
+    }
+
+    private void reload() {
+        reloadLock.lock();
+        try {
+            reloadLocked();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadLocked() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SigningKey> keys = signingKeyRepository.findAllByOrderByActivatesAtDesc();
+
+        if (keys.stream().noneMatch(key -> !key.getActivatesAt().isAfter(now))) {
+            // First boot (or every key still pending): start signing right away
+            generateKey(now);
+            keys = signingKeyRepository.findAllByOrderByActivatesAtDesc();
+        }
+
+        LocalDateTime retentionCutoff = now.minusHours(config.getRetentionHours());
+        List<JWK> jwks = new ArrayList<>();
+        String signingKeyId = null;
+        LocalDateTime nextActivation = null;
+
+        // Newest first: pending keys, then the signing key, then superseded keys still in retention
+        for (int i = 0; i < keys.size(); i++) {
+            SigningKey key = keys.get(i);
+            boolean pending = key.getActivatesAt().isAfter(now);
+            boolean retained = i == 0 || keys.get(i - 1).getActivatesAt().isAfter(retentionCutoff);
+            if (!pending && !retained) {
+                break;
+            }
+
+            RSAKey jwk = toJwk(key);
+            if (jwk == null) {
+                continue;
+            }
+            if (pending) {
+                nextActivation = key.getActivatesAt();
+                jwks.add(jwk);
+            } else if (signingKeyId == null) {
+                signingKeyId = key.getKid();
+                jwks.addFirst(jwk);
+            } else {
+                jwks.add(jwk);
+            }
+        }
+
+        if (signingKeyId == null) {
+            throw new IllegalStateException("No usable JWT signing key; check the signing key encryption key");
+        }
+
+        long validForNanos = Duration.ofSeconds(config.getReloadIntervalSeconds()).toNanos();
+        if (nextActivation != null) {
+            // Switch to the pending key exactly when it activates
+            validForNanos = Math.min(validForNanos, Math.max(0, Duration.between(now, nextActivation).toNanos()));
+        }
+
+        keyRing.set(new KeyRing(new JWKSet(jwks), signingKeyId, System.nanoTime() + validForNanos));
+        log.debug("Loaded {} JWT signing keys, signing with {}", jwks.size(), signingKeyId);
+    }
+
+    private SigningKey generateKey(LocalDateTime activatesAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(config.getKeySize());
+            KeyPair keyPair = generator.generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+
+            SigningKey key = SigningKey.builder()
+                    .kid(kid)
+                    .publicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                    .privateKey(encrypt(kid, keyPair.getPrivate().getEncoded()))
+                    .createdAt(LocalDateTime.now())
+                    .activatesAt(activatesAt)
+                    .build();
+            return signingKeyRepository.save(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate JWT signing key", e);
+        }
+    }
+
+    private RSAKey toJwk(SigningKey key) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            RSAPublicKey publicKey = (RSAPublicKey) keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            RSAPrivateKey privateKey = (RSAPrivateKey) keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(key.getKid(), key.getPrivateKey())));
+
+            return new RSAKey.Builder(publicKey)
+                    .privateKey(privateKey)
+                    .keyID(key.getKid())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .build();
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            log.error("Skipping unreadable JWT signing key {}: {}", key.getKid(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String encrypt(String kid, byte[] plaintext) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        secureRandom.nextBytes(iv);
+
+        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        // Bind the ciphertext to its row so keys can't be swapped between kids
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] ciphertext = cipher.doFinal(plaintext);
+
+        return Base64.getEncoder().encodeToString(
+                ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array());
+    }
+
+    private byte[] decrypt(String kid, String encoded) throws GeneralSecurityException {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+        byte[] iv = new byte[IV_LENGTH];
+        buffer.get(iv);
+        byte[] ciphertext = new byte[buffer.remaining()];
+        buffer.get(ciphertext);
+
+        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(ciphertext);
+    }
+
+    private static SecretKey decodeEncryptionKey(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            throw new IllegalStateException("security.auth-server.signing-keys.encryption-key must be set");
+        }
+        byte[] key = Base64.getDecoder().decode(encoded);
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalStateException("Signing key encryption key must be 16, 24 or 32 bytes, got " + key.length);
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    private record KeyRing(JWKSet jwkSet, String signingKeyId, long validUntilNanos) {
+
+        static final KeyRing EMPTY = new KeyRing(new JWKSet(), null, Long.MIN_VALUE);
+
+        boolean isStale() {
+            return this == EMPTY || System.nanoTime() - validUntilNanos >= 0;
+        }
+    }
+}
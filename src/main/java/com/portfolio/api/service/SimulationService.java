@@ -27,15 +27,18 @@ public class SimulationService {
     private final TelemetryRepository telemetryRepository;
     private final ProductService productService;
     private final InvestmentCalculator investmentCalculator;
+    private final SimulationWriteBehind simulationWriteBehind;
 
     public SimulationService(SimulationRepository simulationRepository,
                              TelemetryRepository telemetryRepository,
                              ProductService productService,
-                             InvestmentCalculator investmentCalculator) {
+                             InvestmentCalculator investmentCalculator,
+                             SimulationWriteBehind simulationWriteBehind) {
         this.simulationRepository = simulationRepository;
         this.telemetryRepository = telemetryRepository;
         this.productService = productService;
         this.investmentCalculator = investmentCalculator;
+        this.simulationWriteBehind = simulationWriteBehind;
     }
 
     @Transactional
@@ -70,7 +73,12 @@ public class SimulationService {
         simulation.setPrazoMeses(request.getPrazoMeses());
         simulation.setDataSimulacao(LocalDateTime.now());
 
-        simulationRepository.save(simulation);
+        if (simulationWriteBehind.isEnabled()) {
+            // Inserted with the next batch; the response does not need the generated id
+            simulationWriteBehind.enqueue(simulation);
+        } else {
+            simulationRepository.save(simulation);
+        }
 
         return SimulationResponse.builder()
                 .produtoValidado(SimulationResponse.ProductValidated.builder()
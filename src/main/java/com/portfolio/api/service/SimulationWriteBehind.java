@@ -0,0 +1,260 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.SimulationProperties;
+import com.portfolio.api.exception.ServiceUnavailableException;
+import com.portfolio.api.model.entity.Simulation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind for simulation records (simulation.write-behind.enabled).
+ *
+ * Requests put the simulation in a bounded queue and return; one writer thread
+ * inserts the queue in JDBC batches of batch-size rows, or whatever arrived
+ * within flush-interval-ms. simulacoes.id stays IDENTITY: the INSERT leaves it
+ * out and no generated keys are read back (the response does not need them),
+ * so the driver can batch, which Hibernate cannot do for IDENTITY entities.
+ *
+ * A full queue makes requests wait up to offer-timeout-ms and then fail with
+ * 503. On shutdown new simulations are refused and the queue is written before
+ * the datasource closes. Each batch is one transaction. When the database is
+ * unreachable or times out the writer keeps the batch and retries it with
+ * exponential backoff (retry-backoff-ms up to max-retry-backoff-ms); meanwhile
+ * the queue fills and back-pressure turns into 503s instead of lost rows. A
+ * batch that fails for any other reason is retried row by row, so one bad row
+ * does not drop the others; only rows that still fail that way are logged and
+ * counted as dropped.
+ */
+@Slf4j
+@Component
+public class SimulationWriteBehind {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO simulacoes (cliente_id, produto_id, produto_nome, valor_investido, valor_final,
+                                    prazo_meses, data_simulacao)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimulationProperties.WriteBehind config;
+    private final BlockingQueue<Simulation> queue;
+    private final Thread writer;
+    private volatile boolean accepting;
+    // System.nanoTime() after which unavailable-database retries stop; 0 until shutdown
+    private volatile long retryDeadline;
+
+    private final Counter written;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Counter retries;
+
+    public SimulationWriteBehind(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 SimulationProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.config = properties.getWriteBehind();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+
+        this.written = rowCounter(meterRegistry, "written");
+        this.rejected = rowCounter(meterRegistry, "rejected");
+        this.dropped = rowCounter(meterRegistry, "dropped");
+        this.retries = Counter.builder("simulation.write_behind.retries")
+                .description("Writes retried because the database was unavailable")
+                .register(meterRegistry);
+        Gauge.builder("simulation.write_behind.queue.depth", queue, BlockingQueue::size)
+                .description("Simulations waiting to be inserted")
+                .register(meterRegistry);
+
+        if (config.isEnabled()) {
+            this.accepting = true;
+            this.writer = Thread.ofVirtual().name("simulation-writer").start(this::writeLoop);
+            log.info("Simulation write-behind enabled: batches of {} every {} ms, queue of {}",
+                    config.getBatchSize(), config.getFlushIntervalMs(), config.getQueueCapacity());
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Queues the simulation for the next batch, waiting up to offer-timeout-ms for room.
+     *
+     * @throws ServiceUnavailableException if the queue stays full or the application is shutting down
+     */
+    public void enqueue(Simulation simulation) {
+        boolean queued = false;
+        if (accepting) {
+            try {
+                queued = queue.offer(simulation, config.getOfferTimeoutMs(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            rejected.increment();
+            throw new ServiceUnavailableException(
+                    "Serviço de simulação temporariamente sobrecarregado. Tente novamente em alguns instantes.");
+        }
+    }
+
+    private void writeLoop() {
+        List<Simulation> batch = new ArrayList<>(Math.max(1, config.getBatchSize()));
+        // Not interrupted on shutdown (that would close a JDBC socket mid-write); polls time out instead
+        while (accepting || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Blocks for the first row, then collects more until the batch is full or the flush interval ends
+    private void fillBatch(List<Simulation> batch) throws InterruptedException {
+        int batchSize = Math.max(1, config.getBatchSize());
+        Simulation first = queue.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            Simulation next = remaining > 0 && accepting ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void write(List<Simulation> batch) {
+        try {
+            // All or nothing, so the row-by-row retry cannot insert a row twice
+            retryWhileUnavailable(() -> transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), SimulationWriteBehind::bind)));
+            written.increment(batch.size());
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Simulation batch of {} failed, retrying row by row: {}", batch.size(), e.getMessage());
+        }
+        for (Simulation simulation : batch) {
+            try {
+                retryWhileUnavailable(() -> jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, simulation)));
+                written.increment();
+            } catch (RuntimeException e) {
+                dropped.increment();
+                log.error("Simulation for client {} (product {}) not saved: {}",
+                        simulation.getClienteId(), simulation.getProdutoId(), e.getMessage());
+            }
+        }
+    }
+
+    // Runs the write until it succeeds or fails for a reason other than the database being unavailable
+    private void retryWhileUnavailable(Runnable write) {
+        long backoffMs = Math.max(1, config.getRetryBackoffMs());
+        while (true) {
+            try {
+                write.run();
+                return;
+            } catch (RuntimeException e) {
+                long untilDeadlineMs = retryDeadline != 0
+                        ? TimeUnit.NANOSECONDS.toMillis(retryDeadline - System.nanoTime()) : Long.MAX_VALUE;
+                if (!isTransient(e) || untilDeadlineMs <= 0) {
+                    throw e;
+                }
+                retries.increment();
+                log.warn("Database unavailable for simulation write-behind, retrying in {} ms: {}",
+                        backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(Math.min(backoffMs, untilDeadlineMs));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoffMs = Math.min(backoffMs * 2, Math.max(1, config.getMaxRetryBackoffMs()));
+            }
+        }
+    }
+
+    /**
+     * Connection failures, timeouts and deadlocks, which a later attempt may get past;
+     * constraint violations and other deterministic failures are not.
+     */
+    static boolean isTransient(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private static void bind(PreparedStatement ps, Simulation simulation) throws SQLException {
+        ps.setLong(1, simulation.getClienteId());
+        ps.setLong(2, simulation.getProdutoId());
+        ps.setString(3, simulation.getProdutoNome());
+        ps.setBigDecimal(4, simulation.getValorInvestido());
+        ps.setBigDecimal(5, simulation.getValorFinal());
+        ps.setInt(6, simulation.getPrazoMeses());
+        ps.setTimestamp(7, Timestamp.valueOf(simulation.getDataSimulacao()));
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("simulation.write_behind.rows")
+                .description("Simulations handled by the write-behind queue")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        accepting = false;
+        // A write stuck retrying against an unavailable database gives up in time for the join below
+        retryDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getShutdownTimeoutSeconds()) / 2;
+        if (!writer.join(Duration.ofSeconds(config.getShutdownTimeoutSeconds()))) {
+            log.error("Simulation write-behind did not drain within {} s; {} simulations not saved",
+                    config.getShutdownTimeoutSeconds(), queue.size());
+            return;
+        }
+        // Requests that passed the accepting check just before it flipped
+        List<Simulation> late = new ArrayList<>();
+        queue.drainTo(late);
+        if (!late.isEmpty()) {
+            write(late);
+        }
+        log.info("Simulation write-behind drained");
+    }
+}
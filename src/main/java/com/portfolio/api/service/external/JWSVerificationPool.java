@@ -0,0 +1,81 @@
+package com.portfolio.api.service.external;
+
+import com.portfolio.api.config.OFBProviderProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated CPU pool for JWS signature verification.
+ *
+ * RSA verification is CPU-bound, so it runs on a core-sized pool of platform
+ * threads instead of on the I/O threads that fetched the payload. When the
+ * bounded queue is full the caller verifies inline, which throttles fetchers
+ * instead of growing the backlog.
+ */
+@Slf4j
+@Component
+public class JWSVerificationPool {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer verificationTimer;
+
+    public JWSVerificationPool(OFBProviderProperties properties, MeterRegistry meterRegistry) {
+        OFBProviderProperties.Verification config = properties.getVerification();
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        ThreadFactory threadFactory = Thread.ofPlatform().name("ofb-jws-verify-", 0).daemon(true).factory();
+
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.verificationTimer = Timer.builder("ofb.jws.verification")
+                .description("Time spent verifying one OFB JWS signature")
+                .register(meterRegistry);
+        Gauge.builder("ofb.jws.verification.queue.depth", executor, e -> e.getQueue().size())
+                .description("JWS verifications waiting for a pool thread")
+                .register(meterRegistry);
+        Gauge.builder("ofb.jws.verification.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("JWS verifications currently running")
+                .register(meterRegistry);
+
+        log.info("JWS verification pool started with {} threads", threads);
+    }
+
+    /**
+     * Runs a verification on the pool and waits for its result.
+     */
+    public <T> T verify(Callable<T> verification) throws Exception {
+        Future<T> future = executor.submit(() -> verificationTimer.recordCallable(verification));
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -11,9 +11,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 @Service
@@ -22,9 +25,13 @@ public class JWSVerificationService {
 
     private final OFBOAuth2Client oAuth2Client;
     private final OFBProviderProperties properties;
+    private final JWSVerificationPool verificationPool;
 
-    private final Map<String, RSAKey> jwkCache = new ConcurrentHashMap<>();
-    private Instant jwkCacheExpiry = Instant.MIN;
+    // Readers never lock: they see either the previous or the next keyset, never a partial one
+    private final AtomicReference<KeySnapshot> keySnapshot = new AtomicReference<>(KeySnapshot.EMPTY);
+    // Single-flight JWKS refresh; also guards lastRefreshAttempt
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private Instant lastRefreshAttempt = Instant.MIN;
 
     public String verifyAndExtractPayload(String jwsToken) throws Exception {
         log.debug("Verifying JWS token");
@@ -32,10 +39,10 @@ public class JWSVerificationService {
         JWSObject jwsObject = JWSObject.parse(jwsToken);
         String keyId = jwsObject.getHeader().getKeyID();
 
-        RSAKey rsaKey = getPublicKey(keyId);
-        JWSVerifier verifier = new RSASSAVerifier(rsaKey);
+        JWSVerifier verifier = getVerifier(keyId);
 
-        if (!jwsObject.verify(verifier)) {
+        // Signature check is CPU-bound: run it on the verification pool, not the I/O thread
+        if (!verificationPool.verify(() -> jwsObject.verify(verifier))) {
             throw new SecurityException("JWS signature verification failed");
         }
 
@@ -43,12 +50,80 @@ public class JWSVerificationService {
         return jwsObject.getPayload().toString();
     }
 
-    private RSAKey getPublicKey(String keyId) throws Exception {
-        // Check cache
-        if (Instant.now().isBefore(jwkCacheExpiry) && jwkCache.containsKey(keyId)) {
-            log.debug("Using cached JWK for key ID: {}", keyId);
-            return jwkCache.get(keyId);
+    private JWSVerifier getVerifier(String keyId) throws Exception {
+        KeySnapshot snapshot = keySnapshot.get();
+        JWSVerifier verifier = snapshot.verifiers().get(keyId);
+
+        if (verifier != null) {
+            if (!snapshot.isExpired()) {
+                return verifier;
+            }
+
+            // Expired but still usable: one thread refreshes, the others keep the previous keyset
+            KeySnapshot current = tryRefresh(snapshot);
+            if (current == snapshot) {
+                return verifier;
+            }
+            verifier = current.verifiers().get(keyId);
+            if (verifier == null) {
+                throw new SecurityException("Key ID no longer in JWKS: " + keyId);
+            }
+            return verifier;
+        }
+
+        // Unknown key ID (first use or provider key rotation): refresh, rate limited
+        verifier = refreshForUnknownKey(snapshot).verifiers().get(keyId);
+        if (verifier == null) {
+            throw new SecurityException("Key ID not found in JWKS: " + keyId);
+        }
+        return verifier;
+    }
+
+    /**
+     * Refreshes without waiting; if another thread is already refreshing, or the
+     * fetch fails, the caller keeps using the snapshot it has.
+     */
+    private KeySnapshot tryRefresh(KeySnapshot seen) {
+        if (!refreshLock.tryLock()) {
+            return seen;
+        }
+        try {
+            return refreshLocked(seen);
+        } catch (Exception e) {
+            log.warn("JWKS refresh failed, keeping {} cached keys: {}", seen.verifiers().size(), e.getMessage());
+            return keySnapshot.get();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Refreshes and waits for the result. Threads that queued behind an in-flight
+     * refresh reuse its result instead of fetching again.
+     */
+    private KeySnapshot refreshForUnknownKey(KeySnapshot seen) throws Exception {
+        refreshLock.lock();
+        try {
+            return refreshLocked(seen);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private KeySnapshot refreshLocked(KeySnapshot seen) throws Exception {
+        KeySnapshot current = keySnapshot.get();
+        if (current != seen) {
+            // Another thread refreshed while we were waiting
+            return current;
+        }
+
+        Instant now = Instant.now();
+        Duration minInterval = Duration.ofSeconds(properties.getJwks().getMinRefreshIntervalSeconds());
+        if (!current.verifiers().isEmpty() && now.isBefore(lastRefreshAttempt.plus(minInterval))) {
+            log.debug("Skipping JWKS refresh, last attempt at {}", lastRefreshAttempt);
+            return current;
         }
+        lastRefreshAttempt = now;
 
         // Fetch JWKS using HTTP Interface client
         log.debug("Fetching JWKS from OFB provider");
@@ -56,22 +131,29 @@ public class JWSVerificationService {
 
         JWKSet jwkSet = JWKSet.parse(jwksResponse);
 
-        // Cache all keys
-        jwkCache.clear();
+        // Build verifiers once per key; they are immutable and shared across threads
+        Map<String, JWSVerifier> verifiers = new HashMap<>();
         for (JWK jwk : jwkSet.getKeys()) {
-            if (jwk instanceof RSAKey) {
-                jwkCache.put(jwk.getKeyID(), (RSAKey) jwk);
+            if (jwk instanceof RSAKey rsaKey) {
+                verifiers.put(rsaKey.getKeyID(), new RSASSAVerifier(rsaKey));
             }
         }
 
-        jwkCacheExpiry = Instant.now().plusSeconds(properties.getJwks().getCacheTtlSeconds());
-        log.debug("Cached {} JWKs, expires at {}", jwkCache.size(), jwkCacheExpiry);
+        KeySnapshot refreshed = new KeySnapshot(
+                Map.copyOf(verifiers),
+                Instant.now().plusSeconds(properties.getJwks().getCacheTtlSeconds()));
+        keySnapshot.set(refreshed);
+        log.debug("Cached {} JWKs, expires at {}", verifiers.size(), refreshed.expiresAt());
 
-        RSAKey key = jwkCache.get(keyId);
-        if (key == null) {
-            throw new SecurityException("Key ID not found in JWKS: " + keyId);
-        }
+        return refreshed;
+    }
 
-        return key;
+    private record KeySnapshot(Map<String, JWSVerifier> verifiers, Instant expiresAt) {
+
+        static final KeySnapshot EMPTY = new KeySnapshot(Map.of(), Instant.MIN);
+
+        boolean isExpired() {
+            return !Instant.now().isBefore(expiresAt);
+        }
     }
 }
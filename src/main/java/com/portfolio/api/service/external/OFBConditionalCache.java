@@ -0,0 +1,93 @@
+package com.portfolio.api.service.external;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.api.config.OFBProviderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * ETags of OFB responses together with what was built from them.
+ *
+ * An entry holds the validator of one customer investment endpoint and the
+ * already verified and parsed result, so a 304 skips the download, the JWS
+ * verification and the parse.
+ */
+@Component
+public class OFBConditionalCache {
+
+    private final OFBProviderProperties.ConditionalRequests config;
+    private final Cache<String, Validated<?>> entries;
+
+    private final Counter unconditional;
+    private final Counter modified;
+    private final Counter notModified;
+
+    public OFBConditionalCache(OFBProviderProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getConditionalRequests();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterAccess(Duration.ofHours(config.getExpireAfterAccessHours()))
+                .build();
+
+        this.unconditional = requestCounter(meterRegistry, "unconditional");
+        this.modified = requestCounter(meterRegistry, "modified");
+        this.notModified = requestCounter(meterRegistry, "not_modified");
+    }
+
+    /**
+     * Cache key for one endpoint of one customer investment, or null when
+     * conditional requests are disabled.
+     */
+    public String keyFor(String cpf, String group, String endpoint, String investmentId) {
+        if (!config.isEnabled() || cpf == null) {
+            return null;
+        }
+        return cpf + ':' + group + ':' + endpoint + ':' + investmentId;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Validated<T> get(String key) {
+        return key != null ? (Validated<T>) entries.getIfPresent(key) : null;
+    }
+
+    /**
+     * Stores the result under its ETag; responses without an ETag or result are not kept.
+     */
+    public <T> void put(String key, String etag, T value) {
+        if (key == null) {
+            return;
+        }
+        if (etag == null || value == null) {
+            entries.invalidate(key);
+            return;
+        }
+        entries.put(key, new Validated<>(etag, value));
+    }
+
+    /**
+     * Records how a request ended: sent without a validator, or with one and answered 200 or 304.
+     */
+    public void recordOutcome(boolean conditional, boolean wasNotModified) {
+        if (!conditional) {
+            unconditional.increment();
+        } else if (wasNotModified) {
+            notModified.increment();
+        } else {
+            modified.increment();
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ofb.conditional.requests")
+                .description("OFB detail and balance calls by validator outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public record Validated<T>(String etag, T value) {
+    }
+}
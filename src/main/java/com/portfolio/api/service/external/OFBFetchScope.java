@@ -0,0 +1,92 @@
+package com.portfolio.api.service.external;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fan-out scope for one customer's OFB fetch.
+ *
+ * Tasks run on virtual threads, outbound calls share a bounded permit pool
+ * (per-customer parallelism limit) and every wait is bounded by a single
+ * deadline. Closing the scope cancels whatever is still running, so no task
+ * outlives the fetch that forked it.
+ */
+@Slf4j
+class OFBFetchScope implements AutoCloseable {
+
+    private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("ofb-fetch-", 0).factory();
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(THREAD_FACTORY);
+    private final Semaphore permits;
+    private final long deadlineNanos;
+
+    OFBFetchScope(int maxConcurrency, Duration timeout) {
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Starts a task on its own virtual thread.
+     */
+    <T> Future<T> fork(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Runs an outbound OFB call while holding one of the scope's permits.
+     *
+     * @throws TimeoutException if no permit frees up before the deadline
+     */
+    <T> T call(Callable<T> outboundCall) throws Exception {
+        if (!permits.tryAcquire(remainingNanos(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("OFB fetch deadline exceeded while waiting for a call slot");
+        }
+        try {
+            return outboundCall.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Waits for a forked task until the deadline.
+     *
+     * @return the task result, or empty if it failed or did not finish in time
+     */
+    <T> Optional<T> join(Future<T> future, String description) {
+        try {
+            return Optional.ofNullable(future.get(remainingNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("OFB fetch deadline exceeded for {}", description);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            log.warn("OFB fetch failed for {}: {}", description, e.getCause().getMessage());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return Optional.empty();
+        }
+    }
+
+    private long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
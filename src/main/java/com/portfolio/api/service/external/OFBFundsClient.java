@@ -1,7 +1,9 @@
 package com.portfolio.api.service.external;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
 
@@ -12,17 +14,23 @@ public interface OFBFundsClient {
     String getInvestments(@RequestHeader("Authorization") String authorization);
 
     @GetExchange("/investments/{investmentId}")
-    String getInvestmentDetail(
+    ResponseEntity<String> getInvestmentDetail(
             @RequestHeader("Authorization") String authorization,
-            @PathVariable("investmentId") String investmentId);
+            @PathVariable("investmentId") String investmentId,
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch);
 
     @GetExchange("/investments/{investmentId}/balances")
-    String getInvestmentBalances(
+    ResponseEntity<String> getInvestmentBalances(
             @RequestHeader("Authorization") String authorization,
-            @PathVariable("investmentId") String investmentId);
+            @PathVariable("investmentId") String investmentId,
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch);
 
     @GetExchange("/investments/{investmentId}/transactions")
     String getInvestmentTransactions(
             @RequestHeader("Authorization") String authorization,
-            @PathVariable("investmentId") String investmentId);
+            @PathVariable("investmentId") String investmentId,
+            @RequestParam(name = "fromTransactionDate", required = false) String fromTransactionDate,
+            @RequestParam(name = "toTransactionDate", required = false) String toTransactionDate,
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "page-size", required = false) Integer pageSize);
 }
@@ -3,13 +3,23 @@ package com.portfolio.api.service.external;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.config.OFBProviderProperties;
 import com.portfolio.api.mapper.OFBInvestmentMapper;
+import com.portfolio.api.model.entity.TransactionSyncState;
 import com.portfolio.api.provider.dto.OFBInvestmentDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -24,227 +34,281 @@ public class OFBInvestmentDataService {
     private final JWSVerificationService jwsVerificationService;
     private final ObjectMapper objectMapper;
     private final OFBInvestmentMapper investmentMapper;
+    private final OFBProviderProperties properties;
+    private final OFBTransactionSync transactionSync;
+    private final OFBConditionalCache conditionalCache;
 
-    public List<InvestmentData> fetchInvestments(String accessToken) throws Exception {
+    public List<InvestmentData> fetchInvestments(String cpf, String accessToken) throws Exception {
         log.info("Fetching investment data from all OFB providers");
 
-        List<InvestmentData> allInvestments = new java.util.ArrayList<>();
+        // Known investments only download transactions newer than their watermark
+        FetchContext context = new FetchContext(cpf, accessToken, transactionSync.loadStates(cpf), LocalDate.now());
 
-        // Fetch from all 5 investment API groups
-        allInvestments.addAll(fetchBankFixedIncomes(accessToken));
-        allInvestments.addAll(fetchCreditFixedIncomes(accessToken));
-        allInvestments.addAll(fetchFunds(accessToken));
-        allInvestments.addAll(fetchTreasuryTitles(accessToken));
-        allInvestments.addAll(fetchVariableIncomes(accessToken));
+        OFBProviderProperties.FanOut fanOut = properties.getFanOut();
+        try (OFBFetchScope scope = new OFBFetchScope(
+                fanOut.getMaxConcurrency(), Duration.ofMillis(fanOut.getDeadlineMs()))) {
 
-        log.info("Successfully fetched {} total investments from OFB provider", allInvestments.size());
-        return allInvestments;
-    }
+            // Fetch all 5 investment API groups concurrently; each group forks its
+            // per-investment fetches as soon as its ID list arrives
+            List<Future<List<PendingInvestment>>> groups = investmentApiGroups().stream()
+                    .map(group -> scope.fork(() -> fetchInvestmentsByType(scope, context, group)))
+                    .toList();
 
-    private List<InvestmentData> fetchBankFixedIncomes(String accessToken) {
-        try {
-            log.info(">>> FETCHING BANK FIXED INCOMES");
-            List<InvestmentData> result = fetchInvestmentsByType(
-                    accessToken,
-                    auth -> bankFixedIncomesClient.getInvestments(auth),
-                    (auth, id) -> bankFixedIncomesClient.getInvestmentDetail(auth, id),
-                    (auth, id) -> bankFixedIncomesClient.getInvestmentBalances(auth, id),
-                    (auth, id) -> bankFixedIncomesClient.getInvestmentTransactions(auth, id),
-                    "Bank Fixed Incomes"
-            );
-            log.info(">>> BANK FIXED INCOMES RESULT: {} items", result.size());
-            return result;
-        } catch (Exception e) {
-            log.error(">>> FAILED TO FETCH BANK FIXED INCOMES", e);
-            return List.of();
-        }
-    }
+            List<PendingInvestment> pending = new ArrayList<>();
+            for (Future<List<PendingInvestment>> group : groups) {
+                scope.join(group, "investment list").ifPresent(pending::addAll);
+            }
 
-    private List<InvestmentData> fetchCreditFixedIncomes(String accessToken) {
-        try {
-            log.info(">>> FETCHING CREDIT FIXED INCOMES");
-            List<InvestmentData> result = fetchInvestmentsByType(
-                    accessToken,
-                    auth -> creditFixedIncomesClient.getInvestments(auth),
-                    (auth, id) -> creditFixedIncomesClient.getInvestmentDetail(auth, id),
-                    (auth, id) -> creditFixedIncomesClient.getInvestmentBalances(auth, id),
-                    (auth, id) -> creditFixedIncomesClient.getInvestmentTransactions(auth, id),
-                    "Credit Fixed Incomes"
-            );
-            log.info(">>> CREDIT FIXED INCOMES RESULT: {} items", result.size());
-            return result;
-        } catch (Exception e) {
-            log.error(">>> FAILED TO FETCH CREDIT FIXED INCOMES", e);
-            return List.of();
+            // Partial failure: keep whatever completed before the deadline
+            List<InvestmentData> allInvestments = new ArrayList<>();
+            List<TransactionSyncState> syncedStates = new ArrayList<>();
+            for (PendingInvestment investment : pending) {
+                InvestmentData data = assembleInvestment(scope, cpf, investment, syncedStates);
+                if (data != null) {
+                    allInvestments.add(data);
+                }
+            }
+            transactionSync.saveAll(syncedStates);
+
+            log.info("Successfully fetched {} of {} investments from OFB provider",
+                    allInvestments.size(), pending.size());
+            return allInvestments;
         }
     }
 
-    private List<InvestmentData> fetchFunds(String accessToken) {
-        try {
-            log.info(">>> FETCHING FUNDS");
-            List<InvestmentData> result = fetchInvestmentsByType(
-                    accessToken,
-                    auth -> fundsClient.getInvestments(auth),
-                    (auth, id) -> fundsClient.getInvestmentDetail(auth, id),
-                    (auth, id) -> fundsClient.getInvestmentBalances(auth, id),
-                    (auth, id) -> fundsClient.getInvestmentTransactions(auth, id),
-                    "Funds"
-            );
-            log.info(">>> FUNDS RESULT: {} items", result.size());
-            return result;
-        } catch (Exception e) {
-            log.error(">>> FAILED TO FETCH FUNDS", e);
-            return List.of();
-        }
+    private List<InvestmentApiGroup> investmentApiGroups() {
+        return List.of(
+                new InvestmentApiGroup("Bank Fixed Incomes",
+                        bankFixedIncomesClient::getInvestments,
+                        bankFixedIncomesClient::getInvestmentDetail,
+                        bankFixedIncomesClient::getInvestmentBalances,
+                        bankFixedIncomesClient::getInvestmentTransactions),
+                new InvestmentApiGroup("Credit Fixed Incomes",
+                        creditFixedIncomesClient::getInvestments,
+                        creditFixedIncomesClient::getInvestmentDetail,
+                        creditFixedIncomesClient::getInvestmentBalances,
+                        creditFixedIncomesClient::getInvestmentTransactions),
+                new InvestmentApiGroup("Funds",
+                        fundsClient::getInvestments,
+                        fundsClient::getInvestmentDetail,
+                        fundsClient::getInvestmentBalances,
+                        fundsClient::getInvestmentTransactions),
+                new InvestmentApiGroup("Treasury Titles",
+                        treasuryTitlesClient::getInvestments,
+                        treasuryTitlesClient::getInvestmentDetail,
+                        treasuryTitlesClient::getInvestmentBalances,
+                        treasuryTitlesClient::getInvestmentTransactions),
+                new InvestmentApiGroup("Variable Incomes",
+                        variableIncomesClient::getInvestments,
+                        variableIncomesClient::getInvestmentDetail,
+                        variableIncomesClient::getInvestmentBalances,
+                        variableIncomesClient::getInvestmentTransactions)
+        );
     }
 
-    private List<InvestmentData> fetchTreasuryTitles(String accessToken) {
+    private List<PendingInvestment> fetchInvestmentsByType(
+            OFBFetchScope scope,
+            FetchContext context,
+            InvestmentApiGroup group) {
+        String accessToken = context.accessToken();
         try {
-            log.info(">>> FETCHING TREASURY TITLES");
-            List<InvestmentData> result = fetchInvestmentsByType(
-                    accessToken,
-                    auth -> treasuryTitlesClient.getInvestments(auth),
-                    (auth, id) -> treasuryTitlesClient.getInvestmentDetail(auth, id),
-                    (auth, id) -> treasuryTitlesClient.getInvestmentBalances(auth, id),
-                    (auth, id) -> treasuryTitlesClient.getInvestmentTransactions(auth, id),
-                    "Treasury Titles"
-            );
-            log.info(">>> TREASURY TITLES RESULT: {} items", result.size());
-            return result;
+            log.info(">>> FETCHING {}", group.name().toUpperCase());
+
+            // Step 1: Get list of investments (contains only IDs)
+            String listJws = scope.call(() -> group.listFunction().apply("Bearer " + accessToken));
+            String listPayload = jwsVerificationService.verifyAndExtractPayload(listJws);
+            List<String> investmentIds = parseInvestmentIds(listPayload);
+
+            log.info("Found {} {} investments, fetching details...", investmentIds.size(), group.name());
+
+            // Step 2: Detail, balance and transactions only depend on the ID - issue all three at once
+            return investmentIds.stream()
+                    .map(id -> {
+                        TransactionSyncState syncState = context.syncStates().get(id);
+                        OFBTransactionSync.Window window = transactionSync.windowFor(syncState, context.today());
+                        String detailKey = conditionalCache.keyFor(context.cpf(), group.name(), "detail", id);
+                        String balanceKey = conditionalCache.keyFor(context.cpf(), group.name(), "balance", id);
+                        return new PendingInvestment(id,
+                                scope.fork(() -> fetchConditional(scope, accessToken, group.detailFunction(), id,
+                                        detailKey, payload -> readDetail(payload, id))),
+                                scope.fork(() -> fetchConditional(scope, accessToken, group.balanceFunction(), id,
+                                        balanceKey, payload -> payload)),
+                                scope.fork(() -> fetchTransactions(scope, accessToken, group.transactionsFunction(), id, window)),
+                                syncState,
+                                window);
+                    })
+                    .toList();
         } catch (Exception e) {
-            log.error(">>> FAILED TO FETCH TREASURY TITLES", e);
+            log.error(">>> FAILED TO FETCH {}", group.name().toUpperCase(), e);
             return List.of();
         }
     }
 
-    private List<InvestmentData> fetchVariableIncomes(String accessToken) {
-        try {
-            log.info(">>> FETCHING VARIABLE INCOMES");
-            List<InvestmentData> result = fetchInvestmentsByType(
-                    accessToken,
-                    auth -> variableIncomesClient.getInvestments(auth),
-                    (auth, id) -> variableIncomesClient.getInvestmentDetail(auth, id),
-                    (auth, id) -> variableIncomesClient.getInvestmentBalances(auth, id),
-                    (auth, id) -> variableIncomesClient.getInvestmentTransactions(auth, id),
-                    "Variable Incomes"
-            );
-            log.info(">>> VARIABLE INCOMES RESULT: {} items", result.size());
-            return result;
-        } catch (Exception e) {
-            log.error(">>> FAILED TO FETCH VARIABLE INCOMES", e);
+    private List<String> parseInvestmentIds(String payload) throws Exception {
+        List<String> ids = OFBPayloadParser.readInvestmentIds(objectMapper, payload);
+
+        if (ids == null) {
+            log.warn("No investment data found in response");
             return List.of();
         }
+        return ids;
     }
 
-    private List<InvestmentData> fetchInvestmentsByType(
+    /**
+     * Calls an endpoint with the stored ETag, if any. On 304 the stored result
+     * is returned as is; otherwise the payload is verified, read and stored
+     * under the new ETag.
+     */
+    private <T> T fetchConditional(
+            OFBFetchScope scope,
             String accessToken,
-            java.util.function.Function<String, String> listFunction,
-            java.util.function.BiFunction<String, String, String> detailFunction,
-            java.util.function.BiFunction<String, String, String> balanceFunction,
-            java.util.function.BiFunction<String, String, String> transactionsFunction,
-            String typeName) throws Exception {
-
-        // Step 1: Get list of investments (contains only IDs)
-        String listJws = listFunction.apply("Bearer " + accessToken);
-        String listPayload = jwsVerificationService.verifyAndExtractPayload(listJws);
-        List<String> investmentIds = parseInvestmentIds(listPayload);
-
-        log.info("Found {} {} investments, fetching details...", investmentIds.size(), typeName);
-
-        // Step 2: Fetch details for each investment
-        List<InvestmentData> investments = investmentIds.stream()
-                .map(id -> fetchInvestmentDetail(accessToken, detailFunction, balanceFunction, transactionsFunction, id))
-                .filter(java.util.Objects::nonNull)
-                .toList();
-
-        log.info("Successfully fetched {} {} investments", investments.size(), typeName);
-        return investments;
+            ConditionalEndpoint endpoint,
+            String investmentId,
+            String cacheKey,
+            PayloadReader<T> reader) throws Exception {
+        OFBConditionalCache.Validated<T> stored = conditionalCache.get(cacheKey);
+        String etag = stored != null ? stored.etag() : null;
+
+        ResponseEntity<String> response = scope.call(() -> endpoint.apply("Bearer " + accessToken, investmentId, etag));
+        boolean notModified = response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED);
+        conditionalCache.recordOutcome(etag != null, notModified);
+        if (notModified) {
+            if (stored != null) {
+                return stored.value();
+            }
+            // 304 to an unconditional request: ask again for the full representation
+            response = scope.call(() -> endpoint.apply("Bearer " + accessToken, investmentId, null));
+        }
+
+        String payload = jwsVerificationService.verifyAndExtractPayload(response.getBody());
+        T value = reader.read(payload);
+        conditionalCache.put(cacheKey, response.getHeaders().getETag(), value);
+        return value;
     }
 
-    private List<String> parseInvestmentIds(String payload) throws Exception {
-        JsonNode root = objectMapper.readTree(payload);
-        JsonNode dataNode = root.get("data");
+    private OFBInvestmentDto readDetail(String detailPayload, String investmentId) throws Exception {
+        // Parse detail response - bind "data" straight to the DTO
+        OFBInvestmentDto dto = OFBPayloadParser.readData(objectMapper, detailPayload, OFBInvestmentDto.class);
+        if (dto == null) {
+            log.warn("No data in detail response for investment: {}", investmentId);
+        }
+        return dto;
+    }
 
-        if (dataNode == null || !dataNode.isArray()) {
-            log.warn("No investment data found in response");
-            return List.of();
+    /**
+     * Walks every page of an investment's transactions and folds them into one summary.
+     *
+     * Pages are reduced one at a time, so memory stays flat however long the
+     * history is; the next page is requested before the current one is parsed.
+     * A page that fails or misses the deadline fails the whole walk, since a
+     * partial count must not become the new watermark.
+     *
+     * @return the summary, or null if the first page has no data array
+     */
+    private OFBPayloadParser.TransactionSummary fetchTransactions(
+            OFBFetchScope scope,
+            String accessToken,
+            TransactionsEndpoint endpoint,
+            String investmentId,
+            OFBTransactionSync.Window window) throws Exception {
+        OFBProviderProperties.TransactionSync config = properties.getTransactionSync();
+
+        OFBPayloadParser.TransactionPage firstPage = OFBPayloadParser.summarizeTransactionPage(objectMapper,
+                fetchTransactionPage(scope, accessToken, endpoint, investmentId, window, 1));
+        OFBPayloadParser.TransactionSummary total = firstPage.summary();
+        int totalPages = firstPage.totalPages();
+        if (total == null || totalPages == 1) {
+            return total;
+        }
+        if (totalPages > config.getMaxPages()) {
+            throw new IllegalStateException("Investment " + investmentId + " has " + totalPages
+                    + " transaction pages, above max-pages " + config.getMaxPages());
         }
 
-        List<String> ids = new java.util.ArrayList<>();
-        for (JsonNode node : dataNode) {
-            JsonNode idNode = node.get("investmentId");
-            if (idNode != null) {
-                ids.add(idNode.asText());
+        Future<String> next = scope.fork(() -> fetchTransactionPage(scope, accessToken, endpoint, investmentId, window, 2));
+        for (int page = 2; page <= totalPages; page++) {
+            String description = "transactions page " + page + " of investment " + investmentId;
+            String payload = scope.join(next, description)
+                    .orElseThrow(() -> new IllegalStateException("Missing " + description));
+
+            int nextPage = page + 1;
+            next = nextPage <= totalPages
+                    ? scope.fork(() -> fetchTransactionPage(scope, accessToken, endpoint, investmentId, window, nextPage))
+                    : null;
+
+            OFBPayloadParser.TransactionSummary summary =
+                    OFBPayloadParser.summarizeTransactionPage(objectMapper, payload).summary();
+            if (summary != null) {
+                total = total.plus(summary);
             }
         }
-        return ids;
+        return total;
     }
 
-    private InvestmentData fetchInvestmentDetail(
+    private String fetchTransactionPage(
+            OFBFetchScope scope,
             String accessToken,
-            java.util.function.BiFunction<String, String, String> detailFunction,
-            java.util.function.BiFunction<String, String, String> balanceFunction,
-            java.util.function.BiFunction<String, String, String> transactionsFunction,
-            String investmentId) {
-        try {
-            log.debug("Fetching detail for investment: {}", investmentId);
-
-            // Call detail endpoint
-            String detailJws = detailFunction.apply("Bearer " + accessToken, investmentId);
-            String detailPayload = jwsVerificationService.verifyAndExtractPayload(detailJws);
-
-            // Parse detail response
-            JsonNode root = objectMapper.readTree(detailPayload);
-            JsonNode dataNode = root.get("data");
+            TransactionsEndpoint endpoint,
+            String investmentId,
+            OFBTransactionSync.Window window,
+            int page) throws Exception {
+        String jws = scope.call(() -> endpoint.apply("Bearer " + accessToken, investmentId,
+                window.fromTransactionDate(), window.toTransactionDate(),
+                page, properties.getTransactionSync().getPageSize()));
+        return jwsVerificationService.verifyAndExtractPayload(jws);
+    }
 
-            if (dataNode == null) {
-                log.warn("No data in detail response for investment: {}", investmentId);
-                return null;
-            }
+    /**
+     * Merges the three per-investment responses into one InvestmentData.
+     * The detail response is required; a missing balance or transactions
+     * response (failed or past the deadline) falls back to defaults.
+     */
+    private InvestmentData assembleInvestment(OFBFetchScope scope, String cpf, PendingInvestment pending,
+                                              List<TransactionSyncState> syncedStates) {
+        String investmentId = pending.investmentId();
+
+        OFBInvestmentDto detail = scope.join(pending.detail(), "detail of investment " + investmentId).orElse(null);
+        if (detail == null) {
+            pending.balance().cancel(true);
+            pending.transactions().cancel(true);
+            return null;
+        }
 
-            OFBInvestmentDto dto = objectMapper.convertValue(dataNode, OFBInvestmentDto.class);
-            InvestmentData data = investmentMapper.toInvestmentData(dto);
+        InvestmentData data = investmentMapper.toInvestmentData(detail);
 
-            // IMPORTANT: DETAILS response doesn't include investmentId (only in LIST response)
-            // We must set it manually from the parameter
-            data.setInvestmentId(investmentId);
+        // IMPORTANT: DETAILS response doesn't include investmentId (only in LIST response)
+        // We must set it manually from the parameter
+        data.setInvestmentId(investmentId);
 
-            // Fetch and enrich with balance data
-            enrichWithBalanceData(data, accessToken, balanceFunction, investmentId);
+        // Enrich with balance data
+        String balancePayload = scope.join(pending.balance(), "balance of investment " + investmentId).orElse(null);
+        enrichWithBalanceData(data, balancePayload, investmentId);
 
-            // Fetch and enrich with transaction data
-            enrichWithTransactionData(data, accessToken, transactionsFunction, investmentId);
+        // Enrich with transaction data
+        OFBPayloadParser.TransactionSummary transactions =
+                scope.join(pending.transactions(), "transactions of investment " + investmentId).orElse(null);
+        TransactionSyncState synced = enrichWithTransactionData(data, cpf, pending, transactions);
+        if (synced != null) {
+            syncedStates.add(synced);
+        }
 
-            return data;
+        return data;
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to fetch detail for investment: {}", investmentId, e);
-            return null;
+    private void enrichWithBalanceData(InvestmentData data, String balancePayload, String investmentId) {
+        if (balancePayload == null) {
+            // Balance call failed or missed the deadline - set safe defaults
+            applyBalanceDefaults(data);
+            return;
         }
-    }
 
-    private void enrichWithBalanceData(
-            InvestmentData data,
-            String accessToken,
-            java.util.function.BiFunction<String, String, String> balanceFunction,
-            String investmentId) {
         try {
-            log.debug("Fetching balance for investment: {}", investmentId);
-
-            // Call balance endpoint
-            String balanceJws = balanceFunction.apply("Bearer " + accessToken, investmentId);
-            String balancePayload = jwsVerificationService.verifyAndExtractPayload(balanceJws);
-
-            // Parse balance response
-            JsonNode root = objectMapper.readTree(balancePayload);
-            JsonNode balanceNode = root.get("data");
+            // Parse balance response - only the "data" subtree is materialized
+            JsonNode balanceNode = OFBPayloadParser.readData(objectMapper, balancePayload, JsonNode.class);
 
             if (balanceNode == null) {
                 log.debug("No balance data for investment: {}", investmentId);
-                // Set defaults
-                data.setInvestedAmount(data.getInvestedAmount() != null ? data.getInvestedAmount() : 0.0);
-                data.setCurrentValue(data.getCurrentValue() != null ? data.getCurrentValue() : 0.0);
-                data.setProfitability(0.0);
+                applyBalanceDefaults(data);
                 return;
             }
 
@@ -275,72 +339,96 @@ public class OFBInvestmentDataService {
                     investmentId, data.getInvestedAmount(), currentValue, profitability);
             } else {
                 // No netAmount - use defaults
-                data.setInvestedAmount(data.getInvestedAmount() != null ? data.getInvestedAmount() : 0.0);
-                data.setCurrentValue(data.getCurrentValue() != null ? data.getCurrentValue() : 0.0);
-                data.setProfitability(0.0);
+                applyBalanceDefaults(data);
             }
 
         } catch (Exception e) {
-            log.warn("Failed to fetch balance for investment {}: {}", investmentId, e.getMessage());
-            // Set safe defaults
-            data.setInvestedAmount(data.getInvestedAmount() != null ? data.getInvestedAmount() : 0.0);
-            data.setCurrentValue(data.getCurrentValue() != null ? data.getCurrentValue() : 0.0);
-            data.setProfitability(0.0);
+            log.warn("Failed to parse balance for investment {}: {}", investmentId, e.getMessage());
+            applyBalanceDefaults(data);
         }
     }
 
-    private void enrichWithTransactionData(
-            InvestmentData data,
-            String accessToken,
-            java.util.function.BiFunction<String, String, String> transactionsFunction,
-            String investmentId) {
-        try {
-            log.debug("Fetching transactions for investment: {}", investmentId);
+    private void applyBalanceDefaults(InvestmentData data) {
+        data.setInvestedAmount(data.getInvestedAmount() != null ? data.getInvestedAmount() : 0.0);
+        data.setCurrentValue(data.getCurrentValue() != null ? data.getCurrentValue() : 0.0);
+        data.setProfitability(0.0);
+    }
 
-            // Call transactions endpoint
-            String transactionsJws = transactionsFunction.apply("Bearer " + accessToken, investmentId);
-            String transactionsPayload = jwsVerificationService.verifyAndExtractPayload(transactionsJws);
+    /**
+     * Sets count and date range from the downloaded transactions, merged with
+     * the stored watermark when only a date window was requested.
+     *
+     * @return the state to persist, or null if nothing new was learned
+     */
+    private TransactionSyncState enrichWithTransactionData(
+            InvestmentData data, String cpf, PendingInvestment pending, OFBPayloadParser.TransactionSummary summary) {
+        String investmentId = pending.investmentId();
+        TransactionSyncState previous = pending.syncState();
+
+        if (summary == null) {
+            // No data, or the walk failed or missed the deadline - the last synced figures beat zero
+            log.debug("No transactions available for investment: {}", investmentId);
+            applyTransactionState(data, previous);
+            return null;
+        }
 
-            // Parse transactions response
-            JsonNode root = objectMapper.readTree(transactionsPayload);
-            JsonNode transactionsNode = root.get("data");
+        TransactionSyncState synced = transactionSync.merge(cpf, investmentId, previous, pending.window(), summary);
+        applyTransactionState(data, synced);
 
-            if (transactionsNode == null || !transactionsNode.isArray()) {
-                log.debug("No transactions found for investment: {}", investmentId);
-                data.setTransactionCount(0);
-                return;
-            }
+        log.debug("Enriched investment {} with {} transactions (first: {}, last: {}, {} downloaded)",
+                investmentId, synced.getTransactionCount(), synced.getFirstTransactionDate(),
+                synced.getLastTransactionDate(), summary.count());
+        return synced;
+    }
 
-            // Count transactions
-            data.setTransactionCount(transactionsNode.size());
+    private void applyTransactionState(InvestmentData data, TransactionSyncState state) {
+        if (state == null) {
+            data.setTransactionCount(0);
+            return;
+        }
+        data.setTransactionCount(state.getTransactionCount());
+        data.setFirstTransactionDate(state.getFirstTransactionDate());
+        data.setLastTransactionDate(state.getLastTransactionDate());
+    }
 
-            // Find first and last transaction dates
-            java.time.LocalDate firstDate = null;
-            java.time.LocalDate lastDate = null;
+    @FunctionalInterface
+    private interface ConditionalEndpoint {
+        ResponseEntity<String> apply(String authorization, String investmentId, String ifNoneMatch);
+    }
 
-            for (JsonNode txn : transactionsNode) {
-                JsonNode dateNode = txn.get("transactionDate");
-                if (dateNode != null) {
-                    java.time.LocalDate date = java.time.LocalDate.parse(dateNode.asText());
-                    if (firstDate == null || date.isBefore(firstDate)) {
-                        firstDate = date;
-                    }
-                    if (lastDate == null || date.isAfter(lastDate)) {
-                        lastDate = date;
-                    }
-                }
-            }
+    @FunctionalInterface
+    private interface PayloadReader<T> {
+        T read(String payload) throws Exception;
+    }
 
-            data.setFirstTransactionDate(firstDate);
-            data.setLastTransactionDate(lastDate);
+    @FunctionalInterface
+    private interface TransactionsEndpoint {
+        String apply(String authorization, String investmentId, String fromTransactionDate, String toTransactionDate,
+                     Integer page, Integer pageSize);
+    }
 
-            log.debug("Enriched investment {} with {} transactions (first: {}, last: {})",
-                    investmentId, data.getTransactionCount(), firstDate, lastDate);
+    private record FetchContext(
+            String cpf,
+            String accessToken,
+            Map<String, TransactionSyncState> syncStates,
+            LocalDate today) {
+    }
 
-        } catch (Exception e) {
-            log.warn("Failed to fetch transactions for investment {}: {}", investmentId, e.getMessage());
-            data.setTransactionCount(0);
-        }
+    private record InvestmentApiGroup(
+            String name,
+            Function<String, String> listFunction,
+            ConditionalEndpoint detailFunction,
+            ConditionalEndpoint balanceFunction,
+            TransactionsEndpoint transactionsFunction) {
+    }
+
+    private record PendingInvestment(
+            String investmentId,
+            Future<OFBInvestmentDto> detail,
+            Future<String> balance,
+            Future<OFBPayloadParser.TransactionSummary> transactions,
+            TransactionSyncState syncState,
+            OFBTransactionSync.Window window) {
     }
 
     @lombok.Data
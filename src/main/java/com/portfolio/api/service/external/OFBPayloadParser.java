@@ -0,0 +1,195 @@
+package com.portfolio.api.service.external;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming extraction of the fields we need from verified OFB payloads.
+ *
+ * Walks the token stream once instead of materializing a JsonNode tree and
+ * converting it again: {@code data} objects are bound straight to their DTO,
+ * and transaction lists are reduced to count and date range without ever
+ * building the array.
+ */
+final class OFBPayloadParser {
+
+    private static final String DATA_FIELD = "data";
+    private static final String META_FIELD = "meta";
+
+    private OFBPayloadParser() {
+    }
+
+    /**
+     * Binds the top-level {@code data} object directly to the given type.
+     *
+     * @return the bound value, or null if there is no {@code data} object
+     */
+    static <T> T readData(ObjectMapper objectMapper, String payload, Class<T> type) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            if (!seekData(parser) || parser.currentToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            return objectMapper.readValue(parser, type);
+        }
+    }
+
+    /**
+     * Collects {@code investmentId} from every element of the top-level {@code data} array.
+     */
+    static List<String> readInvestmentIds(ObjectMapper objectMapper, String payload) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            if (!seekData(parser) || parser.currentToken() != JsonToken.START_ARRAY) {
+                return null;
+            }
+
+            List<String> ids = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = readStringField(parser, "investmentId");
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Summarizes one page of a paginated transactions response and reads
+     * {@code meta.totalPages}, in whichever order the two fields appear.
+     *
+     * @return the page; its summary is null if there is no {@code data} array,
+     *         and totalPages is 1 when meta does not say otherwise
+     */
+    static TransactionPage summarizeTransactionPage(ObjectMapper objectMapper, String payload) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new TransactionPage(null, 1);
+            }
+
+            TransactionSummary summary = null;
+            int totalPages = 1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (DATA_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    summary = summarizeArray(parser);
+                } else if (META_FIELD.equals(field) && value == JsonToken.START_OBJECT) {
+                    String pages = readStringField(parser, "totalPages");
+                    if (pages != null) {
+                        totalPages = Math.max(1, Integer.parseInt(pages));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new TransactionPage(summary, totalPages);
+        }
+    }
+
+    /**
+     * Reduces the array the parser is positioned on, consuming it up to its END_ARRAY.
+     */
+    private static TransactionSummary summarizeArray(JsonParser parser) throws IOException {
+        // ISO-8601 dates (yyyy-MM-dd) order lexicographically, so only the
+        // extremes need to be parsed into LocalDate
+        int count = 0;
+        int lastDateCount = 0;
+        String firstDate = null;
+        String lastDate = null;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            count++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            String date = readStringField(parser, "transactionDate");
+            if (date != null) {
+                if (firstDate == null || date.compareTo(firstDate) < 0) {
+                    firstDate = date;
+                }
+                int order = lastDate == null ? 1 : date.compareTo(lastDate);
+                if (order > 0) {
+                    lastDate = date;
+                    lastDateCount = 1;
+                } else if (order == 0) {
+                    lastDateCount++;
+                }
+            }
+        }
+        return new TransactionSummary(
+                count,
+                firstDate != null ? LocalDate.parse(firstDate) : null,
+                lastDate != null ? LocalDate.parse(lastDate) : null,
+                lastDateCount);
+    }
+
+    /**
+     * Advances to the value of the top-level {@code data} field, skipping every other field.
+     */
+    private static boolean seekData(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (DATA_FIELD.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * Reads one scalar field of the current object and consumes the object up to its END_OBJECT.
+     */
+    private static String readStringField(JsonParser parser, String name) throws IOException {
+        String value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            if (name.equals(field) && valueToken.isScalarValue() && valueToken != JsonToken.VALUE_NULL) {
+                value = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    record TransactionSummary(int count, LocalDate firstDate, LocalDate lastDate, int lastDateCount) {
+
+        /**
+         * Folds two disjoint sets of transactions (e.g. consecutive pages) into one summary.
+         */
+        TransactionSummary plus(TransactionSummary other) {
+            LocalDate first = firstDate == null || (other.firstDate != null && other.firstDate.isBefore(firstDate))
+                    ? other.firstDate : firstDate;
+
+            LocalDate last = lastDate;
+            int onLast = lastDateCount;
+            if (other.lastDate != null) {
+                if (lastDate == null || other.lastDate.isAfter(lastDate)) {
+                    last = other.lastDate;
+                    onLast = other.lastDateCount;
+                } else if (other.lastDate.isEqual(lastDate)) {
+                    onLast += other.lastDateCount;
+                }
+            }
+            return new TransactionSummary(count + other.count, first, last, onLast);
+        }
+    }
+
+    record TransactionPage(TransactionSummary summary, int totalPages) {
+    }
+}
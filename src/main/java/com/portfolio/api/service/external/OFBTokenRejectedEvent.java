@@ -0,0 +1,10 @@
+package com.portfolio.api.service.external;
+
+/**
+ * Published when an OFB endpoint answers 401 to a bearer token, so cached
+ * copies of that token can be dropped.
+ *
+ * @param accessToken the rejected token, without the "Bearer " prefix
+ */
+public record OFBTokenRejectedEvent(String accessToken) {
+}
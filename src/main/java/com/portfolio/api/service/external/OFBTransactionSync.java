@@ -0,0 +1,158 @@
+package com.portfolio.api.service.external;
+
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.model.entity.TransactionSyncState;
+import com.portfolio.api.repository.TransactionSyncStateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental download of investment transactions.
+ *
+ * Only the count and first/last dates are needed, and old transactions never
+ * change, so each investment keeps a watermark in transaction_sync_state and
+ * OFB is asked only for transactions dated on or after it. The watermark date
+ * itself is requested again because more transactions may have been posted on
+ * that day; its previous count is subtracted before adding the new page.
+ * A full download runs on first sight and every full-resync-days.
+ */
+@Slf4j
+@Component
+public class OFBTransactionSync {
+
+    private final TransactionSyncStateRepository repository;
+    private final OFBProviderProperties.TransactionSync config;
+
+    private final Counter fullSyncs;
+    private final Counter incrementalSyncs;
+
+    public OFBTransactionSync(TransactionSyncStateRepository repository,
+                              OFBProviderProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.config = properties.getTransactionSync();
+
+        this.fullSyncs = syncCounter(meterRegistry, "full");
+        this.incrementalSyncs = syncCounter(meterRegistry, "incremental");
+    }
+
+    /**
+     * Stored watermarks of the customer's investments, keyed by investment ID.
+     * Empty when disabled or when the table cannot be read (everything is then fully fetched).
+     */
+    public Map<String, TransactionSyncState> loadStates(String cpf) {
+        if (!config.isEnabled() || cpf == null) {
+            return Map.of();
+        }
+        try {
+            return repository.findByCpf(cpf).stream()
+                    .collect(Collectors.toMap(TransactionSyncState::getInvestmentId, Function.identity()));
+        } catch (Exception e) {
+            log.warn("Failed to load transaction sync state, falling back to full download: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * The date window to request for an investment; {@link Window#FULL} means the whole history.
+     */
+    public Window windowFor(TransactionSyncState state, LocalDate today) {
+        if (!isIncremental(state)) {
+            return Window.FULL;
+        }
+        return new Window(state.getLastTransactionDate().toString(), today.toString());
+    }
+
+    /**
+     * Combines the previous state with what was fetched through {@link #windowFor}.
+     */
+    TransactionSyncState merge(String cpf, String investmentId, TransactionSyncState previous,
+                               Window window, OFBPayloadParser.TransactionSummary fetched) {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (previous == null || window.isFull()) {
+            fullSyncs.increment();
+            return TransactionSyncState.builder()
+                    .cpf(cpf)
+                    .investmentId(investmentId)
+                    .transactionCount(fetched.count())
+                    .firstTransactionDate(fetched.firstDate())
+                    .lastTransactionDate(fetched.lastDate())
+                    .lastDateCount(fetched.lastDateCount())
+                    .fullSyncedAt(now)
+                    .syncedAt(now)
+                    .build();
+        }
+
+        incrementalSyncs.increment();
+        TransactionSyncState merged = TransactionSyncState.builder()
+                .cpf(cpf)
+                .investmentId(investmentId)
+                .transactionCount(previous.getTransactionCount())
+                .firstTransactionDate(previous.getFirstTransactionDate())
+                .lastTransactionDate(previous.getLastTransactionDate())
+                .lastDateCount(previous.getLastDateCount())
+                .fullSyncedAt(previous.getFullSyncedAt())
+                .syncedAt(now)
+                .build();
+
+        // An empty window would mean the watermark day's transactions vanished;
+        // keep the stored figures and let the next full resync settle it
+        if (fetched.count() > 0) {
+            merged.setTransactionCount(previous.getTransactionCount() - previous.getLastDateCount() + fetched.count());
+            merged.setLastTransactionDate(fetched.lastDate());
+            merged.setLastDateCount(fetched.lastDateCount());
+        }
+        return merged;
+    }
+
+    /**
+     * Persists the new watermarks; failures are logged so the fetch itself still succeeds.
+     */
+    public void saveAll(Collection<TransactionSyncState> states) {
+        if (!config.isEnabled() || states.isEmpty()) {
+            return;
+        }
+        try {
+            repository.saveAll(states);
+        } catch (Exception e) {
+            log.warn("Failed to save transaction sync state for {} investments: {}", states.size(), e.getMessage());
+        }
+    }
+
+    private boolean isIncremental(TransactionSyncState state) {
+        return config.isEnabled()
+                && state != null
+                && state.getLastTransactionDate() != null
+                && state.getFullSyncedAt() != null
+                && state.getFullSyncedAt().isAfter(LocalDateTime.now().minusDays(config.getFullResyncDays()));
+    }
+
+    private static Counter syncCounter(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("ofb.transactions.sync")
+                .description("Per-investment transaction downloads by mode")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Transaction date range passed to OFB; null bounds are omitted from the request.
+     */
+    public record Window(String fromTransactionDate, String toTransactionDate) {
+
+        public static final Window FULL = new Window(null, null);
+
+        public boolean isFull() {
+            return fromTransactionDate == null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- Persistent JWT signing keys shared by all API nodes
+-- Private keys are stored AES-GCM encrypted; a key signs from activates_at until its successor activates
+CREATE TABLE oauth2_signing_key (
+    kid VARCHAR(100) NOT NULL,
+    public_key NVARCHAR(MAX) NOT NULL,
+    private_key NVARCHAR(MAX) NOT NULL,
+    created_at DATETIME2 NOT NULL DEFAULT GETDATE(),
+    activates_at DATETIME2 NOT NULL,
+    CONSTRAINT pk_oauth2_signing_key PRIMARY KEY (kid)
+);
+
+CREATE INDEX idx_oauth2_signing_key_activates_at ON oauth2_signing_key(activates_at);
@@ -0,0 +1,13 @@
+-- Token values are NVARCHAR(MAX) and cannot be indexed; lookups go through SHA-256 hex hashes instead
+ALTER TABLE oauth2_authorization ADD state_hash CHAR(64) NULL;
+ALTER TABLE oauth2_authorization ADD authorization_code_hash CHAR(64) NULL;
+ALTER TABLE oauth2_authorization ADD access_token_hash CHAR(64) NULL;
+ALTER TABLE oauth2_authorization ADD refresh_token_hash CHAR(64) NULL;
+
+CREATE INDEX idx_oauth2_authorization_state_hash ON oauth2_authorization(state_hash);
+CREATE INDEX idx_oauth2_authorization_code_hash ON oauth2_authorization(authorization_code_hash);
+CREATE INDEX idx_oauth2_authorization_access_token_hash ON oauth2_authorization(access_token_hash);
+CREATE INDEX idx_oauth2_authorization_refresh_token_hash ON oauth2_authorization(refresh_token_hash);
+
+-- Expired-row cleanup scans by expiry
+CREATE INDEX idx_oauth2_authorization_refresh_expires ON oauth2_authorization(refresh_token_expires_at);
@@ -0,0 +1,2 @@
+-- SHA-256 of investment_data; unchanged refetches only bump the timestamps instead of rewriting the payload
+ALTER TABLE investment_data_cache ADD content_hash CHAR(64) NULL;
@@ -0,0 +1,13 @@
+-- Per-investment transaction watermark; OFB is asked only for transactions on or after last_transaction_date
+CREATE TABLE transaction_sync_state (
+    cpf VARCHAR(11) NOT NULL,
+    investment_id VARCHAR(100) NOT NULL,
+    transaction_count INT NOT NULL,
+    first_transaction_date DATE NULL,
+    last_transaction_date DATE NULL,
+    -- Transactions dated last_transaction_date; they are re-fetched on the next sync and must not be counted twice
+    last_date_count INT NOT NULL,
+    full_synced_at DATETIME2 NOT NULL,
+    synced_at DATETIME2 NOT NULL,
+    CONSTRAINT pk_transaction_sync_state PRIMARY KEY (cpf, investment_id)
+);
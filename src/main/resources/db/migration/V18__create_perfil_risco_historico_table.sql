@@ -0,0 +1,23 @@
+-- Every risk profile calculation, kept as the suitability audit trail. A stored result is reused
+-- for the same client, portfolio content and scoring version only on the day it was calculated,
+-- since the horizon and frequency scores count from the evaluation date
+CREATE TABLE perfil_risco_historico (
+    id BIGINT PRIMARY KEY IDENTITY(1,1),
+    cliente_id BIGINT NOT NULL,
+    -- investment_data_cache.content_hash of the history that was scored
+    content_hash CHAR(64) NOT NULL,
+    scoring_version VARCHAR(50) NOT NULL,
+    perfil VARCHAR(20) NOT NULL,
+    pontuacao INT NOT NULL,
+    amount_score INT NOT NULL,
+    frequency_score INT NOT NULL,
+    product_risk_score INT NOT NULL,
+    liquidity_score INT NOT NULL,
+    horizon_score INT NOT NULL,
+    calculated_on DATE NOT NULL,
+    calculated_at DATETIME2 NOT NULL
+);
+
+CREATE INDEX idx_perfil_risco_historico_input
+    ON perfil_risco_historico(cliente_id, content_hash, scoring_version, calculated_on);
+CREATE INDEX idx_perfil_risco_historico_cliente ON perfil_risco_historico(cliente_id, calculated_at);
@@ -0,0 +1,34 @@
+-- Latest expiry of any token on the row, written by the store on every save.
+-- Cleanup deletes on this single indexed column; NULL means no token yet
+-- (an authorization or consent request in progress).
+ALTER TABLE oauth2_authorization ADD expires_at DATETIME2 NULL;
+GO
+
+-- Last save, also written by the store; requests that never got a token are deleted once it is old enough
+ALTER TABLE oauth2_authorization ADD saved_at DATETIME2 NOT NULL DEFAULT CURRENT_TIMESTAMP;
+GO
+
+UPDATE oauth2_authorization
+SET expires_at = CASE
+    WHEN authorization_code_expires_at IS NOT NULL
+         AND (access_token_expires_at IS NULL OR authorization_code_expires_at >= access_token_expires_at)
+         AND (refresh_token_expires_at IS NULL OR authorization_code_expires_at >= refresh_token_expires_at)
+         AND (oidc_id_token_expires_at IS NULL OR authorization_code_expires_at >= oidc_id_token_expires_at)
+        THEN authorization_code_expires_at
+    WHEN access_token_expires_at IS NOT NULL
+         AND (refresh_token_expires_at IS NULL OR access_token_expires_at >= refresh_token_expires_at)
+         AND (oidc_id_token_expires_at IS NULL OR access_token_expires_at >= oidc_id_token_expires_at)
+        THEN access_token_expires_at
+    WHEN refresh_token_expires_at IS NOT NULL
+         AND (oidc_id_token_expires_at IS NULL OR refresh_token_expires_at >= oidc_id_token_expires_at)
+        THEN refresh_token_expires_at
+    ELSE oidc_id_token_expires_at
+END;
+GO
+
+CREATE INDEX idx_oauth2_authorization_expires_at ON oauth2_authorization(expires_at, saved_at);
+GO
+
+-- Superseded by idx_oauth2_authorization_expires_at
+DROP INDEX idx_oauth2_authorization_refresh_expires ON oauth2_authorization;
+GO
@@ -0,0 +1,2 @@
+-- Scores of the scoring model's custom factors as a JSON object of factor name -> score; NULL when it has none
+ALTER TABLE perfil_risco_historico ADD custom_scores NVARCHAR(MAX) NULL;
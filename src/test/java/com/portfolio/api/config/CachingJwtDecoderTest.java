@@ -0,0 +1,77 @@
+package com.portfolio.api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachingJwtDecoderTest {
+
+    private JwtDecoder signatureDecoder;
+    private OAuth2TokenValidator<Jwt> validator;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        signatureDecoder = mock(JwtDecoder.class);
+        validator = mock(OAuth2TokenValidator.class);
+        when(validator.validate(any())).thenReturn(OAuth2TokenValidatorResult.success());
+        decoder = new CachingJwtDecoder(signatureDecoder, validator, 100);
+    }
+
+    @Test
+    void shouldVerifySignatureOncePerToken() {
+        when(signatureDecoder.decode("token-1")).thenReturn(jwt("token-1", Instant.now().plusSeconds(3600)));
+
+        decoder.decode("token-1");
+        Jwt jwt = decoder.decode("token-1");
+
+        assertEquals("token-1", jwt.getTokenValue());
+        verify(signatureDecoder, times(1)).decode("token-1");
+        verify(validator, times(2)).validate(any());
+    }
+
+    @Test
+    void shouldRunValidatorsOnCachedTokens() {
+        when(signatureDecoder.decode("token-1")).thenReturn(jwt("token-1", Instant.now().plusSeconds(3600)));
+        decoder.decode("token-1");
+
+        // e.g. the token was revoked after its first use
+        when(validator.validate(any())).thenReturn(
+                OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Token has been revoked", null)));
+
+        assertThrows(JwtValidationException.class, () -> decoder.decode("token-1"));
+    }
+
+    @Test
+    void shouldNotCacheTokensThatFailValidation() {
+        when(signatureDecoder.decode("token-1")).thenReturn(jwt("token-1", Instant.now().plusSeconds(3600)));
+        when(validator.validate(any())).thenReturn(
+                OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Token has been revoked", null)));
+
+        assertThrows(JwtValidationException.class, () -> decoder.decode("token-1"));
+        assertThrows(JwtValidationException.class, () -> decoder.decode("token-1"));
+
+        verify(signatureDecoder, times(2)).decode("token-1");
+    }
+
+    private static Jwt jwt(String tokenValue, Instant expiresAt) {
+        return Jwt.withTokenValue(tokenValue)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(Instant.now())
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.portfolio.api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HashedJdbcOAuth2AuthorizationServiceTest {
+
+    private static final RegisteredClient CLIENT = RegisteredClient.withId("client-1")
+            .clientId("portfolio-web-app")
+            .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
+            .redirectUri("http://localhost:3000/callback")
+            .scope("read")
+            .build();
+
+    private JdbcTemplate jdbcTemplate;
+    private HashedJdbcOAuth2AuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:oauth2-" + UUID.randomUUID() + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V05__create_oauth2_tables.sql"),
+                new ClassPathResource("db/migration/V15__add_oauth2_authorization_token_hashes.sql"))
+                .execute(dataSource);
+        ResourceDatabasePopulator v19 = new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V19__add_oauth2_authorization_expires_at.sql"));
+        v19.setSeparator("GO");
+        v19.execute(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        service = new HashedJdbcOAuth2AuthorizationService(
+                jdbcTemplate,
+                new InMemoryRegisteredClientRepository(CLIENT),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    @Test
+    void shouldRoundTripAuthorizationThroughTextColumns() {
+        service.save(authorization("auth-1", "access-1", "refresh-1"));
+
+        OAuth2Authorization found = service.findById("auth-1");
+
+        assertThat(found.getAccessToken().getToken().getTokenValue()).isEqualTo("access-1");
+        assertThat(found.getRefreshToken().getToken().getTokenValue()).isEqualTo("refresh-1");
+        assertThat(found.getPrincipalName()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void shouldFindByTokenThroughHashColumns() {
+        service.save(authorization("auth-1", "access-1", "refresh-1"));
+
+        String storedHash = jdbcTemplate.queryForObject(
+                "SELECT access_token_hash FROM oauth2_authorization WHERE id = 'auth-1'", String.class);
+        assertThat(storedHash).isEqualTo(TokenHashes.sha256Hex("access-1"));
+
+        assertThat(service.findByToken("access-1", OAuth2TokenType.ACCESS_TOKEN).getId()).isEqualTo("auth-1");
+        assertThat(service.findByToken("refresh-1", OAuth2TokenType.REFRESH_TOKEN).getId()).isEqualTo("auth-1");
+        assertThat(service.findByToken("refresh-1", null).getId()).isEqualTo("auth-1");
+        assertThat(service.findByToken("refresh-1", OAuth2TokenType.ACCESS_TOKEN)).isNull();
+        assertThat(service.findByToken("unknown", OAuth2TokenType.ACCESS_TOKEN)).isNull();
+    }
+
+    @Test
+    void shouldStoreLatestTokenExpiryForCleanup() {
+        OAuth2Authorization authorization = authorization("auth-1", "access-1", "refresh-1");
+        service.save(authorization);
+
+        Timestamp expiresAt = jdbcTemplate.queryForObject(
+                "SELECT expires_at FROM oauth2_authorization WHERE id = 'auth-1'", Timestamp.class);
+        assertThat(expiresAt.toInstant()).isEqualTo(authorization.getRefreshToken().getToken().getExpiresAt());
+        Timestamp savedAt = jdbcTemplate.queryForObject(
+                "SELECT saved_at FROM oauth2_authorization WHERE id = 'auth-1'", Timestamp.class);
+        assertThat(savedAt.toInstant()).isCloseTo(Instant.now(), within(1, ChronoUnit.MINUTES));
+    }
+
+    @Test
+    void shouldUpdateHashesWhenTokensAreRefreshed() {
+        service.save(authorization("auth-1", "access-1", "refresh-1"));
+        service.save(authorization("auth-1", "access-2", "refresh-1"));
+
+        assertThat(service.findByToken("access-1", OAuth2TokenType.ACCESS_TOKEN)).isNull();
+        assertThat(service.findByToken("access-2", OAuth2TokenType.ACCESS_TOKEN)).isNotNull();
+    }
+
+    @Test
+    void shouldServeRepeatedAccessTokenLookupsFromCache() {
+        OAuth2AuthorizationService store = spy(service);
+        CachingOAuth2AuthorizationService cached = new CachingOAuth2AuthorizationService(store, Duration.ofMinutes(1), 100);
+        cached.save(authorization("auth-1", "access-1", "refresh-1"));
+
+        cached.findByToken("access-1", OAuth2TokenType.ACCESS_TOKEN);
+        cached.findByToken("access-1", OAuth2TokenType.ACCESS_TOKEN);
+        verify(store, times(1)).findByToken(any(), any());
+
+        // Refresh replaces the access token: the old one must not be served from cache
+        cached.save(authorization("auth-1", "access-2", "refresh-1"));
+        assertThat(cached.findByToken("access-1", OAuth2TokenType.ACCESS_TOKEN)).isNull();
+    }
+
+    static OAuth2Authorization authorization(String id, String accessToken, String refreshToken) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        return OAuth2Authorization.withRegisteredClient(CLIENT)
+                .id(id)
+                .principalName("user@example.com")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .accessToken(new OAuth2AccessToken(
+                        OAuth2AccessToken.TokenType.BEARER, accessToken, now, now.plusSeconds(3600)))
+                .refreshToken(new OAuth2RefreshToken(refreshToken, now, now.plusSeconds(86400)))
+                .build();
+    }
+}
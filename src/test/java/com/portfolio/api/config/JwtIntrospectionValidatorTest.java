@@ -0,0 +1,90 @@
+package com.portfolio.api.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JwtIntrospectionValidatorTest {
+
+    private static final RegisteredClient CLIENT = RegisteredClient.withId("client-1")
+            .clientId("portfolio-web-app")
+            .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("http://localhost:3000/callback")
+            .build();
+
+    private OAuth2AuthorizationService store;
+    private OAuth2AuthorizationService authorizationService;
+    private JwtIntrospectionValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        TokenStatusCache cache = new TokenStatusCache(new AuthServerProperties());
+        store = spy(new InMemoryOAuth2AuthorizationService());
+        authorizationService = new RevocationAwareAuthorizationService(store, cache);
+        validator = new JwtIntrospectionValidator(authorizationService, cache);
+    }
+
+    @Test
+    void shouldAcceptActiveTokenAndCacheStatus() {
+        authorizationService.save(authorization("token-1"));
+
+        assertFalse(validator.validate(jwt("token-1")).hasErrors());
+        assertFalse(validator.validate(jwt("token-1")).hasErrors());
+
+        verify(store, times(1)).findByToken(any(), any());
+    }
+
+    @Test
+    void shouldRejectUnknownToken() {
+        assertTrue(validator.validate(jwt("unknown")).hasErrors());
+    }
+
+    @Test
+    void shouldRejectTokenImmediatelyAfterRevocation() {
+        OAuth2Authorization authorization = authorization("token-1");
+        authorizationService.save(authorization);
+        assertFalse(validator.validate(jwt("token-1")).hasErrors());
+
+        // What the revocation endpoint does: save the authorization with the token invalidated
+        OAuth2AccessToken accessToken = authorization.getAccessToken().getToken();
+        authorizationService.save(OAuth2Authorization.from(authorization)
+                .token(accessToken, metadata -> metadata.put(OAuth2Authorization.Token.INVALIDATED_METADATA_NAME, true))
+                .build());
+
+        assertTrue(validator.validate(jwt("token-1")).hasErrors());
+    }
+
+    private static OAuth2Authorization authorization(String tokenValue) {
+        Instant now = Instant.now();
+        return OAuth2Authorization.withRegisteredClient(CLIENT)
+                .id("auth-" + tokenValue)
+                .principalName("user")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .accessToken(new OAuth2AccessToken(
+                        OAuth2AccessToken.TokenType.BEARER, tokenValue, now, now.plusSeconds(3600)))
+                .build();
+    }
+
+    private static Jwt jwt(String tokenValue) {
+        return Jwt.withTokenValue(tokenValue)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.portfolio.api.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedPoolingConnectionManagerTest {
+
+    private HttpServer server;
+    private MeterRegistry meterRegistry;
+    private TimedPoolingConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        connectionManager = new TimedPoolingConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                TimeValue.ofMinutes(5), "ofb", meterRegistry);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "ofb").bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldRecordAcquireTimeAndReuseConnection() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/";
+        try (CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .build()) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("ok", client.execute(new HttpGet(url), response -> EntityUtils.toString(response.getEntity())));
+            }
+        }
+
+        assertEquals(3, meterRegistry.get("ofb.http.connection.acquire").timer().count());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+        // Keep-alive: the three calls shared one pooled connection
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value());
+    }
+}
@@ -1,6 +1,9 @@
 package com.portfolio.api.controller;
 import com.portfolio.api.model.enums.PerfilRisco;
+import com.portfolio.api.model.dto.response.RiskProfileBatchItem;
 import com.portfolio.api.model.dto.response.RiskProfileResponse;
+import com.portfolio.api.service.AuthorizationValidator;
+import com.portfolio.api.service.RiskProfileBatchService;
 import com.portfolio.api.service.RiskProfileService;
 import com.portfolio.api.service.TelemetryService;
 import org.junit.jupiter.api.Test;
@@ -11,16 +14,25 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,6 +53,12 @@ class RiskProfileControllerTest {
     @MockBean
     private RiskProfileService riskProfileService;
 
+    @MockBean
+    private RiskProfileBatchService riskProfileBatchService;
+
+    @MockBean
+    private AuthorizationValidator authorizationValidator;
+
 
     @Test
     void shouldReturnRiskProfileForClient() throws Exception {
@@ -111,4 +129,45 @@ class RiskProfileControllerTest {
 
         verify(riskProfileService).calculateRiskProfile(789L);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamBatchResultsAsNdjson() throws Exception {
+        RiskProfileResponse profile = RiskProfileResponse.builder()
+            .clienteId(1L)
+            .perfil(PerfilRisco.MODERADO)
+            .pontuacao(55)
+            .descricao("Perfil equilibrado entre segurança e rentabilidade.")
+            .build();
+        doAnswer(inv -> {
+            Consumer<RiskProfileBatchItem> sink = inv.getArgument(2);
+            sink.accept(RiskProfileBatchItem.ok(profile));
+            sink.accept(RiskProfileBatchItem.error(2L, 404, "Cliente não encontrado"));
+            return null;
+        }).when(riskProfileBatchService).run(eq(List.of(1L, 2L)), any(), any(Consumer.class));
+
+        MvcResult started = mockMvc.perform(post("/perfil-risco/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteIds\": [1, 2]}"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(
+                "{\"clienteId\":1,\"status\":200,\"perfilRisco\":{\"clienteId\":1,\"perfil\":\"Moderado\","
+                    + "\"pontuacao\":55,\"descricao\":\"Perfil equilibrado entre segurança e rentabilidade.\"}}\n"
+                    + "{\"clienteId\":2,\"status\":404,\"erro\":\"Cliente não encontrado\"}\n"));
+
+        verify(riskProfileBatchService).checkStreamSize(List.of(1L, 2L));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/perfil-risco/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clienteIds\": []}"))
+            .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,86 @@
+package com.portfolio.api.provider.dto;
+
+import com.portfolio.api.model.enums.TipoProduto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioSnapshotTest {
+
+    private static final String CPF = "12345678900";
+
+    @Test
+    void shouldBuildEachViewOnceAndOnlyWhenRequested() {
+        AtomicInteger historyMappings = new AtomicInteger();
+        AtomicInteger positionMappings = new AtomicInteger();
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(CPF, LocalDateTime.now(),
+                () -> {
+                    historyMappings.incrementAndGet();
+                    return List.of(investment(new BigDecimal("1000.00"), new BigDecimal("0.10")));
+                },
+                () -> {
+                    positionMappings.incrementAndGet();
+                    return List.of(position(new BigDecimal("1000.00"), new BigDecimal("1100.00")));
+                });
+
+        snapshot.getInvestmentHistory();
+        snapshot.getInvestmentHistory();
+
+        assertEquals(1, historyMappings.get());
+        assertEquals(0, positionMappings.get());
+    }
+
+    @Test
+    void shouldSummarizePortfolioFromPositions() {
+        LocalDateTime fetchedAt = LocalDateTime.of(2025, 1, 10, 12, 0);
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(CPF, fetchedAt, List::of,
+                () -> List.of(
+                        position(new BigDecimal("1000.00"), new BigDecimal("1100.00")),
+                        position(new BigDecimal("500.00"), new BigDecimal("450.00"))));
+
+        CustomerPortfolio portfolio = snapshot.getPortfolio();
+
+        assertEquals(new BigDecimal("1500.00"), portfolio.getTotalInvestido());
+        assertEquals(new BigDecimal("1550.00"), portfolio.getValorAtual());
+        assertEquals(new BigDecimal("50.00"), portfolio.getRentabilidadeTotal());
+        assertEquals(fetchedAt, portfolio.getDataUltimaAtualizacao());
+    }
+
+    @Test
+    void shouldDerivePositionsFromStoredHistory() {
+        PortfolioSnapshot snapshot = PortfolioSnapshot.fromHistory(CPF, LocalDateTime.now(),
+                List.of(investment(new BigDecimal("2000.00"), new BigDecimal("0.05"))));
+
+        Position position = snapshot.getCurrentPositions().get(0);
+
+        assertEquals(new BigDecimal("2000.00"), position.getValorAplicado());
+        assertEquals(new BigDecimal("2100.00"), position.getValorAtual());
+        assertEquals("CDB", position.getTipoProduto());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getCurrentPositions().clear());
+    }
+
+    private static Investment investment(BigDecimal valor, BigDecimal rentabilidade) {
+        return Investment.builder()
+                .id(1L)
+                .tipo(TipoProduto.CDB)
+                .valor(valor)
+                .rentabilidade(rentabilidade)
+                .data(LocalDate.of(2024, 6, 1))
+                .nomeProduto("CDB Teste")
+                .build();
+    }
+
+    private static Position position(BigDecimal valorAplicado, BigDecimal valorAtual) {
+        return Position.builder()
+                .codigoProduto("inv-1")
+                .valorAplicado(valorAplicado)
+                .valorAtual(valorAtual)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.portfolio.api.provider.impl;
+
+import com.portfolio.api.config.OFBProviderProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvestmentFetchCoalescerTest {
+
+    private static final String CPF = "12345678900";
+
+    private OFBProviderProperties properties;
+    private MeterRegistry meterRegistry;
+    private InvestmentFetchCoalescer coalescer;
+    private ExecutorService executor;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final CountDownLatch fetchStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFetch = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        properties = new OFBProviderProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new InvestmentFetchCoalescer(properties, meterRegistry);
+        executor = Executors.newFixedThreadPool(6);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFetch.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneFetchBetweenConcurrentCallers() throws Exception {
+        List<Future<String>> results = submitCallers(5, () -> "portfolio");
+        fetchStarted.await();
+        Thread.sleep(100);
+        releaseFetch.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("portfolio", result.get());
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.get("ofb.fetch.upstream").counter().count());
+        assertEquals(4.0, meterRegistry.get("ofb.fetch.coalesced").counter().count());
+        assertEquals(0.0, meterRegistry.get("ofb.fetch.in.flight").gauge().value());
+    }
+
+    @Test
+    void shouldPropagateFailureToEveryWaiter() throws Exception {
+        List<Future<String>> results = submitCallers(3, () -> {
+            throw new IllegalStateException("OFB down");
+        });
+        fetchStarted.await();
+        Thread.sleep(100);
+        releaseFetch.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldTimeOutWaiterWithoutCancellingSharedFetch() throws Exception {
+        properties.getCoalescing().setWaiterTimeoutMs(50);
+        Future<String> leader = submitCallers(1, () -> "portfolio").get(0);
+        fetchStarted.await();
+
+        assertThrows(TimeoutException.class, () -> coalescer.fetch(CPF, () -> "unused"));
+
+        releaseFetch.countDown();
+        assertEquals("portfolio", leader.get());
+        assertEquals(1.0, meterRegistry.get("ofb.fetch.waiter.timeouts").counter().count());
+    }
+
+    @Test
+    void shouldStartNewFetchOnceThePreviousOneCompleted() throws Exception {
+        releaseFetch.countDown();
+
+        coalescer.fetch(CPF, this::countedFetch);
+        coalescer.fetch(CPF, this::countedFetch);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private List<Future<String>> submitCallers(int count, ThrowingSupplier body) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(executor.submit(() -> coalescer.fetch(CPF, () -> {
+                upstreamCalls.incrementAndGet();
+                fetchStarted.countDown();
+                releaseFetch.await();
+                return body.get();
+            })));
+        }
+        return results;
+    }
+
+    private String countedFetch() throws Exception {
+        upstreamCalls.incrementAndGet();
+        return "portfolio";
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier {
+        String get() throws Exception;
+    }
+}
@@ -15,7 +15,7 @@ class AmountScorerTest {
 
     @Test
     void shouldReturn20ForNullInvestments() {
-        int score = scorer.calculateAmountScore(null);
+        int score = scorer.calculateAmountScore((List<Investment>) null);
         assertEquals(20, score); // Conservative - no investment history
     }
 
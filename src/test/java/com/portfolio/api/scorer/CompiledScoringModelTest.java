@@ -0,0 +1,120 @@
+package com.portfolio.api.scorer;
+
+import com.portfolio.api.model.enums.PerfilRisco;
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.provider.dto.Investment;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledScoringModelTest {
+
+    @Test
+    void shouldCompileBuiltInModelWithCurrentWeightsAndBreakpoints() {
+        CompiledScoringModel model = CompiledScoringModel.builtIn();
+
+        assertEquals("1", model.getVersion());
+        assertTrue(model.getFingerprint().startsWith("1-"));
+        assertEquals(0.30, model.weight(CompiledScoringModel.Factor.PRODUCT_RISK), 1e-9);
+        // 100*0.25 + 20*0.20 + 40*0.30 + 60*0.15 + 90*0.10 = 59
+        assertEquals(59, model.totalScore(100, 20, 40, 60, 90));
+        assertEquals(PerfilRisco.CONSERVADOR, model.classify(40));
+        assertEquals(PerfilRisco.MODERADO, model.classify(70));
+        assertEquals(PerfilRisco.AGRESSIVO, model.classify(71));
+    }
+
+    @Test
+    void shouldInterpolateAmountWithinTierAndCapAtTopScore() {
+        CompiledScoringModel model = CompiledScoringModel.builtIn();
+
+        assertEquals(20, model.amountScore(0));
+        assertEquals(25, model.amountScore(10_000));
+        assertEquals(50, model.amountScore(100_000));
+        assertEquals(100, model.amountScore(1_000_000));
+    }
+
+    @Test
+    void shouldChangeFingerprintWhenValuesChangeEvenWithSameVersion() throws IOException {
+        String json = builtInJson();
+
+        CompiledScoringModel tuned = CompiledScoringModel.parse(bytes(json.replace("\"ACOES\": 9", "\"ACOES\": 10")));
+        CompiledScoringModel recommented = CompiledScoringModel.parse(bytes("// reviewed\n" + json));
+
+        assertEquals("1", tuned.getVersion());
+        assertNotEquals(CompiledScoringModel.builtIn().getFingerprint(), tuned.getFingerprint());
+        assertEquals(CompiledScoringModel.builtIn().getFingerprint(), recommented.getFingerprint());
+    }
+
+    @Test
+    void shouldRejectInvalidModelsListingTheProblems() throws IOException {
+        String json = builtInJson();
+
+        IllegalArgumentException weights = assertThrows(IllegalArgumentException.class,
+                () -> CompiledScoringModel.parse(bytes(json.replace("\"amount\": 0.25", "\"amount\": 0.5"))));
+        assertTrue(weights.getMessage().contains("weights must add up to 1"));
+
+        IllegalArgumentException tiers = assertThrows(IllegalArgumentException.class,
+                () -> CompiledScoringModel.parse(bytes(json.replace("{ \"from\": 10000, \"to\": 50000", "{ \"from\": 20000, \"to\": 50000"))));
+        assertTrue(tiers.getMessage().contains("amount.tiers[1] must start where the previous tier ends"));
+
+        IllegalArgumentException level = assertThrows(IllegalArgumentException.class,
+                () -> CompiledScoringModel.parse(bytes(json.replace("\"POUPANCA\": 1", "\"POUPANCA\": 0"))));
+        assertTrue(level.getMessage().contains("levels.POUPANCA must be between 1 and 10"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledScoringModel.parse(bytes(json.replace("\"CDB\": 4", "\"BITCOIN\": 4"))));
+    }
+
+    @Test
+    void shouldAddCustomFactorsToTheWeightedTotal() throws IOException {
+        String json = builtInJson()
+                .replace("\"horizon\": 0.10", "\"horizon\": 0.05")
+                .replaceFirst("\\{", "{ \"customFactors\": [ { \"name\": \"rendaVariavel\", "
+                        + "\"expression\": \"100 * portfolio.share(TipoProduto.ACOES)\", \"weight\": 0.05, \"emptyScore\": 0 } ],");
+        CompiledScoringModel model = CompiledScoringModel.parse(bytes(json));
+        PortfolioFeatures features = PortfolioFeatures.of(List.of(
+                Investment.builder().tipo(TipoProduto.ACOES).valor(new BigDecimal("600")).build(),
+                Investment.builder().tipo(TipoProduto.CDB).valor(new BigDecimal("400")).build()));
+
+        int[] customScores = model.customScores(features);
+
+        assertEquals(List.of("rendaVariavel"), model.getCustomFactorNames());
+        assertArrayEquals(new int[]{60}, customScores);
+        assertEquals(Map.of("rendaVariavel", 60), model.customScoresByName(customScores));
+        assertArrayEquals(new int[]{0}, model.customScores(PortfolioFeatures.of(List.of())));
+        // 100*0.25 + 20*0.20 + 40*0.30 + 60*0.15 + 90*0.05 + 60*0.05 = 57.5
+        assertEquals(58, model.totalScore(100, 20, 40, 60, 90, customScores));
+        assertNotEquals(CompiledScoringModel.builtIn().getFingerprint(), model.getFingerprint());
+        assertThrows(IllegalArgumentException.class, () -> model.totalScore(100, 20, 40, 60, 90));
+    }
+
+    @Test
+    void shouldRejectCustomFactorsThatDoNotCompile() throws IOException {
+        String json = builtInJson()
+                .replace("\"horizon\": 0.10", "\"horizon\": 0.05")
+                .replaceFirst("\\{", "{ \"customFactors\": [ { \"name\": \"saida\", "
+                        + "\"expression\": \"System.nanoTime()\", \"weight\": 0.05, \"emptyScore\": 0 } ],");
+
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+                () -> CompiledScoringModel.parse(bytes(json)));
+        assertTrue(invalid.getMessage().contains("customFactors.saida.expression"));
+    }
+
+    private static String builtInJson() throws IOException {
+        try (InputStream in = CompiledScoringModel.class.getClassLoader()
+                .getResourceAsStream(CompiledScoringModel.BUILT_IN_LOCATION)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
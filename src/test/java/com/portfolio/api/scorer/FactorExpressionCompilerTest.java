@@ -0,0 +1,58 @@
+package com.portfolio.api.scorer;
+
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.provider.dto.Investment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FactorExpressionCompilerTest {
+
+    private static final PortfolioFeatures PORTFOLIO = PortfolioFeatures.of(List.of(
+            Investment.builder().tipo(TipoProduto.ACOES).valor(new BigDecimal("3000")).build(),
+            Investment.builder().tipo(TipoProduto.MULTIMERCADO).valor(new BigDecimal("1000")).build(),
+            Investment.builder().tipo(TipoProduto.CDB).valor(new BigDecimal("4000")).build()));
+
+    @Test
+    void shouldEvaluateExpressionsOverPortfolioFeatures() {
+        FactorExpression variableIncome = FactorExpressionCompiler.compile(
+                "100 * (portfolio.share(TipoProduto.ACOES) + portfolio.share(TipoProduto.MULTIMERCADO))");
+        FactorExpression concentration = FactorExpressionCompiler.compile(
+                "Math.min(100, 100 * portfolio.concentration())");
+
+        assertEquals(50.0, variableIncome.evaluate(PORTFOLIO), 1e-9);
+        // (3/8)^2 + (1/8)^2 + (4/8)^2
+        assertEquals(40.625, concentration.evaluate(PORTFOLIO), 1e-9);
+    }
+
+    @Test
+    void shouldReuseCompiledClassForSameExpression() {
+        String expression = "portfolio.getInvestmentCount() * 10";
+
+        FactorExpression first = FactorExpressionCompiler.compile(expression);
+        FactorExpression second = FactorExpressionCompiler.compile(expression);
+
+        assertSame(first, second);
+        assertEquals(30.0, first.evaluate(PORTFOLIO));
+    }
+
+    @Test
+    void shouldRejectInvalidExpressionsAndNamesOutsideTheAllowList() {
+        assertThrows(IllegalArgumentException.class, () -> FactorExpressionCompiler.compile("portfolio.share("));
+        assertThrows(IllegalArgumentException.class, () -> FactorExpressionCompiler.compile("portfolio.unknown()"));
+        assertThrows(IllegalArgumentException.class, () -> FactorExpressionCompiler.compile("\"text\""));
+        assertThrows(IllegalArgumentException.class,
+                () -> FactorExpressionCompiler.compile("System.currentTimeMillis()"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FactorExpressionCompiler.compile("java.lang.Runtime.getRuntime().availableProcessors()"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FactorExpressionCompiler.compile("portfolio.getClass().hashCode()"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FactorExpressionCompiler.compile("\\u0053ystem.nanoTime()"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FactorExpressionCompiler.compile("new double[1000].length"));
+    }
+}
@@ -27,7 +27,7 @@ class FrequencyScorerTest {
 
     @Test
     void shouldReturnZeroForNullList() {
-        int score = scorer.calculateFrequencyScore(null);
+        int score = scorer.calculateFrequencyScore((List<Investment>) null);
         assertEquals(0, score);
     }
 
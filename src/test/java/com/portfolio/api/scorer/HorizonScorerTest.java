@@ -23,7 +23,7 @@ class HorizonScorerTest {
 
     @Test
     void shouldReturn50ForNullInvestments() {
-        int score = calculator.calculateHorizonScore(null);
+        int score = calculator.calculateHorizonScore((List<Investment>) null);
         assertEquals(50, score);
     }
 
@@ -24,7 +24,7 @@ class LiquidityScorerTest {
 
     @Test
     void shouldReturn50ForNullInvestments() {
-        int score = scorer.calculateLiquidityScore(null);
+        int score = scorer.calculateLiquidityScore((List<Investment>) null);
         assertEquals(50, score);
     }
 
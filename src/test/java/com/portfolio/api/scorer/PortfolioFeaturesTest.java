@@ -0,0 +1,78 @@
+package com.portfolio.api.scorer;
+
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.provider.dto.Investment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioFeaturesTest {
+
+    @Test
+    void shouldGatherAllFiguresInOnePass() {
+        List<Investment> investments = List.of(
+                Investment.builder().tipo(TipoProduto.CDB).valor(new BigDecimal("1000.10"))
+                        .data(LocalDate.of(2020, 5, 1)).transactionCount(3)
+                        .firstTransactionDate(LocalDate.of(2020, 5, 1)).lastTransactionDate(LocalDate.of(2022, 1, 1))
+                        .build(),
+                Investment.builder().tipo(TipoProduto.ACOES).valor(new BigDecimal("3000.20"))
+                        .data(LocalDate.of(2018, 2, 1)).transactionCount(null)
+                        .lastTransactionDate(LocalDate.of(2024, 3, 1))
+                        .build(),
+                Investment.builder().tipo(null).valor(new BigDecimal("500"))
+                        .data(null).transactionCount(7)
+                        .firstTransactionDate(LocalDate.of(2019, 1, 1))
+                        .build());
+
+        PortfolioFeatures features = PortfolioFeatures.of(investments);
+
+        assertEquals(3, features.getInvestmentCount());
+        assertEquals(new BigDecimal("4500.30"), features.getTotalAmount());
+        assertEquals(4500.30, features.getTotalValue(), 1e-9);
+        assertEquals(10, features.getTotalTransactions());
+        assertEquals(LocalDate.of(2019, 1, 1), features.getEarliestTransactionDate());
+        assertEquals(LocalDate.of(2024, 3, 1), features.getLatestTransactionDate());
+        assertEquals(LocalDate.of(2018, 2, 1), features.getEarliestInvestmentDate());
+    }
+
+    @Test
+    void shouldWeightLevelsByInvestedValue() {
+        PortfolioFeatures features = PortfolioFeatures.of(List.of(
+                Investment.builder().tipo(TipoProduto.POUPANCA).valor(new BigDecimal("3000")).build(),
+                Investment.builder().tipo(TipoProduto.ACOES).valor(new BigDecimal("1000")).build(),
+                Investment.builder().tipo(null).valor(new BigDecimal("1000")).build()));
+        int[] levels = PortfolioFeatures.levelsByOrdinal(
+                Map.of(TipoProduto.POUPANCA, 1, TipoProduto.ACOES, 9), 5);
+
+        // (3000*1 + 1000*9 + 1000*5) / 5000
+        assertEquals(3.4, features.valueWeightedAverage(levels, 5), 1e-9);
+    }
+
+    @Test
+    void shouldMeasureSharesAndConcentration() {
+        PortfolioFeatures features = PortfolioFeatures.of(List.of(
+                Investment.builder().tipo(TipoProduto.ACOES).valor(new BigDecimal("2000")).build(),
+                Investment.builder().tipo(TipoProduto.ACOES).valor(new BigDecimal("1000")).build(),
+                Investment.builder().tipo(TipoProduto.CDB).valor(new BigDecimal("500")).build(),
+                Investment.builder().tipo(null).valor(new BigDecimal("500")).build()));
+
+        assertEquals(0.75, features.share(TipoProduto.ACOES), 1e-9);
+        assertEquals(0.0, features.share(TipoProduto.LCI), 1e-9);
+        assertEquals(0.75, features.largestShare(), 1e-9);
+        // 0.75^2 + 0.125^2 + 0.125^2
+        assertEquals(0.59375, features.concentration(), 1e-9);
+        assertEquals(0.0, PortfolioFeatures.of(List.of()).concentration(), 1e-9);
+    }
+
+    @Test
+    void shouldBeEmptyForNullOrEmptyHistory() {
+        assertTrue(PortfolioFeatures.of(null).isEmpty());
+        assertTrue(PortfolioFeatures.of(List.of()).isEmpty());
+        assertEquals(BigDecimal.ZERO, PortfolioFeatures.of(List.of()).getTotalAmount());
+    }
+}
@@ -24,7 +24,7 @@ class ProductRiskScorerTest {
 
     @Test
     void shouldReturn50ForNullInvestments() {
-        int score = calculator.calculateProductRiskScore(null);
+        int score = calculator.calculateProductRiskScore((List<Investment>) null);
         assertEquals(50, score);
     }
 
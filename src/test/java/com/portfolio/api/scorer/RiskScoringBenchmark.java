@@ -0,0 +1,140 @@
+package com.portfolio.api.scorer;
+
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.provider.dto.Investment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Five scorers over the raw history (one set of stream passes per scorer) vs
+ * one {@link PortfolioFeatures} pass shared by all of them.
+ *
+ * The per-scorer baseline reproduces the stream-based figures the scorers
+ * used to compute. Run with the GC profiler:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ *  -Dexec.mainClass=com.portfolio.api.scorer.RiskScoringBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskScoringBenchmark {
+
+    private static final Map<TipoProduto, Integer> RISK_LEVELS = Map.of(
+            TipoProduto.CDB, 4, TipoProduto.LCI, 3, TipoProduto.TESOURO_SELIC, 2, TipoProduto.ACOES, 9);
+    private static final Map<TipoProduto, Integer> LIQUIDITY_LEVELS = Map.of(
+            TipoProduto.CDB, 5, TipoProduto.LCI, 5, TipoProduto.TESOURO_SELIC, 2, TipoProduto.ACOES, 8);
+
+    @Param({"10", "100", "1000", "10000"})
+    private int positions;
+
+    private final AmountScorer amountScorer = new AmountScorer();
+    private final FrequencyScorer frequencyScorer = new FrequencyScorer();
+    private final ProductRiskScorer productRiskScorer = new ProductRiskScorer();
+    private final LiquidityScorer liquidityScorer = new LiquidityScorer();
+    private final HorizonScorer horizonScorer = new HorizonScorer();
+
+    private List<Investment> investments;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        TipoProduto[] types = TipoProduto.values();
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        investments = new ArrayList<>(positions);
+        for (int i = 0; i < positions; i++) {
+            LocalDate data = start.plusDays(random.nextInt(3000));
+            investments.add(Investment.builder()
+                    .id((long) i)
+                    .tipo(types[random.nextInt(types.length)])
+                    .valor(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                    .data(data)
+                    .transactionCount(random.nextInt(20))
+                    .firstTransactionDate(data)
+                    .lastTransactionDate(data.plusDays(random.nextInt(500)))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void perScorerPasses(Blackhole blackhole) {
+        BigDecimal totalAmount = investments.stream()
+                .map(Investment::getValor)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int totalTransactions = investments.stream()
+                .mapToInt(inv -> inv.getTransactionCount() != null ? inv.getTransactionCount() : 0)
+                .sum();
+        LocalDate earliest = investments.stream()
+                .map(Investment::getFirstTransactionDate)
+                .filter(date -> date != null)
+                .min(LocalDate::compareTo)
+                .orElse(null);
+        LocalDate latest = investments.stream()
+                .map(Investment::getLastTransactionDate)
+                .filter(date -> date != null)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+        LocalDate firstInvestment = investments.stream()
+                .map(Investment::getData)
+                .min(LocalDate::compareTo)
+                .orElse(LocalDate.now());
+
+        blackhole.consume(totalAmount);
+        blackhole.consume(totalTransactions);
+        blackhole.consume(earliest);
+        blackhole.consume(latest);
+        blackhole.consume(firstInvestment);
+        blackhole.consume(weightedLevel(RISK_LEVELS));
+        blackhole.consume(weightedLevel(LIQUIDITY_LEVELS));
+    }
+
+    @Benchmark
+    public void sharedFeatures(Blackhole blackhole) {
+        PortfolioFeatures features = PortfolioFeatures.of(investments);
+        blackhole.consume(amountScorer.calculateAmountScore(features));
+        blackhole.consume(frequencyScorer.calculateFrequencyScore(features));
+        blackhole.consume(productRiskScorer.calculateProductRiskScore(features));
+        blackhole.consume(liquidityScorer.calculateLiquidityScore(features));
+        blackhole.consume(horizonScorer.calculateHorizonScore(features));
+    }
+
+    // What ProductRiskScorer and LiquidityScorer each did: re-sum, then one map lookup per investment
+    private double weightedLevel(Map<TipoProduto, Integer> levels) {
+        double totalValue = investments.stream()
+                .mapToDouble(i -> i.getValor().doubleValue())
+                .sum();
+        return investments.stream()
+                .mapToDouble(i -> levels.getOrDefault(i.getTipo(), 5) * (i.getValor().doubleValue() / totalValue))
+                .sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RiskScoringBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.AuthServerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OAuth2AuthorizationCleanupServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OAuth2AuthorizationCleanupService cleanupService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:oauth2-cleanup-" + UUID.randomUUID() + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V05__create_oauth2_tables.sql"),
+                new ClassPathResource("db/migration/V15__add_oauth2_authorization_token_hashes.sql"))
+                .execute(dataSource);
+        ResourceDatabasePopulator v19 = new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V19__add_oauth2_authorization_expires_at.sql"));
+        v19.setSeparator("GO");
+        v19.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        AuthServerProperties properties = new AuthServerProperties();
+        properties.getAuthorizationStore().setCleanupBatchSize(2);
+        cleanupService = new OAuth2AuthorizationCleanupService(jdbcTemplate, properties);
+    }
+
+    @Test
+    void shouldDeleteOnlyFullyExpiredAuthorizationsInBatches() {
+        Instant past = Instant.now().minusSeconds(3600);
+        Instant future = Instant.now().plusSeconds(3600);
+        for (int i = 0; i < 5; i++) {
+            insert("expired-" + i, past, past);
+        }
+        insert("refreshable", past, future);
+        insert("active", future, future);
+        insert("pending-request", null, null);
+
+        int deleted = cleanupService.deleteExpiredAuthorizations();
+
+        assertThat(deleted).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM oauth2_authorization ORDER BY id", String.class))
+                .containsExactly("active", "pending-request", "refreshable");
+    }
+
+    @Test
+    void shouldDeleteAbandonedRequestsOnceOlderThanMaxAge() {
+        Instant longAgo = Instant.now().minus(Duration.ofHours(2));
+        for (int i = 0; i < 3; i++) {
+            insertRequest("abandoned-" + i, longAgo, null);
+        }
+        insertRequest("code-issued-long-ago", longAgo, "c".repeat(64));
+        insertRequest("pending-request", Instant.now(), null);
+
+        int deleted = cleanupService.deleteExpiredAuthorizations();
+
+        assertThat(deleted).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM oauth2_authorization ORDER BY id", String.class))
+                .containsExactly("code-issued-long-ago", "pending-request");
+    }
+
+    // A row without tokens, as saved for an authorization or consent request
+    private void insertRequest(String id, Instant savedAt, String authorizationCodeHash) {
+        jdbcTemplate.update("""
+                INSERT INTO oauth2_authorization
+                    (id, registered_client_id, principal_name, authorization_grant_type,
+                     authorization_code_hash, saved_at)
+                VALUES (?, 'client-1', 'user', 'authorization_code', ?, ?)""",
+                id, authorizationCodeHash, timestamp(savedAt));
+    }
+
+    private void insert(String id, Instant accessExpiresAt, Instant refreshExpiresAt) {
+        jdbcTemplate.update("""
+                INSERT INTO oauth2_authorization
+                    (id, registered_client_id, principal_name, authorization_grant_type,
+                     access_token_expires_at, refresh_token_expires_at, expires_at)
+                VALUES (?, 'client-1', 'user', 'authorization_code', ?, ?, ?)""",
+                id, timestamp(accessExpiresAt), timestamp(refreshExpiresAt),
+                timestamp(refreshExpiresAt != null ? refreshExpiresAt : accessExpiresAt));
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.portfolio.api.service;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.service.external.OFBTokenRejectedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OFBTokenManagerTest {
+
+    private static final String CPF = "12345678900";
+
+    @Mock
+    private OFBAuthService authService;
+
+    private MeterRegistry meterRegistry;
+    private OFBTokenManager tokenManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenManager = new OFBTokenManager(authService, new OFBProviderProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenManager.shutdown();
+    }
+
+    @Test
+    void shouldReuseTokenUntilExpiry() throws Exception {
+        when(authService.authenticateWithCPF(CPF)).thenReturn(token("t1", 3600));
+
+        assertEquals("t1", tokenManager.getToken(CPF));
+        assertEquals("t1", tokenManager.getToken(CPF));
+
+        verify(authService, times(1)).authenticateWithCPF(CPF);
+        assertEquals(1.0, meterRegistry.get("ofb.token.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("ofb.token.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void shouldRefreshInBackgroundInsideRefreshAheadWindow() throws Exception {
+        when(authService.authenticateWithCPF(CPF)).thenReturn(token("old", 60), token("new", 3600));
+
+        assertEquals("old", tokenManager.getToken(CPF));
+        // Still valid, so handed out while the replacement is fetched
+        assertEquals("old", tokenManager.getToken(CPF));
+
+        verify(authService, timeout(2000).times(2)).authenticateWithCPF(CPF);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!"new".equals(tokenManager.getToken(CPF)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("new", tokenManager.getToken(CPF));
+    }
+
+    @Test
+    void shouldNotHandOutTokenAboutToExpire() throws Exception {
+        when(authService.authenticateWithCPF(CPF)).thenReturn(token("expiring", 5), token("fresh", 3600));
+
+        tokenManager.getToken(CPF);
+
+        assertEquals("fresh", tokenManager.getToken(CPF));
+    }
+
+    @Test
+    void shouldEvictTokenRejectedWith401() throws Exception {
+        when(authService.authenticateWithCPF(CPF)).thenReturn(token("revoked", 3600), token("replacement", 3600));
+
+        tokenManager.getToken(CPF);
+        tokenManager.onTokenRejected(new OFBTokenRejectedEvent("revoked"));
+
+        assertEquals("replacement", tokenManager.getToken(CPF));
+        assertEquals(1.0, meterRegistry.get("ofb.token.rejected").counter().count());
+    }
+
+    @Test
+    void shouldRunOneFlowForConcurrentMisses() throws Exception {
+        CountDownLatch flowStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlow = new CountDownLatch(1);
+        when(authService.authenticateWithCPF(CPF)).thenAnswer(inv -> {
+            flowStarted.countDown();
+            releaseFlow.await();
+            return token("shared", 3600);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> tokenManager.getToken(CPF)));
+            }
+            flowStarted.await();
+            Thread.sleep(100);
+            releaseFlow.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("shared", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(authService, times(1)).authenticateWithCPF(CPF);
+    }
+
+    @Test
+    void shouldTakeExpiryFromJwtExpClaim() {
+        Instant exp = Instant.now().plus(90, ChronoUnit.SECONDS).truncatedTo(ChronoUnit.SECONDS);
+        String jwt = new PlainJWT(new JWTClaimsSet.Builder().expirationTime(Date.from(exp)).build()).serialize();
+
+        assertEquals(exp, OFBAccessToken.of(jwt, 3600L, 3000).expiresAt());
+        assertTrue(OFBAccessToken.of("opaque", 3600L, 3000).expiresAt().isAfter(Instant.now().plusSeconds(3500)));
+    }
+
+    private static OFBAccessToken token(String value, long secondsToExpiry) {
+        return new OFBAccessToken(value, Instant.now().plusSeconds(secondsToExpiry));
+    }
+}
@@ -0,0 +1,210 @@
+package com.portfolio.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.exception.ServiceUnavailableException;
+import com.portfolio.api.model.entity.InvestmentDataCache;
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.provider.InvestmentPlatformProvider;
+import com.portfolio.api.provider.dto.Investment;
+import com.portfolio.api.provider.dto.PortfolioSnapshot;
+import com.portfolio.api.repository.InvestmentDataCacheRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioDataCacheTest {
+
+    private static final String CPF = "12345678900";
+
+    @Mock
+    private InvestmentPlatformProvider investmentPlatformProvider;
+
+    @Mock
+    private InvestmentDataCacheRepository cacheRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private MeterRegistry meterRegistry;
+    private CustomerActivityTracker activityTracker;
+    private PortfolioDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(1))
+                .build());
+        OFBProviderProperties properties = new OFBProviderProperties();
+        activityTracker = new CustomerActivityTracker(properties);
+        cache = new PortfolioDataCache(investmentPlatformProvider, cacheRepository, objectMapper, activityTracker,
+                properties, CircuitBreakerRegistry.ofDefaults(), retryRegistry, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void shouldFetchOnMissAndServeRepeatsFromL1() {
+        List<Investment> investments = List.of(investment(1L));
+        when(cacheRepository.findValidCacheByCpf(eq(CPF), any())).thenReturn(Optional.empty());
+        when(investmentPlatformProvider.getSnapshot(CPF)).thenReturn(snapshot(investments));
+
+        assertEquals(investments, cache.getInvestments(CPF));
+        assertEquals(investments, cache.getInvestments(CPF));
+
+        verify(investmentPlatformProvider, times(1)).getSnapshot(CPF);
+        assertEquals(1.0, requests("miss"));
+        assertEquals(1.0, meterRegistry.get("portfolio.cache.requests").tag("tier", "l1").counter().count());
+
+        assertEquals(List.of(CPF), activityTracker.recentCpfs());
+
+        ArgumentCaptor<InvestmentDataCache> saved = ArgumentCaptor.forClass(InvestmentDataCache.class);
+        verify(cacheRepository).save(saved.capture());
+        assertEquals(64, saved.getValue().getContentHash().length());
+    }
+
+    @Test
+    void shouldServeFreshDatabaseRowWithoutCallingProvider() throws Exception {
+        when(cacheRepository.findValidCacheByCpf(eq(CPF), any()))
+                .thenReturn(Optional.of(row(List.of(investment(1L)), LocalDateTime.now().minusSeconds(10))));
+
+        List<Investment> result = cache.getInvestments(CPF);
+
+        assertEquals(1L, result.get(0).getId());
+        verifyNoInteractions(investmentPlatformProvider);
+        assertEquals(1.0, meterRegistry.get("portfolio.cache.requests").tag("tier", "l2").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void shouldServeStaleRowAndOnlyTouchTimestampsWhenContentUnchanged() throws Exception {
+        List<Investment> investments = List.of(investment(1L));
+        String hash = storedHash(investments);
+        when(cacheRepository.findValidCacheByCpf(eq(CPF), any()))
+                .thenReturn(Optional.of(row(investments, LocalDateTime.now().minusHours(1))));
+        when(investmentPlatformProvider.getSnapshot(CPF)).thenReturn(snapshot(investments));
+        when(cacheRepository.findContentHashByCpf(CPF)).thenReturn(Optional.of(hash));
+        when(cacheRepository.refreshTimestamps(eq(CPF), any(), any())).thenReturn(1);
+
+        assertEquals(1L, cache.getInvestments(CPF).get(0).getId());
+
+        verify(cacheRepository, timeout(2000)).refreshTimestamps(eq(CPF), any(), any());
+        verify(cacheRepository, never()).save(any());
+        assertEquals(1.0, requests("stale"));
+    }
+
+    @Test
+    void shouldRewriteRowWhenContentChanges() throws Exception {
+        when(cacheRepository.findValidCacheByCpf(eq(CPF), any()))
+                .thenReturn(Optional.of(row(List.of(investment(1L)), LocalDateTime.now().minusHours(1))));
+        when(cacheRepository.findContentHashByCpf(CPF)).thenReturn(Optional.of(storedHash(List.of(investment(1L)))));
+        when(investmentPlatformProvider.getSnapshot(CPF)).thenReturn(snapshot(List.of(investment(2L))));
+
+        cache.getInvestments(CPF);
+
+        verify(cacheRepository, timeout(2000)).save(any(InvestmentDataCache.class));
+        verify(cacheRepository, never()).refreshTimestamps(any(), any(), any());
+    }
+
+    @Test
+    void shouldTagSnapshotsWithTheSameContentHashFromProviderAndRow() throws Exception {
+        List<Investment> investments = List.of(investment(1L));
+        when(cacheRepository.findValidCacheByCpf(eq(CPF), any()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(row(investments, LocalDateTime.now().minusSeconds(10))));
+        when(investmentPlatformProvider.getSnapshot(CPF)).thenReturn(snapshot(investments));
+
+        String fetched = cache.getSnapshot(CPF).getContentHash();
+        String restored = new PortfolioDataCache(investmentPlatformProvider, cacheRepository, objectMapper,
+                activityTracker, new OFBProviderProperties(), CircuitBreakerRegistry.ofDefaults(),
+                RetryRegistry.ofDefaults(), meterRegistry).getSnapshot(CPF).getContentHash();
+
+        assertEquals(storedHash(investments), fetched);
+        assertEquals(fetched, restored);
+    }
+
+    @Test
+    void shouldThrowServiceUnavailableWhenNothingCachedAndProviderFails() {
+        when(cacheRepository.findValidCacheByCpf(eq(CPF), any())).thenReturn(Optional.empty());
+        when(investmentPlatformProvider.getSnapshot(CPF)).thenThrow(new RuntimeException("OFB down"));
+
+        assertThrows(ServiceUnavailableException.class, () -> cache.getInvestments(CPF));
+
+        // Retried through the ofbProvider retry instance
+        verify(investmentPlatformProvider, times(2)).getSnapshot(CPF);
+        verify(cacheRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldPrewarmOnlyWhenL1HasNoFreshSnapshot() {
+        when(investmentPlatformProvider.getSnapshot(CPF)).thenReturn(snapshot(List.of(investment(1L))));
+
+        assertTrue(cache.prewarm(CPF));
+        assertFalse(cache.prewarm(CPF));
+
+        verify(investmentPlatformProvider, times(1)).getSnapshot(CPF);
+        // Pre-warming is not customer activity
+        assertTrue(activityTracker.recentCpfs().isEmpty());
+    }
+
+    private static PortfolioSnapshot snapshot(List<Investment> investments) {
+        return PortfolioSnapshot.fromHistory(CPF, LocalDateTime.now(), investments);
+    }
+
+    private InvestmentDataCache row(List<Investment> investments, LocalDateTime fetchedAt) throws Exception {
+        return InvestmentDataCache.builder()
+                .cpf(CPF)
+                .investmentData(objectMapper.writeValueAsString(investments))
+                .contentHash(storedHash(investments))
+                .fetchedAt(fetchedAt)
+                .expiresAt(fetchedAt.plusHours(24))
+                .build();
+    }
+
+    private String storedHash(List<Investment> investments) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(investments));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("portfolio.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static Investment investment(Long id) {
+        return Investment.builder()
+                .id(id)
+                .tipo(TipoProduto.CDB)
+                .tipoOperacao("APLICACAO")
+                .valor(new BigDecimal("1000.00"))
+                .rentabilidade(new BigDecimal("0.10"))
+                .data(LocalDate.of(2024, 1, 15))
+                .nomeProduto("CDB Teste")
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.repository.CustomerRepository;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioPrewarmServiceTest {
+
+    @Mock
+    private PortfolioDataCache portfolioDataCache;
+
+    @Mock
+    private OFBTokenManager tokenManager;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private OFBProviderProperties properties;
+    private CustomerActivityTracker activityTracker;
+    private MeterRegistry meterRegistry;
+    private PortfolioPrewarmService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OFBProviderProperties();
+        properties.getPrewarm().setMaxConcurrency(2);
+        activityTracker = new CustomerActivityTracker(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PortfolioPrewarmService(portfolioDataCache, tokenManager, activityTracker, customerRepository,
+                properties, RateLimiterRegistry.ofDefaults(), meterRegistry);
+    }
+
+    @Test
+    void shouldMergeRequestersAndSimulationClientsWithinCap() {
+        properties.getPrewarm().setMaxCustomers(3);
+        activityTracker.recordActivity("11111111111");
+        activityTracker.recordActivity("22222222222");
+        when(customerRepository.findCpfsWithSimulationsSince(any()))
+                .thenReturn(List.of("11111111111", "33333333333", "44444444444"));
+
+        List<String> selected = service.selectCustomers();
+
+        assertEquals(3, selected.size());
+        assertEquals("22222222222", selected.get(0));
+        assertTrue(selected.containsAll(List.of("11111111111", "33333333333")));
+    }
+
+    @Test
+    void shouldRefreshCustomersWithinConcurrencyBudget() throws Exception {
+        List<String> cpfs = List.of("11111111111", "22222222222", "33333333333", "44444444444", "55555555555");
+        when(customerRepository.findCpfsWithSimulationsSince(any())).thenReturn(cpfs);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(portfolioDataCache.prewarm(anyString())).thenAnswer(inv -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            active.decrementAndGet();
+            return true;
+        });
+
+        service.prewarmRecentlyActive();
+
+        verify(portfolioDataCache, times(5)).prewarm(anyString());
+        assertTrue(maxActive.get() <= 2, "at most max-concurrency refreshes in flight");
+        assertEquals(5.0, outcome("refreshed"));
+    }
+
+    @Test
+    void shouldCountFreshAndFailedCustomersSeparately() {
+        when(customerRepository.findCpfsWithSimulationsSince(any()))
+                .thenReturn(List.of("11111111111", "22222222222"));
+        when(portfolioDataCache.prewarm("11111111111")).thenReturn(false);
+        when(portfolioDataCache.prewarm("22222222222")).thenThrow(new RuntimeException("OFB down"));
+
+        service.prewarmRecentlyActive();
+
+        assertEquals(1.0, outcome("skipped"));
+        assertEquals(1.0, outcome("failed"));
+    }
+
+    @Test
+    void shouldFetchOnlyTokensInPrePeakPass() throws Exception {
+        when(customerRepository.findCpfsWithSimulationsSince(any()))
+                .thenReturn(List.of("11111111111", "22222222222"));
+        when(tokenManager.getToken(anyString())).thenAnswer(inv -> {
+            if ("22222222222".equals(inv.getArgument(0))) {
+                throw new IllegalStateException("PAR failed");
+            }
+            return "token";
+        });
+
+        service.prewarmTokens();
+
+        verify(tokenManager).getToken("11111111111");
+        verifyNoInteractions(portfolioDataCache);
+        assertEquals(1.0, meterRegistry.get("portfolio.prewarm.tokens").tag("outcome", "warmed").counter().count());
+        assertEquals(1.0, meterRegistry.get("portfolio.prewarm.tokens").tag("outcome", "failed").counter().count());
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("portfolio.prewarm.customers").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,78 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.entity.Product;
+import com.portfolio.api.model.enums.TipoProduto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogIndexTest {
+
+    private static final Product CDB_CURTO = product(1L, TipoProduto.CDB, "0.10", "1000.00", 6, 24, true);
+    private static final Product CDB_LONGO = product(2L, TipoProduto.CDB, "0.13", "5000.00", 12, null, true);
+    private static final Product CDB_PREMIUM = product(3L, TipoProduto.CDB, "0.15", "50000.00", 1, 12, true);
+    private static final Product CDB_INATIVO = product(4L, TipoProduto.CDB, "0.20", "100.00", 1, null, false);
+    private static final Product LCI = product(5L, TipoProduto.LCI, "0.11", "1000.00", 12, 36, true);
+
+    private final ProductCatalogIndex index = ProductCatalogIndex.of(
+            List.of(CDB_CURTO, CDB_LONGO, CDB_PREMIUM, CDB_INATIVO, LCI));
+
+    @Test
+    void shouldPickHighestYieldAmongProductsAcceptingAmountAndTerm() {
+        assertEquals(Optional.of(CDB_CURTO), index.findBestMatch(TipoProduto.CDB, new BigDecimal("1000"), 6));
+        assertEquals(Optional.of(CDB_LONGO), index.findBestMatch(TipoProduto.CDB, new BigDecimal("5000.00"), 12));
+        assertEquals(Optional.of(CDB_PREMIUM), index.findBestMatch(TipoProduto.CDB, new BigDecimal("80000"), 12));
+        // Past CDB_PREMIUM's maximum term
+        assertEquals(Optional.of(CDB_LONGO), index.findBestMatch(TipoProduto.CDB, new BigDecimal("80000"), 13));
+        // No maximum term
+        assertEquals(Optional.of(CDB_LONGO), index.findBestMatch(TipoProduto.CDB, new BigDecimal("5000"), 600));
+        assertEquals(Optional.of(LCI), index.findBestMatch(TipoProduto.LCI, new BigDecimal("1000"), 36));
+    }
+
+    @Test
+    void shouldFindNothingOutsideEveryProductsRange() {
+        assertTrue(index.findBestMatch(TipoProduto.CDB, new BigDecimal("999.99"), 12).isEmpty());
+        assertTrue(index.findBestMatch(TipoProduto.CDB, new BigDecimal("4999.99"), 30).isEmpty());
+        assertTrue(index.findBestMatch(TipoProduto.LCI, new BigDecimal("1000"), 37).isEmpty());
+        assertTrue(index.findBestMatch(TipoProduto.ACOES, new BigDecimal("1000000"), 12).isEmpty());
+        assertTrue(index.findBestMatch(TipoProduto.CDB, null, 12).isEmpty());
+    }
+
+    @Test
+    void shouldLeaveOutInactiveProductsAndMatchBruteForce() {
+        assertEquals(4, index.size());
+        List<Product> all = List.of(CDB_CURTO, CDB_LONGO, CDB_PREMIUM, CDB_INATIVO, LCI);
+
+        for (int valor = 0; valor <= 60_000; valor += 250) {
+            for (int prazo = 0; prazo <= 40; prazo++) {
+                BigDecimal amount = BigDecimal.valueOf(valor);
+                int term = prazo;
+                Optional<Product> expected = all.stream()
+                        .filter(p -> p.getAtivo() && p.getTipo() == TipoProduto.CDB)
+                        .filter(p -> p.getValorMinimo().compareTo(amount) <= 0 && p.getPrazoMinimoMeses() <= term)
+                        .filter(p -> p.getPrazoMaximoMeses() == null || p.getPrazoMaximoMeses() >= term)
+                        .max((a, b) -> a.getRentabilidade().compareTo(b.getRentabilidade()));
+                assertEquals(expected, index.findBestMatch(TipoProduto.CDB, amount, term), valor + "/" + prazo);
+            }
+        }
+    }
+
+    private static Product product(Long id, TipoProduto tipo, String rentabilidade, String valorMinimo,
+                                   Integer prazoMinimo, Integer prazoMaximo, boolean ativo) {
+        Product product = new Product();
+        product.setId(id);
+        product.setNome(tipo + " " + id);
+        product.setTipo(tipo);
+        product.setRentabilidade(new BigDecimal(rentabilidade));
+        product.setRisco("Baixo");
+        product.setValorMinimo(new BigDecimal(valorMinimo));
+        product.setPrazoMinimoMeses(prazoMinimo);
+        product.setPrazoMaximoMeses(prazoMaximo);
+        product.setAtivo(ativo);
+        return product;
+    }
+}
@@ -0,0 +1,111 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.model.entity.Product;
+import com.portfolio.api.model.enums.TipoProduto;
+import com.portfolio.api.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogTest {
+
+    private static final BigDecimal VALOR = new BigDecimal("10000.00");
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private MeterRegistry meterRegistry;
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new ProductCatalog(productRepository, meterRegistry);
+    }
+
+    @Test
+    void shouldLoadOnceAndAnswerLaterLookupsFromMemory() {
+        Product cdb = cdb(1L, "0.12");
+        when(productRepository.findByAtivoTrue()).thenReturn(List.of(cdb));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Optional.of(cdb), catalog.findMatchingProduct(TipoProduto.CDB, VALOR, 12));
+        }
+
+        verify(productRepository, times(1)).findByAtivoTrue();
+        verify(productRepository, never())
+                .findFirstByTipoAndAtivoTrueAndValorMinimoLessThanEqualAndPrazoMinimoMesesLessThanEqualOrderByRentabilidadeDesc(any(), any(), any());
+        assertEquals(3.0, lookups("index"));
+    }
+
+    @Test
+    void shouldReloadAfterProductsChange() {
+        Product before = cdb(1L, "0.12");
+        Product after = cdb(2L, "0.14");
+        when(productRepository.findByAtivoTrue()).thenReturn(List.of(before), List.of(before, after));
+
+        assertEquals(Optional.of(before), catalog.findMatchingProduct(TipoProduto.CDB, VALOR, 12));
+        catalog.productsChanged();
+
+        assertEquals(Optional.of(after), catalog.findMatchingProduct(TipoProduto.CDB, VALOR, 12));
+    }
+
+    @Test
+    void shouldQueryDatabaseWhileCatalogCannotBeLoaded() {
+        Product cdb = cdb(1L, "0.12");
+        when(productRepository.findByAtivoTrue()).thenThrow(new DataAccessResourceFailureException("down"));
+        when(productRepository
+                .findFirstByTipoAndAtivoTrueAndValorMinimoLessThanEqualAndPrazoMinimoMesesLessThanEqualOrderByRentabilidadeDesc(
+                        TipoProduto.CDB, VALOR, 12))
+                .thenReturn(Optional.of(cdb));
+
+        assertEquals(Optional.of(cdb), catalog.findMatchingProduct(TipoProduto.CDB, VALOR, 12));
+        assertEquals(1.0, lookups("database"));
+    }
+
+    @Test
+    void shouldKeepCurrentIndexWhenRefreshFails() {
+        Product cdb = cdb(1L, "0.12");
+        when(productRepository.findByAtivoTrue())
+                .thenReturn(List.of(cdb))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        catalog.refresh();
+        catalog.refresh();
+
+        assertEquals(Optional.of(cdb), catalog.findMatchingProduct(TipoProduto.CDB, VALOR, 12));
+        verify(productRepository, times(2)).findByAtivoTrue();
+    }
+
+    private double lookups(String source) {
+        return meterRegistry.get("product.catalog.lookups").tag("source", source).counter().count();
+    }
+
+    private static Product cdb(Long id, String rentabilidade) {
+        Product product = new Product();
+        product.setId(id);
+        product.setNome("CDB " + id);
+        product.setTipo(TipoProduto.CDB);
+        product.setRentabilidade(new BigDecimal(rentabilidade));
+        product.setRisco("Baixo");
+        product.setValorMinimo(new BigDecimal("1000.00"));
+        product.setPrazoMinimoMeses(6);
+        product.setPrazoMaximoMeses(24);
+        product.setAtivo(true);
+        return product;
+    }
+}
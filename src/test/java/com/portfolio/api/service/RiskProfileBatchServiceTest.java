@@ -0,0 +1,175 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.exception.BatchTooLargeException;
+import com.portfolio.api.exception.ServiceUnavailableException;
+import com.portfolio.api.mapper.ClientIdentifierMapper;
+import com.portfolio.api.model.dto.response.RiskProfileBatchItem;
+import com.portfolio.api.model.dto.response.RiskProfileBatchJobResponse;
+import com.portfolio.api.model.dto.response.RiskProfileResponse;
+import com.portfolio.api.model.enums.PerfilRisco;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RiskProfileBatchServiceTest {
+
+    @Mock
+    private RiskProfileService riskProfileService;
+
+    @Mock
+    private ClientIdentifierMapper clientIdentifierMapper;
+
+    private OFBProviderProperties properties;
+    private RiskProfileBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OFBProviderProperties();
+        properties.getBatch().setMaxConcurrency(2);
+        properties.getBatch().setMaxClients(3);
+        service = new RiskProfileBatchService(riskProfileService, clientIdentifierMapper,
+                properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldReportEveryClientOnceWithItsOutcome() throws Exception {
+        when(clientIdentifierMapper.getCpfsForClients(List.of(1L, 2L, 3L)))
+                .thenReturn(Map.of(1L, "11111111111", 3L, "33333333333"));
+        when(riskProfileService.calculateRiskProfile(1L, "11111111111")).thenReturn(profile(1L));
+        when(riskProfileService.calculateRiskProfile(3L, "33333333333"))
+                .thenThrow(new ServiceUnavailableException("OFB indisponível"));
+
+        List<RiskProfileBatchItem> items = new CopyOnWriteArrayList<>();
+        service.run(List.of(1L, 2L, 3L, 1L, 4L), id -> id != 4L, items::add);
+
+        Map<Long, Integer> statusById = items.stream()
+                .collect(Collectors.toMap(RiskProfileBatchItem::getClienteId, RiskProfileBatchItem::getStatus));
+        assertEquals(Map.of(1L, 200, 2L, 404, 3L, 503, 4L, 403), statusById);
+        verify(riskProfileService, times(1)).calculateRiskProfile(1L, "11111111111");
+        verify(clientIdentifierMapper, never()).getCpfForClient(anyLong());
+    }
+
+    @Test
+    void shouldScoreWithinConcurrencyBudget() throws Exception {
+        List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L, 6L);
+        when(clientIdentifierMapper.getCpfsForClients(ids)).thenReturn(
+                ids.stream().collect(Collectors.toMap(id -> id, id -> "0000000000" + id)));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        when(riskProfileService.calculateRiskProfile(anyLong(), anyString())).thenAnswer(inv -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(30);
+            active.decrementAndGet();
+            return profile(inv.getArgument(0));
+        });
+
+        List<RiskProfileBatchItem> items = new CopyOnWriteArrayList<>();
+        service.run(ids, id -> true, items::add);
+
+        assertEquals(6, items.size());
+        assertTrue(maxActive.get() <= 2, "at most max-concurrency clients in flight");
+    }
+
+    @Test
+    void shouldRejectStreamsAboveLimitCountingDistinctIds() {
+        assertDoesNotThrow(() -> service.checkStreamSize(List.of(1L, 2L, 3L, 3L)));
+        assertThrows(BatchTooLargeException.class, () -> service.checkStreamSize(List.of(1L, 2L, 3L, 4L)));
+    }
+
+    @Test
+    void shouldExposeJobResultsOnlyToItsOwner() throws Exception {
+        when(clientIdentifierMapper.getCpfsForClients(List.of(1L))).thenReturn(Map.of(1L, "11111111111"));
+        when(riskProfileService.calculateRiskProfile(1L, "11111111111")).thenReturn(profile(1L));
+
+        RiskProfileBatchJobResponse submitted = service.submit(List.of(1L), id -> true, 42L);
+
+        RiskProfileBatchJobResponse job = awaitCompletion(submitted.getJobId(), 42L);
+        assertEquals(1, job.getTotal());
+        assertEquals(1, job.getConcluidos());
+        assertEquals(0, job.getFalhas());
+        assertEquals(PerfilRisco.MODERADO, job.getResultados().get(0).getPerfilRisco().getPerfil());
+        assertTrue(service.findJob(submitted.getJobId(), 42L, 1).orElseThrow().getResultados().isEmpty());
+        assertTrue(service.findJob(submitted.getJobId(), 7L, 0).isEmpty());
+    }
+
+    @Test
+    void shouldRefuseJobsBeyondRunningLimitWithoutEvictingRunningOnes() throws Exception {
+        properties.getBatch().setMaxJobs(1);
+        service.shutdown();
+        service = new RiskProfileBatchService(riskProfileService, clientIdentifierMapper,
+                properties, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        when(clientIdentifierMapper.getCpfsForClients(List.of(1L))).thenReturn(Map.of(1L, "11111111111"));
+        when(riskProfileService.calculateRiskProfile(1L, "11111111111")).thenAnswer(inv -> {
+            release.await();
+            return profile(1L);
+        });
+
+        RiskProfileBatchJobResponse running = service.submit(List.of(1L), id -> true, 42L);
+
+        assertThrows(ServiceUnavailableException.class, () -> service.submit(List.of(1L), id -> true, 42L));
+        assertTrue(service.findJob(running.getJobId(), 42L, 0).isPresent());
+
+        release.countDown();
+        awaitCompletion(running.getJobId(), 42L);
+        RiskProfileBatchJobResponse next = awaitAccepted(() -> service.submit(List.of(1L), id -> true, 42L));
+        awaitCompletion(next.getJobId(), 42L);
+    }
+
+    // The finished job frees its slot just after it is marked done
+    private static RiskProfileBatchJobResponse awaitAccepted(Supplier<RiskProfileBatchJobResponse> submit)
+            throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try {
+                return submit.get();
+            } catch (ServiceUnavailableException e) {
+                Thread.sleep(20);
+            }
+        }
+        return fail("job was not accepted");
+    }
+
+    private RiskProfileBatchJobResponse awaitCompletion(String jobId, Long ownerId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            RiskProfileBatchJobResponse job = service.findJob(jobId, ownerId, 0).orElseThrow();
+            if (job.getStatus() == RiskProfileBatchJobResponse.Status.CONCLUIDO) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        return fail("job did not finish");
+    }
+
+    private static RiskProfileResponse profile(Long clienteId) {
+        return RiskProfileResponse.builder()
+                .clienteId(clienteId)
+                .perfil(PerfilRisco.MODERADO)
+                .pontuacao(55)
+                .descricao("Perfil equilibrado entre segurança e rentabilidade.")
+                .build();
+    }
+}
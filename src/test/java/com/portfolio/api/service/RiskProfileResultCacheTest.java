@@ -0,0 +1,131 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.RiskProfileProperties;
+import com.portfolio.api.model.entity.RiskProfileHistory;
+import com.portfolio.api.model.enums.PerfilRisco;
+import com.portfolio.api.repository.RiskProfileHistoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RiskProfileResultCacheTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private RiskProfileHistoryRepository repository;
+
+    private RiskProfileProperties properties;
+    private MeterRegistry meterRegistry;
+    private RiskProfileResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RiskProfileProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RiskProfileResultCache(repository, properties, meterRegistry);
+    }
+
+    @Test
+    void shouldServeRecordedResultFromMemoryWhileInputIsUnchanged() {
+        cache.record(result(1L, HASH_A, "1"));
+
+        assertTrue(cache.find(1L, HASH_A, "1", TODAY).isPresent());
+
+        verify(repository).save(any(RiskProfileHistory.class));
+        verify(repository, never()).findFirstByClienteIdAndContentHashAndScoringVersionAndCalculatedOnOrderByCalculatedAtDesc(
+                any(), any(), any(), any());
+        assertEquals(1.0, lookups("memory"));
+    }
+
+    @Test
+    void shouldMissWhenPortfolioOrScoringVersionChanges() {
+        cache.record(result(1L, HASH_A, "1"));
+        when(repository.findFirstByClienteIdAndContentHashAndScoringVersionAndCalculatedOnOrderByCalculatedAtDesc(
+                any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        assertTrue(cache.find(1L, HASH_B, "1", TODAY).isEmpty());
+        assertTrue(cache.find(1L, HASH_A, "2", TODAY).isEmpty());
+        assertEquals(2.0, meterRegistry.get("risk.profile.results").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void shouldFallBackToStoredHistoryAndKeepItInMemory() {
+        when(repository.findFirstByClienteIdAndContentHashAndScoringVersionAndCalculatedOnOrderByCalculatedAtDesc(
+                1L, HASH_A, "1", TODAY))
+                .thenReturn(Optional.of(result(1L, HASH_A, "1")));
+
+        assertTrue(cache.find(1L, HASH_A, "1", TODAY).isPresent());
+        assertTrue(cache.find(1L, HASH_A, "1", TODAY).isPresent());
+
+        verify(repository, times(1)).findFirstByClienteIdAndContentHashAndScoringVersionAndCalculatedOnOrderByCalculatedAtDesc(
+                1L, HASH_A, "1", TODAY);
+        assertEquals(1.0, lookups("store"));
+        assertEquals(1.0, lookups("memory"));
+    }
+
+    @Test
+    void shouldMissOnLaterDayForSamePortfolio() {
+        cache.record(result(1L, HASH_A, "1"));
+        when(repository.findFirstByClienteIdAndContentHashAndScoringVersionAndCalculatedOnOrderByCalculatedAtDesc(
+                1L, HASH_A, "1", TODAY.plusDays(1))).thenReturn(Optional.empty());
+
+        // Horizon and frequency scores would differ, so the result must be recalculated
+        assertTrue(cache.find(1L, HASH_A, "1", TODAY.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void shouldKeepServingFromMemoryWhenStoreWriteFails() {
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException("connection lost"));
+
+        assertDoesNotThrow(() -> cache.record(result(1L, HASH_A, "1")));
+        assertTrue(cache.find(1L, HASH_A, "1", TODAY).isPresent());
+    }
+
+    @Test
+    void shouldBypassWhenDisabledOrHashUnknown() {
+        assertTrue(cache.find(1L, null, "1", TODAY).isEmpty());
+
+        properties.getResultCache().setEnabled(false);
+        cache.record(result(1L, HASH_A, "1"));
+        assertTrue(cache.find(1L, HASH_A, "1", TODAY).isEmpty());
+
+        verifyNoInteractions(repository);
+    }
+
+    private double lookups(String tier) {
+        return meterRegistry.get("risk.profile.results").tag("result", "hit").tag("tier", tier).counter().count();
+    }
+
+    private static RiskProfileHistory result(Long clienteId, String hash, String version) {
+        return RiskProfileHistory.builder()
+                .clienteId(clienteId)
+                .contentHash(hash)
+                .scoringVersion(version)
+                .perfil(PerfilRisco.MODERADO)
+                .pontuacao(55)
+                .amountScore(40)
+                .frequencyScore(40)
+                .productRiskScore(60)
+                .liquidityScore(60)
+                .horizonScore(60)
+                .calculatedOn(TODAY)
+                .build();
+    }
+}
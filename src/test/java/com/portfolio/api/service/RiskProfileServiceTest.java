@@ -1,33 +1,40 @@
 package com.portfolio.api.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.portfolio.api.mapper.ClientIdentifierMapper;
 import com.portfolio.api.model.dto.response.RiskProfileResponse;
+import com.portfolio.api.model.entity.RiskProfileHistory;
 import com.portfolio.api.model.enums.PerfilRisco;
 import com.portfolio.api.model.enums.TipoProduto;
-import com.portfolio.api.provider.InvestmentPlatformProvider;
 import com.portfolio.api.provider.dto.Investment;
-import com.portfolio.api.repository.InvestmentDataCacheRepository;
+import com.portfolio.api.provider.dto.PortfolioSnapshot;
 import com.portfolio.api.scorer.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class RiskProfileServiceTest {
 
+    private static final String CONTENT_HASH = "a".repeat(64);
+    private static final CompiledScoringModel MODEL = CompiledScoringModel.builtIn();
+
     @Mock
     private AmountScorer amountCalculator;
 
@@ -47,20 +54,24 @@ class RiskProfileServiceTest {
     private CustomerValidationService customerValidationService;
 
     @Mock
-    private InvestmentPlatformProvider investmentPlatformProvider;
+    private ClientIdentifierMapper clientIdentifierMapper;
 
     @Mock
-    private ClientIdentifierMapper clientIdentifierMapper;
+    private PortfolioDataCache portfolioDataCache;
 
     @Mock
-    private InvestmentDataCacheRepository cacheRepository;
+    private RiskProfileResultCache resultCache;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private ScoringModelRegistry scoringModelRegistry;
 
     @InjectMocks
     private RiskProfileService service;
 
+    @BeforeEach
+    void setUp() {
+        when(scoringModelRegistry.modelFor(any())).thenReturn(MODEL);
+    }
     @Test
     void shouldClassifyAsConservadorLowScore() {
         Long clienteId = 1L;
@@ -68,12 +79,12 @@ class RiskProfileServiceTest {
         List<Investment> conservativeInvestments = createConservativeInvestments();
 
         when(clientIdentifierMapper.getCpfForClient(clienteId)).thenReturn(Optional.of(cpf));
-        when(investmentPlatformProvider.getInvestmentHistory(cpf)).thenReturn(conservativeInvestments);
-        when(amountCalculator.calculateAmountScore(conservativeInvestments)).thenReturn(20);
-        when(frequencyCalculator.calculateFrequencyScore(conservativeInvestments)).thenReturn(10);
-        when(productRiskCalculator.calculateProductRiskScore(conservativeInvestments)).thenReturn(20);
-        when(liquidityCalculator.calculateLiquidityScore(conservativeInvestments)).thenReturn(10);
-        when(horizonCalculator.calculateHorizonScore(conservativeInvestments)).thenReturn(10);
+        when(portfolioDataCache.getSnapshot(cpf)).thenReturn(snapshot(cpf, conservativeInvestments));
+        when(amountCalculator.calculateAmountScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(20);
+        when(frequencyCalculator.calculateFrequencyScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(10);
+        when(productRiskCalculator.calculateProductRiskScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(20);
+        when(liquidityCalculator.calculateLiquidityScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(10);
+        when(horizonCalculator.calculateHorizonScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(10);
 
         RiskProfileResponse response = service.calculateRiskProfile(clienteId);
 
@@ -89,12 +100,12 @@ class RiskProfileServiceTest {
         List<Investment> moderateInvestments = createModerateInvestments();
 
         when(clientIdentifierMapper.getCpfForClient(clienteId)).thenReturn(Optional.of(cpf));
-        when(investmentPlatformProvider.getInvestmentHistory(cpf)).thenReturn(moderateInvestments);
-        when(amountCalculator.calculateAmountScore(moderateInvestments)).thenReturn(50);
-        when(frequencyCalculator.calculateFrequencyScore(moderateInvestments)).thenReturn(50);
-        when(productRiskCalculator.calculateProductRiskScore(moderateInvestments)).thenReturn(45);
-        when(liquidityCalculator.calculateLiquidityScore(moderateInvestments)).thenReturn(45);
-        when(horizonCalculator.calculateHorizonScore(moderateInvestments)).thenReturn(40);
+        when(portfolioDataCache.getSnapshot(cpf)).thenReturn(snapshot(cpf, moderateInvestments));
+        when(amountCalculator.calculateAmountScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(50);
+        when(frequencyCalculator.calculateFrequencyScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(50);
+        when(productRiskCalculator.calculateProductRiskScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(45);
+        when(liquidityCalculator.calculateLiquidityScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(45);
+        when(horizonCalculator.calculateHorizonScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(40);
 
         RiskProfileResponse response = service.calculateRiskProfile(clienteId);
 
@@ -110,12 +121,12 @@ class RiskProfileServiceTest {
         List<Investment> aggressiveInvestments = createAggressiveInvestments();
 
         when(clientIdentifierMapper.getCpfForClient(clienteId)).thenReturn(Optional.of(cpf));
-        when(investmentPlatformProvider.getInvestmentHistory(cpf)).thenReturn(aggressiveInvestments);
-        when(amountCalculator.calculateAmountScore(aggressiveInvestments)).thenReturn(90);
-        when(frequencyCalculator.calculateFrequencyScore(aggressiveInvestments)).thenReturn(100);
-        when(productRiskCalculator.calculateProductRiskScore(aggressiveInvestments)).thenReturn(90);
-        when(liquidityCalculator.calculateLiquidityScore(aggressiveInvestments)).thenReturn(100);
-        when(horizonCalculator.calculateHorizonScore(aggressiveInvestments)).thenReturn(90);
+        when(portfolioDataCache.getSnapshot(cpf)).thenReturn(snapshot(cpf, aggressiveInvestments));
+        when(amountCalculator.calculateAmountScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(90);
+        when(frequencyCalculator.calculateFrequencyScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(100);
+        when(productRiskCalculator.calculateProductRiskScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(90);
+        when(liquidityCalculator.calculateLiquidityScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(100);
+        when(horizonCalculator.calculateHorizonScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(90);
 
         RiskProfileResponse response = service.calculateRiskProfile(clienteId);
 
@@ -124,6 +135,58 @@ class RiskProfileServiceTest {
         assertEquals("Perfil de alto risco, focado em alta rentabilidade.", response.getDescricao());
     }
 
+    @Test
+    void shouldReuseStoredResultWithoutScoring() {
+        Long clienteId = 1L;
+        String cpf = "12345678900";
+        when(clientIdentifierMapper.getCpfForClient(clienteId)).thenReturn(Optional.of(cpf));
+        when(portfolioDataCache.getSnapshot(cpf)).thenReturn(snapshot(cpf, createModerateInvestments()));
+        when(resultCache.find(eq(clienteId), eq(CONTENT_HASH), eq(MODEL.getFingerprint()), any(LocalDate.class)))
+                .thenReturn(Optional.of(RiskProfileHistory.builder()
+                        .clienteId(clienteId)
+                        .perfil(PerfilRisco.MODERADO)
+                        .pontuacao(55)
+                        .build()));
+
+        RiskProfileResponse response = service.calculateRiskProfile(clienteId);
+
+        assertEquals(PerfilRisco.MODERADO, response.getPerfil());
+        assertEquals(55, response.getPontuacao());
+        assertEquals("Perfil equilibrado entre segurança e rentabilidade.", response.getDescricao());
+        verifyNoInteractions(amountCalculator, frequencyCalculator, productRiskCalculator,
+                liquidityCalculator, horizonCalculator);
+        verify(resultCache, never()).record(any());
+    }
+
+    @Test
+    void shouldRecordScoresUnderPortfolioHashAndScoringVersion() {
+        Long clienteId = 1L;
+        String cpf = "12345678900";
+        when(clientIdentifierMapper.getCpfForClient(clienteId)).thenReturn(Optional.of(cpf));
+        when(portfolioDataCache.getSnapshot(cpf)).thenReturn(snapshot(cpf, createConservativeInvestments()));
+        when(amountCalculator.calculateAmountScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(20);
+        when(frequencyCalculator.calculateFrequencyScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(10);
+        when(productRiskCalculator.calculateProductRiskScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(20);
+        when(liquidityCalculator.calculateLiquidityScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(10);
+        when(horizonCalculator.calculateHorizonScore(any(PortfolioFeatures.class), eq(MODEL))).thenReturn(10);
+
+        RiskProfileResponse response = service.calculateRiskProfile(clienteId);
+
+        ArgumentCaptor<RiskProfileHistory> recorded = ArgumentCaptor.forClass(RiskProfileHistory.class);
+        verify(resultCache).record(recorded.capture());
+        assertEquals(clienteId, recorded.getValue().getClienteId());
+        assertEquals(CONTENT_HASH, recorded.getValue().getContentHash());
+        assertEquals(MODEL.getFingerprint(), recorded.getValue().getScoringVersion());
+        assertEquals(response.getPontuacao(), recorded.getValue().getPontuacao());
+        assertEquals(20, recorded.getValue().getProductRiskScore());
+        assertEquals(LocalDate.now(), recorded.getValue().getCalculatedOn());
+        assertEquals(MODEL.getCustomFactorNames(), List.copyOf(recorded.getValue().getCustomScores().keySet()));
+    }
+
+    private static PortfolioSnapshot snapshot(String cpf, List<Investment> investments) {
+        return PortfolioSnapshot.fromHistory(cpf, LocalDateTime.now(), investments).withContentHash(CONTENT_HASH);
+    }
+
     private List<Investment> createConservativeInvestments() {
         return Arrays.asList(
                 createInvestment(TipoProduto.POUPANCA, new BigDecimal("5000")),
@@ -0,0 +1,105 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.RiskProfileProperties;
+import com.portfolio.api.scorer.CompiledScoringModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringModelRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    private String builtInJson;
+    private RiskProfileProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(CompiledScoringModel.BUILT_IN_LOCATION)) {
+            builtInJson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        properties = new RiskProfileProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldSwapInChangedModelAndKeepItWhenNextFileIsInvalid() throws IOException {
+        Path file = write("model.json", builtInJson);
+        properties.getModel().setLocation(file.toUri().toString());
+        ScoringModelRegistry registry = registry();
+        String original = registry.modelFor(1L).getFingerprint();
+
+        Files.writeString(file, builtInJson.replace("\"version\": \"1\"", "\"version\": \"2\""));
+        registry.reload();
+        assertEquals("2", registry.modelFor(1L).getVersion());
+
+        Files.writeString(file, builtInJson.replace("\"amount\": 0.25", "\"amount\": 0.9"));
+        registry.reload();
+        assertEquals("2", registry.modelFor(1L).getVersion());
+        assertNotEquals(original, registry.modelFor(1L).getFingerprint());
+        assertEquals(1.0, reloads("applied"));
+        assertEquals(1.0, reloads("rejected"));
+    }
+
+    @Test
+    void shouldFailFastOnInvalidModelAtStartup() throws IOException {
+        Path file = write("model.json", builtInJson.replace("\"version\": \"1\",", ""));
+        properties.getModel().setLocation(file.toUri().toString());
+
+        assertThrows(IllegalArgumentException.class, this::registry);
+    }
+
+    @Test
+    void shouldSplitClientsStablyBetweenControlAndCandidate() throws IOException {
+        Path candidate = write("candidate.json", builtInJson.replace("\"version\": \"1\"", "\"version\": \"2\""));
+        properties.getModel().setCandidateLocation(candidate.toUri().toString());
+        properties.getModel().setCandidatePercent(20);
+        ScoringModelRegistry registry = registry();
+
+        int candidates = 0;
+        for (long clienteId = 1; clienteId <= 10_000; clienteId++) {
+            String version = registry.modelFor(clienteId).getVersion();
+            assertEquals(version, registry.modelFor(clienteId).getVersion());
+            if ("2".equals(version)) {
+                candidates++;
+            }
+        }
+
+        assertTrue(candidates > 1_700 && candidates < 2_300, "about 20% on the candidate, got " + candidates);
+    }
+
+    @Test
+    void shouldIgnoreCandidateWhenPercentIsZero() throws IOException {
+        Path candidate = write("candidate.json", "not even json");
+        properties.getModel().setCandidateLocation(candidate.toUri().toString());
+
+        ScoringModelRegistry registry = registry();
+
+        assertEquals(CompiledScoringModel.builtIn().getFingerprint(), registry.modelFor(7L).getFingerprint());
+    }
+
+    private ScoringModelRegistry registry() {
+        return new ScoringModelRegistry(new DefaultResourceLoader(), properties, meterRegistry);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+
+    private double reloads(String result) {
+        return meterRegistry.get("risk.model.reloads").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,128 @@
+package com.portfolio.api.service;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.portfolio.api.config.AuthServerProperties;
+import com.portfolio.api.model.entity.SigningKey;
+import com.portfolio.api.repository.SigningKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class SigningKeyServiceTest {
+
+    private static final String ENCRYPTION_KEY = "ZGV2LW9ubHktc2lnbmluZy1rZXktZW5jcnlwdGlvbiE=";
+
+    @Autowired
+    private SigningKeyRepository signingKeyRepository;
+
+    private AuthServerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        signingKeyRepository.deleteAll();
+        properties = new AuthServerProperties();
+        properties.getSigningKeys().setEncryptionKey(ENCRYPTION_KEY);
+    }
+
+    @Test
+    void shouldShareGeneratedKeyAcrossNodes() {
+        SigningKeyService node1 = new SigningKeyService(signingKeyRepository, properties);
+        SigningKeyService node2 = new SigningKeyService(signingKeyRepository, properties);
+
+        String kid = node1.getSigningKeyId();
+
+        assertThat(node2.getSigningKeyId()).isEqualTo(kid);
+        assertThat(node2.getJwkSet().getKeyByKeyId(kid).toRSAKey().toPublicJWK())
+                .isEqualTo(node1.getJwkSet().getKeyByKeyId(kid).toRSAKey().toPublicJWK());
+        assertThat(signingKeyRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void shouldStorePrivateKeyEncrypted() throws Exception {
+        SigningKeyService service = new SigningKeyService(signingKeyRepository, properties);
+        String kid = service.getSigningKeyId();
+
+        SigningKey stored = signingKeyRepository.findById(kid).orElseThrow();
+        String plainPkcs8 = java.util.Base64.getEncoder().encodeToString(
+                service.getJwkSet().getKeyByKeyId(kid).toRSAKey().toPrivateKey().getEncoded());
+
+        assertThat(stored.getPrivateKey()).isNotEqualTo(plainPkcs8);
+    }
+
+    @Test
+    void shouldPublishSuccessorBeforeItStartsSigning() {
+        SigningKeyService service = new SigningKeyService(signingKeyRepository, properties);
+        String currentKid = service.getSigningKeyId();
+
+        properties.getSigningKeys().setRotationIntervalHours(0);
+        service.rotateIfDue();
+
+        JWKSet jwkSet = service.getJwkSet();
+        assertThat(jwkSet.getKeys()).hasSize(2);
+        // Current key stays first and keeps signing until the successor activates
+        assertThat(service.getSigningKeyId()).isEqualTo(currentKid);
+        assertThat(jwkSet.getKeys().getFirst().getKeyID()).isEqualTo(currentKid);
+    }
+
+    @Test
+    void shouldSwitchToSuccessorOnceActiveAndKeepPreviousDuringRetention() {
+        SigningKeyService seed = new SigningKeyService(signingKeyRepository, properties);
+        String previousKid = seed.getSigningKeyId();
+        SigningKey previous = signingKeyRepository.findById(previousKid).orElseThrow();
+        previous.setActivatesAt(LocalDateTime.now().minusDays(31));
+        signingKeyRepository.save(previous);
+
+        properties.getSigningKeys().setPublishAheadMinutes(0);
+        seed.rotateIfDue();
+
+        SigningKeyService service = new SigningKeyService(signingKeyRepository, properties);
+        assertThat(service.getSigningKeyId()).isNotEqualTo(previousKid);
+        assertThat(service.getJwkSet().getKeyByKeyId(previousKid)).isNotNull();
+    }
+
+    @Test
+    void shouldDeleteKeysPastRetention() {
+        SigningKeyService service = new SigningKeyService(signingKeyRepository, properties);
+        String currentKid = service.getSigningKeyId();
+        SigningKey current = signingKeyRepository.findById(currentKid).orElseThrow();
+        current.setActivatesAt(LocalDateTime.now().minusDays(2));
+        signingKeyRepository.save(current);
+
+        // A key superseded two days ago, well past the 24h retention window
+        SigningKey retired = SigningKey.builder()
+                .kid("retired")
+                .publicKey(current.getPublicKey())
+                .privateKey(current.getPrivateKey())
+                .createdAt(LocalDateTime.now().minusDays(40))
+                .activatesAt(LocalDateTime.now().minusDays(40))
+                .build();
+        signingKeyRepository.save(retired);
+
+        service.rotateIfDue();
+
+        List<String> kids = service.getJwkSet().getKeys().stream().map(JWK::getKeyID).toList();
+        assertThat(kids).containsExactly(currentKid);
+        assertThat(signingKeyRepository.findById("retired")).isEmpty();
+    }
+
+    @Test
+    void shouldRefuseToSignWhenKeysCannotBeDecrypted() {
+        new SigningKeyService(signingKeyRepository, properties).getSigningKeyId();
+
+        properties.getSigningKeys().setEncryptionKey("b3RoZXItZW5jcnlwdGlvbi1rZXktMzItYnl0ZXMhISE=");
+        SigningKeyService wrongKey = new SigningKeyService(signingKeyRepository, properties);
+
+        assertThatThrownBy(wrongKey::getSigningKeyId).isInstanceOf(IllegalStateException.class);
+    }
+}
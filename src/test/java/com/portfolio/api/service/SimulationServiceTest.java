@@ -21,6 +21,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +36,9 @@ class SimulationServiceTest {
     @Mock
     private InvestmentCalculator investmentCalculator;
 
+    @Mock
+    private SimulationWriteBehind simulationWriteBehind;
+
     @InjectMocks
     private SimulationService simulationService;
 
@@ -76,6 +80,22 @@ class SimulationServiceTest {
         verify(simulationRepository, times(1)).save(any());
     }
 
+    @Test
+    void shouldQueueSimulationInsteadOfSavingWhenWriteBehindIsEnabled() {
+        when(productService.findMatchingProduct(any(TipoProduto.class), any(), anyInt()))
+                .thenReturn(Optional.of(testProduct));
+        when(investmentCalculator.calculateFinalValue(any(), any(), anyInt()))
+                .thenReturn(new BigDecimal("11200.00"));
+        when(simulationWriteBehind.isEnabled()).thenReturn(true);
+
+        SimulationResponse response = simulationService.simulateInvestment(testRequest);
+
+        assertNotNull(response.getDataSimulacao());
+        verify(simulationWriteBehind).enqueue(argThat(simulation ->
+                simulation.getProdutoId().equals(1L) && simulation.getClienteId().equals(123L)));
+        verify(simulationRepository, never()).save(any());
+    }
+
     @Test
     void shouldThrowExceptionWhenProductNotFound() {
         when(productService.findMatchingProduct(any(TipoProduto.class), any(), anyInt()))
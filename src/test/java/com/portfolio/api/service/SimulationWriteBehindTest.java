@@ -0,0 +1,168 @@
+package com.portfolio.api.service;
+
+import com.portfolio.api.config.SimulationProperties;
+import com.portfolio.api.exception.ServiceUnavailableException;
+import com.portfolio.api.model.entity.Simulation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SimulationWriteBehindTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SimulationProperties properties;
+    private MeterRegistry meterRegistry;
+    private long produtoId;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:simulation-writer-" + UUID.randomUUID() + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V01__create_products_table.sql"),
+                new ClassPathResource("db/migration/V02__create_simulations_table.sql"))
+                .execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("""
+                INSERT INTO produtos (nome, tipo, rentabilidade, risco, valor_minimo, prazo_minimo_meses)
+                VALUES ('CDB Teste', 'CDB', 0.12, 'Baixo', 1000, 6)""");
+        produtoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM produtos", Long.class);
+
+        properties = new SimulationProperties();
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setBatchSize(3);
+        properties.getWriteBehind().setFlushIntervalMs(20);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldWriteQueuedSimulationsInBatchesAndDrainOnShutdown() throws InterruptedException {
+        SimulationWriteBehind writer = new SimulationWriteBehind(jdbcTemplate, transactionTemplate, properties, meterRegistry);
+
+        for (long clienteId = 1; clienteId <= 7; clienteId++) {
+            writer.enqueue(simulation(clienteId, produtoId));
+        }
+        writer.shutdown();
+
+        assertThat(jdbcTemplate.queryForList("SELECT cliente_id FROM simulacoes ORDER BY cliente_id", Long.class))
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(rows("written")).isEqualTo(7.0);
+        assertThatThrownBy(() -> writer.enqueue(simulation(8L, produtoId)))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void shouldKeepGoodRowsWhenOneRowOfTheBatchFails() {
+        properties.getWriteBehind().setEnabled(false);
+        SimulationWriteBehind writer = new SimulationWriteBehind(jdbcTemplate, transactionTemplate, properties, meterRegistry);
+
+        writer.write(List.of(simulation(1L, produtoId), simulation(2L, 999L), simulation(3L, produtoId)));
+
+        assertThat(jdbcTemplate.queryForList("SELECT cliente_id FROM simulacoes ORDER BY cliente_id", Long.class))
+                .containsExactly(1L, 3L);
+        assertThat(rows("written")).isEqualTo(2.0);
+        assertThat(rows("dropped")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepBatchAndRetryWhenDatabaseIsBrieflyUnavailable() throws InterruptedException {
+        properties.getWriteBehind().setRetryBackoffMs(10);
+        AtomicBoolean failNextConnection = new AtomicBoolean(true);
+        DataSource flaky = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (failNextConnection.getAndSet(false)) {
+                    throw new SQLException("Connection reset", "08S01");
+                }
+                return super.getConnection();
+            }
+        };
+        JdbcTemplate flakyJdbc = new JdbcTemplate(flaky);
+        SimulationWriteBehind writer = new SimulationWriteBehind(flakyJdbc,
+                new TransactionTemplate(new DataSourceTransactionManager(flaky)), properties, meterRegistry);
+
+        for (long clienteId = 1; clienteId <= 5; clienteId++) {
+            writer.enqueue(simulation(clienteId, produtoId));
+        }
+        writer.shutdown();
+
+        assertThat(jdbcTemplate.queryForList("SELECT cliente_id FROM simulacoes ORDER BY cliente_id", Long.class))
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(rows("written")).isEqualTo(5.0);
+        assertThat(rows("dropped")).isZero();
+        assertThat(meterRegistry.get("simulation.write_behind.retries").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRejectWhenQueueStaysFull() throws InterruptedException {
+        properties.getWriteBehind().setQueueCapacity(1);
+        properties.getWriteBehind().setBatchSize(1);
+        properties.getWriteBehind().setOfferTimeoutMs(10);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate blockingTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(blockingTemplate).executeWithoutResult(any(Consumer.class));
+        SimulationWriteBehind writer = new SimulationWriteBehind(jdbcTemplate, blockingTemplate, properties, meterRegistry);
+
+        writer.enqueue(simulation(1L, produtoId));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.enqueue(simulation(2L, produtoId));
+
+        assertThatThrownBy(() -> writer.enqueue(simulation(3L, produtoId)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(rows("rejected")).isEqualTo(1.0);
+
+        release.countDown();
+        writer.shutdown();
+    }
+
+    private double rows(String outcome) {
+        return meterRegistry.get("simulation.write_behind.rows").tag("outcome", outcome).counter().count();
+    }
+
+    private static Simulation simulation(Long clienteId, Long produtoId) {
+        Simulation simulation = new Simulation();
+        simulation.setClienteId(clienteId);
+        simulation.setProdutoId(produtoId);
+        simulation.setProdutoNome("CDB Teste");
+        simulation.setValorInvestido(new BigDecimal("10000.00"));
+        simulation.setValorFinal(new BigDecimal("11200.00"));
+        simulation.setPrazoMeses(12);
+        simulation.setDataSimulacao(LocalDateTime.now());
+        return simulation;
+    }
+}
@@ -0,0 +1,176 @@
+package com.portfolio.api.service.external;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.portfolio.api.config.OFBProviderProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JWSVerificationServiceTest {
+
+    private static RSAKey key1;
+    private static RSAKey key2;
+
+    @Mock
+    private OFBOAuth2Client oAuth2Client;
+
+    private OFBProviderProperties properties;
+    private MeterRegistry meterRegistry;
+    private JWSVerificationPool verificationPool;
+    private JWSVerificationService service;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        key1 = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        key2 = new RSAKeyGenerator(2048).keyID("key-2").generate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties = new OFBProviderProperties();
+        properties.getVerification().setThreads(2);
+        meterRegistry = new SimpleMeterRegistry();
+        verificationPool = new JWSVerificationPool(properties, meterRegistry);
+        service = new JWSVerificationService(oAuth2Client, properties, verificationPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verificationPool.shutdown();
+    }
+
+    @Test
+    void shouldFetchJwksOnceAndReuseVerifier() throws Exception {
+        when(oAuth2Client.getJwks()).thenReturn(jwks(key1));
+
+        assertEquals("{\"n\":1}", service.verifyAndExtractPayload(sign(key1, "{\"n\":1}")));
+        assertEquals("{\"n\":2}", service.verifyAndExtractPayload(sign(key1, "{\"n\":2}")));
+
+        verify(oAuth2Client, times(1)).getJwks();
+    }
+
+    @Test
+    void shouldVerifyOnPoolAndRecordLatency() throws Exception {
+        when(oAuth2Client.getJwks()).thenReturn(jwks(key1));
+
+        service.verifyAndExtractPayload(sign(key1, "{}"));
+        service.verifyAndExtractPayload(sign(key1, "{}"));
+
+        assertEquals(2, meterRegistry.get("ofb.jws.verification").timer().count());
+        assertEquals(0.0, meterRegistry.get("ofb.jws.verification.queue.depth").gauge().value());
+    }
+
+    @Test
+    void shouldRejectTamperedSignature() throws Exception {
+        when(oAuth2Client.getJwks()).thenReturn(jwks(key1));
+        // Signed with key-2's private key but labelled key-1
+        String forged = sign(new RSAKey.Builder(key2).keyID("key-1").build(), "{}");
+
+        assertThrows(SecurityException.class, () -> service.verifyAndExtractPayload(forged));
+    }
+
+    @Test
+    void shouldRefreshOnUnknownKeyIdAfterRotation() throws Exception {
+        properties.getJwks().setMinRefreshIntervalSeconds(0);
+        when(oAuth2Client.getJwks()).thenReturn(jwks(key1), jwks(key1, key2));
+
+        service.verifyAndExtractPayload(sign(key1, "{}"));
+        assertEquals("{}", service.verifyAndExtractPayload(sign(key2, "{}")));
+
+        verify(oAuth2Client, times(2)).getJwks();
+    }
+
+    @Test
+    void shouldRateLimitRefreshesForUnknownKeyIds() throws Exception {
+        when(oAuth2Client.getJwks()).thenReturn(jwks(key1));
+        service.verifyAndExtractPayload(sign(key1, "{}"));
+
+        // Within the minimum interval since the last fetch, unknown kids fail without refetching
+        String unknown = sign(key2, "{}");
+        assertThrows(SecurityException.class, () -> service.verifyAndExtractPayload(unknown));
+        assertThrows(SecurityException.class, () -> service.verifyAndExtractPayload(unknown));
+        assertThrows(SecurityException.class, () -> service.verifyAndExtractPayload(unknown));
+
+        verify(oAuth2Client, times(1)).getJwks();
+    }
+
+    @Test
+    void shouldKeepPreviousKeysWhenExpiredRefreshFails() throws Exception {
+        properties.getJwks().setCacheTtlSeconds(0);
+        properties.getJwks().setMinRefreshIntervalSeconds(0);
+        when(oAuth2Client.getJwks())
+                .thenReturn(jwks(key1))
+                .thenThrow(new RuntimeException("JWKS endpoint down"));
+
+        service.verifyAndExtractPayload(sign(key1, "{}"));
+
+        assertEquals("{}", service.verifyAndExtractPayload(sign(key1, "{}")));
+    }
+
+    @Test
+    void shouldFetchJwksOnceForConcurrentFirstUse() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(oAuth2Client.getJwks()).thenAnswer(inv -> {
+            fetchStarted.countDown();
+            releaseFetch.await();
+            return jwks(key1);
+        });
+        String token = sign(key1, "{}");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> service.verifyAndExtractPayload(token)));
+            }
+            fetchStarted.await();
+            Thread.sleep(100);
+            releaseFetch.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("{}", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(oAuth2Client, times(1)).getJwks();
+    }
+
+    private static String sign(RSAKey key, String payload) throws Exception {
+        JWSObject jws = new JWSObject(
+                new JWSHeader.Builder(JWSAlgorithm.PS256).keyID(key.getKeyID()).build(),
+                new Payload(payload));
+        jws.sign(new RSASSASigner(key));
+        return jws.serialize();
+    }
+
+    private static String jwks(RSAKey... keys) {
+        return new JWKSet(List.of(keys)).toPublicJWKSet().toString();
+    }
+}
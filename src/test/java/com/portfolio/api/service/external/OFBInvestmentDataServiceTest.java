@@ -0,0 +1,340 @@
+package com.portfolio.api.service.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.config.OFBProviderProperties;
+import com.portfolio.api.mapper.OFBInvestmentMapperImpl;
+import com.portfolio.api.model.entity.TransactionSyncState;
+import com.portfolio.api.repository.TransactionSyncStateRepository;
+import com.portfolio.api.service.external.OFBInvestmentDataService.InvestmentData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OFBInvestmentDataServiceTest {
+
+    private static final String CPF = "12345678901";
+    private static final String EMPTY_LIST = "{\"data\":[]}";
+    private static final String FUND_DETAIL = "{\"data\":{\"anbimaCategory\":\"RENDA_FIXA\",\"name\":\"Fundo Teste\"}}";
+    private static final String BALANCE = "{\"data\":{\"netAmount\":{\"amount\":1100.0},\"grossAmount\":{\"amount\":1000.0}}}";
+    private static final String TRANSACTIONS =
+            "{\"data\":[{\"transactionDate\":\"2024-06-01\"},{\"transactionDate\":\"2023-01-01\"}]}";
+
+    @Mock
+    private OFBBankFixedIncomesClient bankFixedIncomesClient;
+
+    @Mock
+    private OFBCreditFixedIncomesClient creditFixedIncomesClient;
+
+    @Mock
+    private OFBFundsClient fundsClient;
+
+    @Mock
+    private OFBTreasuryTitlesClient treasuryTitlesClient;
+
+    @Mock
+    private OFBVariableIncomesClient variableIncomesClient;
+
+    @Mock
+    private JWSVerificationService jwsVerificationService;
+
+    @Mock
+    private TransactionSyncStateRepository syncStateRepository;
+
+    private OFBProviderProperties properties;
+    private OFBInvestmentDataService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new OFBProviderProperties();
+        properties.getFanOut().setMaxConcurrency(4);
+        properties.getFanOut().setDeadlineMs(5000);
+
+        // Payloads are plain JSON in these tests: verification is a pass-through
+        when(jwsVerificationService.verifyAndExtractPayload(anyString())).thenAnswer(inv -> inv.getArgument(0));
+
+        when(bankFixedIncomesClient.getInvestments(anyString())).thenReturn(EMPTY_LIST);
+        when(creditFixedIncomesClient.getInvestments(anyString())).thenReturn(EMPTY_LIST);
+        when(treasuryTitlesClient.getInvestments(anyString())).thenReturn(EMPTY_LIST);
+        when(variableIncomesClient.getInvestments(anyString())).thenReturn(EMPTY_LIST);
+
+        when(fundsClient.getInvestments(anyString()))
+                .thenReturn("{\"data\":[{\"investmentId\":\"fund-1\"},{\"investmentId\":\"fund-2\"}]}");
+        when(fundsClient.getInvestmentDetail(anyString(), anyString(), any())).thenReturn(ResponseEntity.ok(FUND_DETAIL));
+        when(fundsClient.getInvestmentBalances(anyString(), anyString(), any())).thenReturn(ResponseEntity.ok(BALANCE));
+        when(fundsClient.getInvestmentTransactions(anyString(), anyString(), any(), any(), any(), any())).thenReturn(TRANSACTIONS);
+
+        service = new OFBInvestmentDataService(
+                bankFixedIncomesClient,
+                creditFixedIncomesClient,
+                fundsClient,
+                treasuryTitlesClient,
+                variableIncomesClient,
+                jwsVerificationService,
+                new ObjectMapper().findAndRegisterModules(),
+                new OFBInvestmentMapperImpl(),
+                properties,
+                new OFBTransactionSync(syncStateRepository, properties, new SimpleMeterRegistry()),
+                new OFBConditionalCache(properties, new SimpleMeterRegistry())
+        );
+    }
+
+    @Test
+    void shouldFetchAndEnrichInvestmentsFromAllGroups() throws Exception {
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        assertEquals(2, investments.size());
+        assertEquals("fund-1", investments.get(0).getInvestmentId());
+        assertEquals("fund-2", investments.get(1).getInvestmentId());
+
+        InvestmentData fund = investments.get(0);
+        assertEquals("RENDA_FIXA", fund.getType());
+        assertEquals(1000.0, fund.getInvestedAmount());
+        assertEquals(1100.0, fund.getCurrentValue());
+        assertEquals(2, fund.getTransactionCount());
+        assertEquals(LocalDate.of(2023, 1, 1), fund.getFirstTransactionDate());
+        assertEquals(LocalDate.of(2024, 6, 1), fund.getLastTransactionDate());
+
+        verify(bankFixedIncomesClient).getInvestments("Bearer token");
+        verify(variableIncomesClient).getInvestments("Bearer token");
+    }
+
+    @Test
+    void shouldKeepOtherGroupsWhenOneGroupFails() throws Exception {
+        when(bankFixedIncomesClient.getInvestments(anyString())).thenThrow(new RuntimeException("connection reset"));
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        assertEquals(2, investments.size());
+    }
+
+    @Test
+    void shouldReturnPartialResultsWhenDeadlineIsExceeded() throws Exception {
+        properties.getFanOut().setDeadlineMs(300);
+        when(fundsClient.getInvestmentDetail(anyString(), eq("fund-2"), any())).thenAnswer(inv -> {
+            Thread.sleep(10_000);
+            return ResponseEntity.ok(FUND_DETAIL);
+        });
+
+        long start = System.nanoTime();
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(1, investments.size());
+        assertEquals("fund-1", investments.get(0).getInvestmentId());
+        assertTrue(elapsedMs < 5000, "fetch should stop at the deadline, took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void shouldIssueDetailBalanceAndTransactionsCallsConcurrently() throws Exception {
+        // Each call blocks until all three are in flight - a sequential pipeline would time out here
+        CyclicBarrier allInFlight = new CyclicBarrier(3);
+        when(fundsClient.getInvestmentDetail(anyString(), eq("fund-1"), any())).thenAnswer(inv -> {
+            allInFlight.await(2, TimeUnit.SECONDS);
+            return ResponseEntity.ok(FUND_DETAIL);
+        });
+        when(fundsClient.getInvestmentBalances(anyString(), eq("fund-1"), any())).thenAnswer(inv -> {
+            allInFlight.await(2, TimeUnit.SECONDS);
+            return ResponseEntity.ok(BALANCE);
+        });
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), any(), any())).thenAnswer(inv -> {
+            allInFlight.await(2, TimeUnit.SECONDS);
+            return TRANSACTIONS;
+        });
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        InvestmentData fund = investments.stream()
+                .filter(i -> "fund-1".equals(i.getInvestmentId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1100.0, fund.getCurrentValue());
+        assertEquals(2, fund.getTransactionCount());
+    }
+
+    @Test
+    void shouldApplyDefaultsWhenBalanceAndTransactionsFail() throws Exception {
+        when(fundsClient.getInvestmentBalances(anyString(), anyString(), any())).thenThrow(new RuntimeException("503"));
+        when(fundsClient.getInvestmentTransactions(anyString(), anyString(), any(), any(), any(), any())).thenThrow(new RuntimeException("503"));
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        assertEquals(2, investments.size());
+        InvestmentData fund = investments.get(0);
+        assertEquals(0.0, fund.getCurrentValue());
+        assertEquals(0.0, fund.getProfitability());
+        assertEquals(0, fund.getTransactionCount());
+    }
+
+    @Test
+    void shouldDownloadFullHistoryAndStoreWatermarkForNewInvestments() throws Exception {
+        service.fetchInvestments(CPF, "token");
+
+        verify(fundsClient).getInvestmentTransactions(anyString(), eq("fund-1"), isNull(), isNull(), any(), any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransactionSyncState>> saved = ArgumentCaptor.forClass(List.class);
+        verify(syncStateRepository).saveAll(saved.capture());
+        TransactionSyncState state = saved.getValue().get(0);
+        assertEquals(CPF, state.getCpf());
+        assertEquals(2, state.getTransactionCount());
+        assertEquals(LocalDate.of(2024, 6, 1), state.getLastTransactionDate());
+        assertEquals(1, state.getLastDateCount());
+    }
+
+    @Test
+    void shouldRequestOnlyTransactionsSinceWatermark() throws Exception {
+        // 40 known transactions, 2 of them on 2024-06-01; OFB now returns those 2 plus one newer
+        when(syncStateRepository.findByCpf(CPF)).thenReturn(List.of(TransactionSyncState.builder()
+                .cpf(CPF)
+                .investmentId("fund-1")
+                .transactionCount(40)
+                .firstTransactionDate(LocalDate.of(2015, 3, 10))
+                .lastTransactionDate(LocalDate.of(2024, 6, 1))
+                .lastDateCount(2)
+                .fullSyncedAt(LocalDateTime.now().minusDays(1))
+                .syncedAt(LocalDateTime.now().minusDays(1))
+                .build()));
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), eq("2024-06-01"), anyString(), any(), any()))
+                .thenReturn("{\"data\":[{\"transactionDate\":\"2024-06-01\"},"
+                        + "{\"transactionDate\":\"2024-06-01\"},{\"transactionDate\":\"2024-07-15\"}]}");
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        InvestmentData fund = investments.get(0);
+        assertEquals(41, fund.getTransactionCount());
+        assertEquals(LocalDate.of(2015, 3, 10), fund.getFirstTransactionDate());
+        assertEquals(LocalDate.of(2024, 7, 15), fund.getLastTransactionDate());
+        verify(fundsClient).getInvestmentTransactions(anyString(), eq("fund-1"),
+                eq("2024-06-01"), eq(LocalDate.now().toString()), eq(1), any());
+        // fund-2 has no watermark yet
+        verify(fundsClient).getInvestmentTransactions(anyString(), eq("fund-2"), isNull(), isNull(), any(), any());
+    }
+
+    @Test
+    void shouldFallBackToFullDownloadWhenWatermarkIsDueForResync() throws Exception {
+        properties.getTransactionSync().setFullResyncDays(30);
+        when(syncStateRepository.findByCpf(CPF)).thenReturn(List.of(TransactionSyncState.builder()
+                .cpf(CPF)
+                .investmentId("fund-1")
+                .transactionCount(40)
+                .lastTransactionDate(LocalDate.of(2024, 6, 1))
+                .lastDateCount(1)
+                .fullSyncedAt(LocalDateTime.now().minusDays(31))
+                .syncedAt(LocalDateTime.now())
+                .build()));
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        assertEquals(2, investments.get(0).getTransactionCount());
+        verify(fundsClient).getInvestmentTransactions(anyString(), eq("fund-1"), isNull(), isNull(), any(), any());
+    }
+
+    @Test
+    void shouldKeepStoredCountsWhenTransactionsCallFails() throws Exception {
+        when(syncStateRepository.findByCpf(CPF)).thenReturn(List.of(TransactionSyncState.builder()
+                .cpf(CPF)
+                .investmentId("fund-1")
+                .transactionCount(40)
+                .firstTransactionDate(LocalDate.of(2015, 3, 10))
+                .lastTransactionDate(LocalDate.of(2024, 6, 1))
+                .lastDateCount(1)
+                .fullSyncedAt(LocalDateTime.now())
+                .syncedAt(LocalDateTime.now())
+                .build()));
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("503"));
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        assertEquals(40, investments.get(0).getTransactionCount());
+        assertEquals(LocalDate.of(2024, 6, 1), investments.get(0).getLastTransactionDate());
+    }
+
+    @Test
+    void shouldFoldEveryTransactionPage() throws Exception {
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), eq(1), any()))
+                .thenReturn("{\"meta\":{\"totalRecords\":5,\"totalPages\":3},"
+                        + "\"data\":[{\"transactionDate\":\"2022-02-01\"},{\"transactionDate\":\"2022-03-01\"}]}");
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), eq(2), any()))
+                .thenReturn("{\"data\":[{\"transactionDate\":\"2021-05-01\"},{\"transactionDate\":\"2024-09-30\"}],"
+                        + "\"meta\":{\"totalRecords\":5,\"totalPages\":3}}");
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), eq(3), any()))
+                .thenReturn("{\"data\":[{\"transactionDate\":\"2024-09-30\"}],"
+                        + "\"meta\":{\"totalRecords\":5,\"totalPages\":3}}");
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        InvestmentData fund = investments.get(0);
+        assertEquals(5, fund.getTransactionCount());
+        assertEquals(LocalDate.of(2021, 5, 1), fund.getFirstTransactionDate());
+        assertEquals(LocalDate.of(2024, 9, 30), fund.getLastTransactionDate());
+        verify(fundsClient, times(3)).getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), any(),
+                eq(properties.getTransactionSync().getPageSize()));
+    }
+
+    @Test
+    void shouldDiscardPartialWalkWhenAPageFails() throws Exception {
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), eq(1), any()))
+                .thenReturn("{\"data\":[{\"transactionDate\":\"2022-02-01\"}],\"meta\":{\"totalPages\":2}}");
+        when(fundsClient.getInvestmentTransactions(anyString(), eq("fund-1"), any(), any(), eq(2), any()))
+                .thenThrow(new RuntimeException("503"));
+
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        assertEquals(0, investments.get(0).getTransactionCount());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransactionSyncState>> saved = ArgumentCaptor.forClass(List.class);
+        verify(syncStateRepository).saveAll(saved.capture());
+        assertTrue(saved.getValue().stream().noneMatch(state -> "fund-1".equals(state.getInvestmentId())));
+    }
+
+    @Test
+    void shouldReuseParsedDetailWhenOfbAnswersNotModified() throws Exception {
+        when(fundsClient.getInvestmentDetail(anyString(), anyString(), isNull()))
+                .thenReturn(ResponseEntity.ok().eTag("\"v1\"").body(FUND_DETAIL));
+        when(fundsClient.getInvestmentDetail(anyString(), anyString(), eq("\"v1\"")))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        service.fetchInvestments(CPF, "token");
+        clearInvocations(jwsVerificationService);
+        List<InvestmentData> investments = service.fetchInvestments(CPF, "token");
+
+        assertEquals(2, investments.size());
+        assertEquals("RENDA_FIXA", investments.get(0).getType());
+        assertEquals("fund-1", investments.get(0).getInvestmentId());
+        verify(fundsClient, times(2)).getInvestmentDetail(anyString(), anyString(), eq("\"v1\""));
+        // Detail payloads were not verified again
+        verify(jwsVerificationService, never()).verifyAndExtractPayload(FUND_DETAIL);
+    }
+
+    @Test
+    void shouldSendNoValidatorWhenResponseCarriedNoEtag() throws Exception {
+        service.fetchInvestments(CPF, "token");
+        service.fetchInvestments(CPF, "token");
+
+        verify(fundsClient, times(4)).getInvestmentDetail(anyString(), anyString(), isNull());
+    }
+}
@@ -0,0 +1,88 @@
+package com.portfolio.api.service.external;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.provider.dto.OFBInvestmentDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OFBPayloadParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void shouldBindDataObjectSkippingSiblingFields() throws Exception {
+        String payload = "{\"links\":{\"self\":\"x\"},\"data\":{\"investmentType\":\"CDB\",\"purchaseDate\":\"2023-01-15\","
+                + "\"unknown\":{\"nested\":[1,2]}},\"meta\":{\"totalPages\":1}}";
+
+        OFBInvestmentDto dto = OFBPayloadParser.readData(objectMapper, payload, OFBInvestmentDto.class);
+
+        assertEquals("CDB", dto.getInvestmentType());
+        assertEquals(LocalDate.of(2023, 1, 15), dto.getPurchaseDate());
+    }
+
+    @Test
+    void shouldReturnNullWhenDataIsMissing() throws Exception {
+        assertNull(OFBPayloadParser.readData(objectMapper, "{\"meta\":{}}", OFBInvestmentDto.class));
+        assertNull(OFBPayloadParser.summarizeTransactionPage(objectMapper, "{\"data\":null}").summary());
+        assertNull(OFBPayloadParser.readInvestmentIds(objectMapper, "{}"));
+    }
+
+    @Test
+    void shouldReadInvestmentIds() throws Exception {
+        String payload = "{\"data\":[{\"brandName\":\"A\",\"investmentId\":\"inv-1\"},"
+                + "{\"investmentId\":\"inv-2\",\"extra\":[{\"investmentId\":\"nested\"}]},{\"brandName\":\"B\"}]}";
+
+        assertEquals(List.of("inv-1", "inv-2"), OFBPayloadParser.readInvestmentIds(objectMapper, payload));
+    }
+
+    @Test
+    void shouldSummarizeTransactionsInOnePass() throws Exception {
+        String payload = "{\"data\":["
+                + "{\"transactionDate\":\"2024-06-01\",\"transactionValue\":{\"amount\":10}},"
+                + "{\"type\":\"SAIDA\"},"
+                + "{\"transactionDate\":\"2023-01-01\"},"
+                + "{\"transactionDate\":\"2023-07-15\"},"
+                + "{\"transactionDate\":\"2024-06-01\"}"
+                + "],\"meta\":{\"totalRecords\":5}}";
+
+        OFBPayloadParser.TransactionSummary summary =
+                OFBPayloadParser.summarizeTransactionPage(objectMapper, payload).summary();
+
+        assertEquals(5, summary.count());
+        assertEquals(LocalDate.of(2023, 1, 1), summary.firstDate());
+        assertEquals(LocalDate.of(2024, 6, 1), summary.lastDate());
+        assertEquals(2, summary.lastDateCount());
+    }
+
+    @Test
+    void shouldReadTotalPagesWhicheverFieldComesFirst() throws Exception {
+        OFBPayloadParser.TransactionPage metaFirst = OFBPayloadParser.summarizeTransactionPage(objectMapper,
+                "{\"meta\":{\"totalRecords\":3,\"totalPages\":2},\"data\":[{\"transactionDate\":\"2024-01-02\"}]}");
+        OFBPayloadParser.TransactionPage noMeta = OFBPayloadParser.summarizeTransactionPage(objectMapper,
+                "{\"data\":[]}");
+
+        assertEquals(2, metaFirst.totalPages());
+        assertEquals(1, metaFirst.summary().count());
+        assertEquals(1, noMeta.totalPages());
+        assertEquals(0, noMeta.summary().count());
+    }
+
+    @Test
+    void shouldFoldPageSummaries() {
+        OFBPayloadParser.TransactionSummary first = new OFBPayloadParser.TransactionSummary(
+                3, LocalDate.of(2022, 1, 1), LocalDate.of(2024, 6, 1), 2);
+        OFBPayloadParser.TransactionSummary second = new OFBPayloadParser.TransactionSummary(
+                2, LocalDate.of(2021, 1, 1), LocalDate.of(2024, 6, 1), 1);
+
+        OFBPayloadParser.TransactionSummary total = first.plus(second);
+
+        assertEquals(5, total.count());
+        assertEquals(LocalDate.of(2021, 1, 1), total.firstDate());
+        assertEquals(LocalDate.of(2024, 6, 1), total.lastDate());
+        assertEquals(3, total.lastDateCount());
+    }
+}
@@ -0,0 +1,116 @@
+package com.portfolio.api.service.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api.provider.dto.OFBInvestmentDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation benchmark: tree-based (readTree + convertValue) vs streaming OFB payload parsing.
+ *
+ * Run with the GC profiler to compare gc.alloc.rate.norm (bytes/op):
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ *  -Dexec.mainClass=com.portfolio.api.service.external.OFBPayloadParsingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OFBPayloadParsingBenchmark {
+
+    private static final String DETAIL_PAYLOAD = """
+            {"data":{"brandName":"Banco Exemplo","companyCnpj":"12345678000190","investmentType":"CDB",
+            "isinCode":"BRXXXXXXXXX0","issueUnitPrice":{"amount":1000.00,"currency":"BRL"},
+            "remuneration":{"preFixedRate":0.12,"indexer":"CDI","rateType":"LINEAR"},
+            "purchaseDate":"2023-01-15","dueDate":"2026-01-15","issueDate":"2023-01-10"},
+            "links":{"self":"https://api.banco.com.br/open-banking/bank-fixed-incomes/v1/investments/1"},
+            "meta":{"totalRecords":1,"totalPages":1}}""";
+
+    @Param({"10", "100", "1000"})
+    private int transactionCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private String transactionsPayload;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"data\":[");
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < transactionCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"transactionId\":\"txn-").append(i)
+                    .append("\",\"type\":\"ENTRADA\",\"transactionDate\":\"").append(date.plusDays(i))
+                    .append("\",\"transactionValue\":{\"amount\":").append(100 + i)
+                    .append(",\"currency\":\"BRL\"}}");
+        }
+        json.append("],\"meta\":{\"totalRecords\":").append(transactionCount).append(",\"totalPages\":1}}");
+        transactionsPayload = json.toString();
+    }
+
+    @Benchmark
+    public OFBInvestmentDto detailTree() throws Exception {
+        JsonNode dataNode = objectMapper.readTree(DETAIL_PAYLOAD).get("data");
+        return objectMapper.convertValue(dataNode, OFBInvestmentDto.class);
+    }
+
+    @Benchmark
+    public OFBInvestmentDto detailStreaming() throws Exception {
+        return OFBPayloadParser.readData(objectMapper, DETAIL_PAYLOAD, OFBInvestmentDto.class);
+    }
+
+    @Benchmark
+    public OFBPayloadParser.TransactionSummary transactionsTree() throws Exception {
+        JsonNode transactionsNode = objectMapper.readTree(transactionsPayload).get("data");
+        LocalDate firstDate = null;
+        LocalDate lastDate = null;
+        int lastDateCount = 0;
+        for (JsonNode txn : transactionsNode) {
+            JsonNode dateNode = txn.get("transactionDate");
+            if (dateNode != null) {
+                LocalDate date = LocalDate.parse(dateNode.asText());
+                if (firstDate == null || date.isBefore(firstDate)) {
+                    firstDate = date;
+                }
+                if (lastDate == null || date.isAfter(lastDate)) {
+                    lastDate = date;
+                    lastDateCount = 1;
+                } else if (date.isEqual(lastDate)) {
+                    lastDateCount++;
+                }
+            }
+        }
+        return new OFBPayloadParser.TransactionSummary(transactionsNode.size(), firstDate, lastDate, lastDateCount);
+    }
+
+    @Benchmark
+    public OFBPayloadParser.TransactionSummary transactionsStreaming() throws Exception {
+        return OFBPayloadParser.summarizeTransactionPage(objectMapper, transactionsPayload).summary();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(OFBPayloadParsingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}